@@ -0,0 +1,102 @@
+package ch.epfl.javions.demodulation;
+
+import jdk.incubator.vector.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The vector SampleKernel
+ * It uses the Vector API (module jdk.incubator.vector) to handle as many samples at once as the hardware allows. It
+ * is only loaded by reflection, when the module is present. It lives in its own source root, src-vector, which is
+ * compiled with --add-modules jdk.incubator.vector into the same output as src ; the rest of the project does not
+ * need the module to compile.
+ * To calculate the power samples, the differences d[k] = x[k - 6] - x[k - 4] + x[k - 2] - x[k] are computed for all
+ * the samples with four shifted loads of the raw bytes. The bias cancels out in these differences, so the samples
+ * do not need to be decoded, and the differences fit in a short as the samples have 12 bits. Their squares are then
+ * summed by pairs by reinterpreting each pair of ints as a long : P[n] = d[2n]^2 + d[2n + 1]^2.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+final class VectorSampleKernel implements SampleKernel {
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, SHORTS.vectorShape());
+    private static final VectorSpecies<Integer> HALF_INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(SHORTS.vectorBitSize() / 2));
+
+    /**
+     * The mask of the 32 least significant bits of a long
+     */
+    private static final long LOW_INT_MASK = 0xFFFF_FFFFL;
+
+    /**
+     * The constructor of the vector kernel.
+     * @throws UnsupportedOperationException if the hardware does not have vectors of at least 128 bits
+     */
+    VectorSampleKernel() {
+        if (SHORTS.vectorBitSize() < 128) throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void decode(byte[] bytes, short[] samples, int count) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(count); i < bound; i += SHORTS.length()) {
+            ShortVector.fromByteArray(SHORTS, bytes, 2 * i, ByteOrder.LITTLE_ENDIAN)
+                    .sub((short) SamplesDecoder.BIAS)
+                    .intoArray(samples, i);
+        }
+        for (; i < count; ++i) {
+            samples[i] = (short) (((Byte.toUnsignedInt(bytes[2 * i + 1]) << Byte.SIZE)
+                    | Byte.toUnsignedInt(bytes[2 * i])) - SamplesDecoder.BIAS);
+        }
+    }
+
+    @Override
+    public void computePowers(short[] history, ByteBuffer bytes, int powerCount, int[] powers) {
+        int from = Math.min(powerCount, HISTORY_SIZE / 2);
+        ScalarSampleKernel.computePowers(history, bytes, 0, from, powers);
+
+        int n = from;
+        int powersPerVector = SHORTS.length() / 2;
+        if (bytes.hasArray() && bytes.arrayOffset() == 0) {
+            byte[] array = bytes.array();
+            for (; n + powersPerVector <= powerCount; n += powersPerVector) {
+                int offset = 2 * SamplesDecoder.BYTES_IN_SHORT * n;
+                storePowers(ShortVector.fromByteArray(SHORTS, array, offset - 12, ByteOrder.LITTLE_ENDIAN)
+                        .sub(ShortVector.fromByteArray(SHORTS, array, offset - 8, ByteOrder.LITTLE_ENDIAN))
+                        .add(ShortVector.fromByteArray(SHORTS, array, offset - 4, ByteOrder.LITTLE_ENDIAN))
+                        .sub(ShortVector.fromByteArray(SHORTS, array, offset, ByteOrder.LITTLE_ENDIAN)), powers, n);
+            }
+        } else {
+            for (; n + powersPerVector <= powerCount; n += powersPerVector) {
+                int offset = 2 * SamplesDecoder.BYTES_IN_SHORT * n;
+                storePowers(ShortVector.fromByteBuffer(SHORTS, bytes, offset - 12, ByteOrder.LITTLE_ENDIAN)
+                        .sub(ShortVector.fromByteBuffer(SHORTS, bytes, offset - 8, ByteOrder.LITTLE_ENDIAN))
+                        .add(ShortVector.fromByteBuffer(SHORTS, bytes, offset - 4, ByteOrder.LITTLE_ENDIAN))
+                        .sub(ShortVector.fromByteBuffer(SHORTS, bytes, offset, ByteOrder.LITTLE_ENDIAN)), powers, n);
+            }
+        }
+        ScalarSampleKernel.computePowers(history, bytes, n, powerCount, powers);
+        ScalarSampleKernel.updateHistory(history, bytes, 2 * powerCount);
+    }
+
+    /**
+     * This function calculates the power samples from a vector of differences and stores them in the array. The
+     * vector of differences d[2n - 6], ..., gives half as many power samples as it has lanes.
+     *
+     * @param d      (ShortVector) : the differences of the samples of the power samples
+     * @param powers (int[]) : the array receiving the power samples
+     * @param n      (int) : the index of the first power sample
+     */
+    private static void storePowers(ShortVector d, int[] powers, int n) {
+        int powersPerVector = SHORTS.length() / 2;
+        for (int part = 0; part < 2; ++part) {
+            IntVector di = (IntVector) d.convertShape(VectorOperators.S2I, INTS, part);
+            LongVector squares = di.mul(di).reinterpretAsLongs();
+            LongVector sums = squares.and(LOW_INT_MASK).add(squares.lanewise(VectorOperators.LSHR, 32));
+            ((IntVector) sums.convertShape(VectorOperators.L2I, HALF_INTS, 0))
+                    .intoArray(powers, n + part * powersPerVector / 2);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package ch.epfl.javions;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 /**
  * A CRC24
  * @author Yassine El graoui (361984)
@@ -26,8 +31,24 @@ public final class Crc24 {
      * The number of bits used in a byte
      */
     public static final int BYTE_SHIFT = Byte.SIZE;
+
+    /**
+     * The number of bytes handled at once by the slicing algorithm, which is the number of bytes of a long
+     */
+    private static final int SLICES = Long.BYTES;
+
+    /**
+     * The mask of the N bits of a CRC24
+     */
+    private static final int CRC_MASK = (1 << N) - 1;
+
+    /**
+     * The access to the bytes of an array as big-endian longs
+     */
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
     private final int generator;
     private final int[] lookUpTable;
+    private final int[] slicingTable;
 
     /**
      * This is the constructor of the CRC24. It takes a certain generator and set it as the one that we will use to decode
@@ -37,6 +58,7 @@ public final class Crc24 {
     public Crc24(int generator) {
         this.generator = generator;
         lookUpTable = BuildTable();
+        slicingTable = buildSlicingTable();
     }
 
     /**
@@ -83,7 +105,24 @@ public final class Crc24 {
     }
 
     /**
-     * It returns the CRC of length 24 of a non-augmented message
+     * This function returns the tables used to handle eight bytes at once : the table k, stored at the indexes
+     * [256 * k, 256 * (k + 1)[, contains the crc24 of all the bytes followed by k zero bytes. The table 0 is thus the
+     * lookUp table, and each table is deduced from the previous one by adding a zero byte.
+     *
+     * @return (int[]) : the eight tables, one after the other
+     */
+    private int[] buildSlicingTable() {
+        int[] table = new int[SLICES * MAX_BYTE_LENGTH];
+        System.arraycopy(lookUpTable, 0, table, 0, MAX_BYTE_LENGTH);
+        for (int i = MAX_BYTE_LENGTH; i < table.length; ++i) {
+            int previous = table[i - MAX_BYTE_LENGTH];
+            table[i] = ((previous << BYTE_SHIFT) & CRC_MASK) ^ lookUpTable[previous >>> (N - BYTE_SHIFT)];
+        }
+        return table;
+    }
+
+    /**
+     * It returns the CRC of length 24 of a non-augmented message, one byte at a time, using the lookUp table.
      *
      * @param bytes (bytes[]) : the byte that is used to calculate its crc24.
      * @return (int) : this functions returns the crc24 of an initial array containing a single byte. It applies the division to obtain
@@ -93,7 +132,7 @@ public final class Crc24 {
      * previous operation. The only difference is that all the bits of b are zeros, so we can reduce the previous operation to a shift of 1 of the crc
      * then a xor with the 23rd bit of crc24 that is being calculated. Finally, we return the 24 least significant bits of the calculated crc.
      */
-    public int crc(byte[] bytes){
+    public int crc_bytewise(byte[] bytes){
         int crc = 0;
 
         for (byte aByte : bytes) {
@@ -106,4 +145,55 @@ public final class Crc24 {
 
         return Bits.extractUInt(crc, 0, N);
     }
-}
\ No newline at end of file
+
+    /**
+     * It returns the CRC of length 24 of a non-augmented message (see crc(byte[], int, int)).
+     *
+     * @param bytes (bytes[]) : the message
+     * @return (int) : the crc24 of the message
+     */
+    public int crc(byte[] bytes){
+        return crc(bytes, 0, bytes.length);
+    }
+
+    /**
+     * It returns the CRC of length 24 of the non-augmented message contained in the given part of the array, without
+     * copying it.
+     * Instead of appending three zero bytes, the message is divided directly : each byte is xored with the 8 most
+     * significant bits of the crc before being looked up, which gives the same result as the lookUp table version.
+     * The bytes are then handled eight at a time, read as a single long : the crc of eight bytes is the xor of the
+     * crc of each byte followed by the bytes after it, which are all in the slicing tables, the crc calculated so far
+     * being xored with the first three bytes. The last bytes are handled one at a time.
+     *
+     * @param bytes  (byte[]) : the array containing the message
+     * @param offset (int) : the index of the first byte of the message
+     * @param length (int) : the number of bytes of the message
+     * @return (int) : the crc24 of the message
+     * @throws IndexOutOfBoundsException if the message is not entirely contained in the array
+     */
+    public int crc(byte[] bytes, int offset, int length){
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int[] t = slicingTable;
+        int crc = 0;
+        int i = offset;
+        int end = offset + length;
+
+        for (; i <= end - SLICES; i += SLICES) {
+            long word = (long) LONGS.get(bytes, i) ^ ((long) crc << (Long.SIZE - N));
+            crc = t[7 * MAX_BYTE_LENGTH + (int) (word >>> 56)]
+                    ^ t[6 * MAX_BYTE_LENGTH + ((int) (word >>> 48) & 0xFF)]
+                    ^ t[5 * MAX_BYTE_LENGTH + ((int) (word >>> 40) & 0xFF)]
+                    ^ t[4 * MAX_BYTE_LENGTH + ((int) (word >>> 32) & 0xFF)]
+                    ^ t[3 * MAX_BYTE_LENGTH + ((int) (word >>> 24) & 0xFF)]
+                    ^ t[2 * MAX_BYTE_LENGTH + ((int) (word >>> 16) & 0xFF)]
+                    ^ t[MAX_BYTE_LENGTH + ((int) (word >>> 8) & 0xFF)]
+                    ^ t[(int) word & 0xFF];
+        }
+
+        for (; i < end; ++i) {
+            crc = ((crc << BYTE_SHIFT) & CRC_MASK) ^ t[((crc >>> (N - BYTE_SHIFT)) ^ bytes[i]) & 0xFF];
+        }
+
+        return crc;
+    }
+}
@@ -0,0 +1,156 @@
+package ch.epfl.javions;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * The ExpiryQueue
+ * A queue of values ordered by the time stamp at which they were last touched, used to forget the values that were not
+ * touched for a given time. Since a value touched is given the most recent time stamp, it is simply moved to the end
+ * of a doubly linked list : touching a value is done in constant time, and the values that expired are all at the
+ * beginning of the list, so that expiring them does not look at the other ones.
+ * The time stamps given to the queue must be increasing ; a value touched with an older time stamp than the last one
+ * is still put at the end, and can thus only expire once the values before it did.
+ * It is not thread safe.
+ *
+ * @param <T> the type of the values
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class ExpiryQueue<T> {
+
+    /**
+     * An entry of the queue, through which its value is touched or removed.
+     *
+     * @param <T> the type of the value
+     */
+    public static final class Entry<T> {
+        private final T value;
+        private long timeStampNs;
+        private Entry<T> previous;
+        private Entry<T> next;
+
+        private Entry(T value) {
+            this.value = value;
+        }
+
+        /**
+         * getter of the value of the entry
+         * @return (T) : the value
+         */
+        public T value() {
+            return value;
+        }
+
+        /**
+         * getter of the time stamp at which the entry was last touched
+         * @return (long) : the time stamp, in nanoseconds
+         */
+        public long timeStampNs() {
+            return timeStampNs;
+        }
+
+        /**
+         * This function states if the entry is in a queue.
+         * @return (boolean) : false if the entry expired or was removed
+         */
+        public boolean isQueued() {
+            return next != null;
+        }
+    }
+
+    private final Entry<T> sentinel = new Entry<>(null);
+    private int size = 0;
+
+    /**
+     * The constructor of an empty queue.
+     */
+    public ExpiryQueue() {
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    /**
+     * getter of the number of values in the queue
+     * @return (int) : the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This function adds the given value at the end of the queue.
+     *
+     * @param value       (T) : the value
+     * @param timeStampNs (long) : the time stamp at which the value is touched
+     * @return (Entry<T>) : the entry of the value
+     * @throws NullPointerException if the value is null
+     */
+    public Entry<T> add(T value, long timeStampNs) {
+        Entry<T> entry = new Entry<>(Objects.requireNonNull(value));
+        entry.timeStampNs = timeStampNs;
+        link(entry);
+        ++size;
+        return entry;
+    }
+
+    /**
+     * This function touches the value of the given entry, which is moved to the end of the queue.
+     *
+     * @param entry       (Entry<T>) : the entry of the value
+     * @param timeStampNs (long) : the time stamp at which the value is touched
+     * @throws IllegalArgumentException if the entry is not in a queue
+     */
+    public void touch(Entry<T> entry, long timeStampNs) {
+        Preconditions.checkArgument(entry.isQueued());
+        entry.timeStampNs = timeStampNs;
+        if (sentinel.previous == entry) return;
+        unlink(entry);
+        link(entry);
+    }
+
+    /**
+     * This function removes the given entry from the queue, if it is still in it.
+     *
+     * @param entry (Entry<T>) : the entry to remove
+     */
+    public void remove(Entry<T> entry) {
+        if (!entry.isQueued()) return;
+        unlink(entry);
+        --size;
+    }
+
+    /**
+     * This function removes, from the beginning of the queue, the entries touched before the given time stamp, and
+     * gives their values to the given consumer.
+     *
+     * @param limitNs (long) : the time stamp before which the entries expire (excluded)
+     * @param expired (Consumer<T>) : the receiver of the values of the expired entries
+     * @return (int) : the number of expired entries
+     */
+    public int expire(long limitNs, Consumer<? super T> expired) {
+        int count = 0;
+        while (sentinel.next != sentinel && sentinel.next.timeStampNs < limitNs) {
+            Entry<T> entry = sentinel.next;
+            unlink(entry);
+            --size;
+            ++count;
+            expired.accept(entry.value);
+        }
+        return count;
+    }
+
+    private void link(Entry<T> entry) {
+        entry.previous = sentinel.previous;
+        entry.next = sentinel;
+        sentinel.previous.next = entry;
+        sentinel.previous = entry;
+    }
+
+    private void unlink(Entry<T> entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+        entry.previous = null;
+        entry.next = null;
+    }
+}
@@ -50,15 +50,67 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
      */
     public static AirbornePositionMessage of(RawMessage rawMessage) {
         long me = rawMessage.payload();
+        double altitude = altitude(me);
+        if (Double.isNaN(altitude)) {
+            return null;
+        }
 
-        int lon_cpr = Bits.extractUInt(me, 0, 17);
-        int lat_cpr = Bits.extractUInt(me, 17, 17);
+        return new AirbornePositionMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+                altitude, parity(me), x(me), y(me));
+    }
 
-        int format = Bits.extractUInt(me, 34, 1);
-        int altitude = Bits.extractUInt(me, 36, LENGTH_ALTITUDE);
+    /**
+     * This function decodes the fields of the position message whose ME is given into the given holder, without
+     * creating any object.
+     *
+     * @param me     (long) : the ME value of the message
+     * @param fields (PositionFields) : the holder receiving the fields
+     * @return (boolean) : false if the altitude is invalid, in which case the holder is not modified, true otherwise
+     */
+    static boolean decode(long me, MessageParser.PositionFields fields) {
+        double altitude = altitude(me);
+        if (Double.isNaN(altitude)) {
+            return false;
+        }
+        fields.set(altitude, parity(me), x(me), y(me));
+        return true;
+    }
 
-        double x = Math.scalb(lon_cpr, -17);
-        double y = Math.scalb(lat_cpr, -17);
+    /**
+     * This function returns the parity of the message, the bit 34 of the ME.
+     * @param me (long) : the ME value of the message
+     * @return (int) : the parity of the message (0 or 1)
+     */
+    private static int parity(long me) {
+        return Bits.extractUInt(me, 34, 1);
+    }
+
+    /**
+     * This function returns the local and normalized longitude of the message, the bits 0 to 16 of the ME.
+     * @param me (long) : the ME value of the message
+     * @return (double) : the longitude, in [0, 1[
+     */
+    private static double x(long me) {
+        return Math.scalb(Bits.extractUInt(me, 0, 17), -17);
+    }
+
+    /**
+     * This function returns the local and normalized latitude of the message, the bits 17 to 33 of the ME.
+     * @param me (long) : the ME value of the message
+     * @return (double) : the latitude, in [0, 1[
+     */
+    private static double y(long me) {
+        return Math.scalb(Bits.extractUInt(me, 17, 17), -17);
+    }
+
+    /**
+     * This function decodes the altitude of the message, the bits 36 to 47 of the ME. If the bit Q is 1, the altitude
+     * is a multiple of 25 feet, otherwise it is encoded with the Gray code in multiples of 100 and 500 feet.
+     * @param me (long) : the ME value of the message
+     * @return (double) : the altitude in meters, or NaN if it is invalid
+     */
+    private static double altitude(long me) {
+        int altitude = Bits.extractUInt(me, 36, LENGTH_ALTITUDE);
 
         byte q = (byte)Bits.extractUInt(altitude, 4, 1);
 
@@ -77,7 +129,7 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
 
             multiple100LSB = grayCodeDecoder(multiple100LSB);
             if(multiple100LSB == 0 || multiple100LSB == 5 || multiple100LSB == 6) {
-                return null;
+                return Double.NaN;
             } else if (multiple100LSB == 7) {
                 multiple100LSB = 5;
             }
@@ -90,8 +142,7 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
             result = -1300 + multiple100LSB*100 + multiple500MSB*500;
         }
 
-        return new AirbornePositionMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
-                Units.convertFrom(result, Units.Length.FOOT), format, x, y);
+        return Units.convertFrom(result, Units.Length.FOOT);
     }
 
     private static int altitudeDetangling(int alt){
@@ -54,30 +54,6 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
     }
 
 
-    /**
-     * This function returns an array containing all the information needed to create a velocity message. The indexes indicate
-     * different things depending on the subtype of the message :
-     * Subtype 1 or 2 : 0 -> VNS (+1) : the speed following the axis North-South (+1)
-     *                  1 -> DNS : the direction is towards north if its value is 0, otherwise (if its value is 1) the direction is to south
-     *                  2 -> VEW (+1) : the speed following the axis East-West (+1)
-     *                  3 -> DEW : the direction is towards east if its value is 0, otherwise (if the value is 1) the direction is to the west
-     * Subtype 3 or 4 : 0 -> SH : the availability of the heading
-     *                  1 -> HDG : the value of the heading (*2^10)
-     *                  2 -> T (but it is not used in this code)
-     *                  3 -> AS (+1) : the value of the air speed (+1)
-     * @param a (int) : the integer after the extraction from bit 21 to bit 42 of the ME.
-     * @return (int[]) : the array containing all the above information needed to decode the VelocityMessage.
-     */
-
-    private static int[] extractInformation(int a) {
-        int[] information = new int[4];
-        information[0] = Bits.extractUInt(a, 0, 10); //VNS + 1, AS + 1
-        information[1] = Bits.testBit(a, 10) ? 1 : 0; //DNS, T(not used)
-        information[2] = Bits.extractUInt(a, 11, 10); // VEW + 1, HDG
-        information[3] = Bits.testBit(a, 21) ? 1 : 0; //DEW, SH
-        return information;
-    }
-
     /**
      * This function tests if the subtype of the message is valid for the decoding. Indeed, if the subtype is not 1, 2, 3 or 4, this
      * function returns false meaning that the message cannot be decoded. Otherwise, it returns true.
@@ -100,17 +76,20 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
      * in which the aircraft's nose is pointing, measured clockwise (thus we have a indirect frame of reference).
      * We only cover by convention angles in [0, 2pi) thus if the angle is negative we add a turn (2pi) to it.
      *
-     * @param infos (int[]) : the array containing the information needed to do the computations
+     * @param vnsPlus1 (int) : VNS (+1) : the speed following the axis North-South (+1)
+     * @param dns      (boolean) : DNS : true if the direction is towards south, false if it is towards north
+     * @param vewPlus1 (int) : VEW (+1) : the speed following the axis East-West (+1)
+     * @param dew      (boolean) : DEW : true if the direction is towards west, false if it is towards east
      * @return (double) : the clockwise angle from the north representing the heading of the plane.
      */
-    private static double calculateAngleForSt1or2(int[] infos) {
-        double vns = infos[0] - 1;
-        double vew = infos[2] - 1;
+    private static double calculateAngleForSt1or2(int vnsPlus1, boolean dns, int vewPlus1, boolean dew) {
+        double vns = vnsPlus1 - 1;
+        double vew = vewPlus1 - 1;
 
-        if(infos[1] != 0) {
+        if(dns) {
             vns = -vns;
         }
-        if(infos[3] != 0) {
+        if(dew) {
             vew = -vew;
         }
 
@@ -124,61 +103,71 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
 
     /**
      * This function decodes the airborne velocity message corresponding to the given raw message
-     * considering multiple intermediate cases. If the case is 1 or 2, we verify that both of the VNS (+1) and the VEW (+1)
-     * arguments are positive (meaning that the speeds on the different axis are not strictly negative), it is therefore decodable.
-     * Also, if the message is of subtype 3 or 4, we verify that the cap is available (the SH is equal to 1) and that the speed
-     * is not strictly negative. After testing all of that, we calculate the angle (if it is in subtype 3 or 4, the angle is first
-     * calculated, then converted from turns to radians) and the speed. Furthermore, if the message is of subtype 2 or 4, we convert
-     * the obtained speed from 4*knots to meter per seconds. And if it is of subtype 1 or 3, we convert the obtained speed
-     * from knots to meter per seconds. Finally, the message is created with the timeStamp and
-     * the ICAO address of the initial message, followed by the speed, the angle.
+     * (see decode(long, VelocityFields)).
      * @param rawMessage (RawMessage) : the raw message that will be used to get the corresponding velocity message
      * @return (AirborneVelocityMessage) : the airborne velocity message corresponding to the raw message passed to the constructor
      * or null if the subtype is invalid, or if the speed or direction of movement cannot be determined.
      */
     public static AirborneVelocityMessage of(RawMessage rawMessage) {
-        long me = rawMessage.payload();
-        byte st = (byte) (Bits.extractUInt(me, START_OF_SUBTYPE, LENGTH_OF_SUBTYPE));
-
-        if (!validST(st)) {
+        MessageParser.VelocityFields fields = new MessageParser.VelocityFields();
+        if (!decode(rawMessage.payload(), fields)) {
             return null;
         }
 
-        double speed = 0;
-        double angle = 0;
+        return new AirborneVelocityMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(), fields.speed(),
+                fields.trackOrHeading());
+    }
 
-        int[] infos = extractInformation(Bits.extractUInt(me, START_OF_VELOCITY_MESSAGE_INFORMATION,
-                LENGTH_OF_VELOCITY_MESSAGE_INFORMATION));
+    /**
+     * This function decodes the speed and the direction of the velocity message whose ME is given into the given
+     * holder, without creating any object, considering multiple intermediate cases. The bits 21 to 42 of the ME
+     * contain four fields, whose meaning depends on the subtype of the message :
+     * Subtype 1 or 2 : VNS (+1), DNS, VEW (+1), DEW, from the least significant one.
+     * Subtype 3 or 4 : AS (+1), T (not used here), HDG (*2^10), SH, from the least significant one.
+     * If the case is 1 or 2, we verify that both of the VNS (+1) and the VEW (+1)
+     * arguments are positive (meaning that the speeds on the different axis are not strictly negative), it is therefore decodable.
+     * Also, if the message is of subtype 3 or 4, we verify that the cap is available (the SH is equal to 1) and that the speed
+     * is not strictly negative. After testing all of that, we calculate the angle (if it is in subtype 3 or 4, the angle is first
+     * calculated, then converted from turns to radians) and the speed. Furthermore, if the message is of subtype 2 or 4, we convert
+     * the obtained speed from 4*knots to meter per seconds. And if it is of subtype 1 or 3, we convert the obtained speed
+     * from knots to meter per seconds.
+     *
+     * @param me     (long) : the ME value of the message
+     * @param fields (VelocityFields) : the holder receiving the fields
+     * @return (boolean) : false if the subtype is invalid, or if the speed or direction of movement cannot be
+     * determined, in which case the holder is not modified, true otherwise
+     */
+    static boolean decode(long me, MessageParser.VelocityFields fields) {
+        int st = Bits.extractUInt(me, START_OF_SUBTYPE, LENGTH_OF_SUBTYPE);
 
-        if(nullCheckerForCertainCases(st, infos)) {
-            return null;
-        }
-        switch (st) {
-            case 1, 2 -> {
-                double speedInKnots = Math.hypot(infos[0] - 1, infos[2] - 1);
-                speed =  Units.convertFrom(speedInKnots, st == 1 ?  Units.Speed.KNOT : 4 * Units.Speed.KNOT);
-                angle = calculateAngleForSt1or2(infos);
-            }
-
-            case 3, 4 -> {
-                speed = Units.convertFrom(infos[0] - 1, st == 3 ? Units.Speed.KNOT : 4 * Units.Speed.KNOT);
-                double angleInTurn = Math.scalb(infos[2], -10);
-                angle = Units.convertFrom(angleInTurn, Units.Angle.TURN);
-            }
+        if (!validST(st)) {
+            return false;
         }
 
-        return new AirborneVelocityMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(), speed, angle);
-    }
+        int information = Bits.extractUInt(me, START_OF_VELOCITY_MESSAGE_INFORMATION,
+                LENGTH_OF_VELOCITY_MESSAGE_INFORMATION);
+        int first = Bits.extractUInt(information, 0, 10); //VNS + 1, AS + 1
+        boolean second = Bits.testBit(information, 10); //DNS, T(not used)
+        int third = Bits.extractUInt(information, 11, 10); // VEW + 1, HDG
+        boolean fourth = Bits.testBit(information, 21); //DEW, SH
 
-    /**
-     * This function verifies if the attributs of the messages are valid to allow the raw message to be analysed
-     * @param st (byte) : the subtype of the raw message
-     * @param infos (int[]) : the information used namely the VEW, for example
-     * @return (boolean) : if the message can be analysed it returns true. Otherwise, it returns false
-     */
+        if(((st == 1 || st == 2) && (first == 0 || third == 0)) || ((st == 3 || st == 4) && (first == 0 || !fourth))) {
+            return false;
+        }
+
+        double speed;
+        double angle;
+        if (st == 1 || st == 2) {
+            double speedInKnots = Math.hypot(first - 1, third - 1);
+            speed = Units.convertFrom(speedInKnots, st == 1 ? Units.Speed.KNOT : 4 * Units.Speed.KNOT);
+            angle = calculateAngleForSt1or2(first, second, third, fourth);
+        } else {
+            speed = Units.convertFrom(first - 1, st == 3 ? Units.Speed.KNOT : 4 * Units.Speed.KNOT);
+            double angleInTurn = Math.scalb(third, -10);
+            angle = Units.convertFrom(angleInTurn, Units.Angle.TURN);
+        }
 
-    private static boolean nullCheckerForCertainCases(byte st, int[] infos) {
-        return ((st == 1 || st == 2)  && (infos[0] == 0 || infos[2] == 0))
-                || ((st == 3 || st == 4) && (infos[0] == 0 || infos[3] == 0));
+        fields.set(speed, angle);
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -38,33 +38,59 @@ public record AircraftIdentificationMessage(long timeStampNs, IcaoAddress icaoAd
      * invalid, it returns null.
      */
     public static AircraftIdentificationMessage of(RawMessage rawMessage) {
-        StringBuilder result = new StringBuilder();
-        long payload = rawMessage.payload();
+        MessageParser.IdentificationFields fields = new MessageParser.IdentificationFields();
+        if (!decode(rawMessage.typeCode(), rawMessage.payload(), fields)) {
+            return null;
+        }
+
+        long resultTimeStampsNs = rawMessage.timeStampNs();
+        IcaoAddress resultIcao = rawMessage.icaoAddress();
+        CallSign resultCallSign = new CallSign(fields.callSign());
 
-        int typeCode = rawMessage.typeCode();
+        return new AircraftIdentificationMessage(resultTimeStampsNs, resultIcao, fields.category(), resultCallSign);
+    }
+
+    /**
+     * This function decodes the category and the call sign of the identification message whose ME is given into the
+     * given holder, without creating any object. The call sign is made of eight characters of 6 bits, the spaces at
+     * its end being removed.
+     *
+     * @param typeCode (int) : the type code of the message
+     * @param payload  (long) : the ME value of the message
+     * @param fields   (IdentificationFields) : the holder receiving the fields
+     * @return (boolean) : false if one of the characters is invalid, in which case the holder is left unchanged,
+     * true otherwise
+     */
+    static boolean decode(int typeCode, long payload, MessageParser.IdentificationFields fields) {
         int caLSB = (Bits.extractUInt(payload, 48, 3));
         int codeMSB =  (14 - typeCode);
         int resultCategory = ((codeMSB << 4) | caLSB);
 
-        for(int i = 0; i < 8; ++i) {
+        // All the characters are checked before the first one is written, so that an invalid message never
+        // corrupts the holder
+        char[] callSign = fields.callSignChars();
+        for (int i = 0; i < callSign.length; ++i) {
             int extractedChar = Bits.extractUInt(payload, 42 - 6 * i, 6);
-            if((1 <= extractedChar && extractedChar <= 26) || (48 <= extractedChar && extractedChar <= 57)
-                    || (extractedChar == 32)) {
-                if(extractedChar <= 26) {
-                    result.append((char) (extractedChar + 64));
-                } else {
-                    result.append((char) (extractedChar));
-                }
-            } else {
-                return null;
-             }
+            if (!((1 <= extractedChar && extractedChar <= 26) || (48 <= extractedChar && extractedChar <= 57)
+                    || (extractedChar == 32))) {
+                return false;
+            }
         }
 
-        long resultTimeStampsNs = rawMessage.timeStampNs();
-        IcaoAddress resultIcao = rawMessage.icaoAddress();
-        CallSign resultCallSign = new CallSign(result.toString()
-                .replaceFirst("\\s++$", ""));
+        int length = 0;
+        for (int i = 0; i < callSign.length; ++i) {
+            int extractedChar = Bits.extractUInt(payload, 42 - 6 * i, 6);
+            if (extractedChar <= 26) {
+                callSign[i] = (char) (extractedChar + 64);
+            } else {
+                callSign[i] = (char) (extractedChar);
+            }
+            if (extractedChar != 32) {
+                length = i + 1;
+            }
+        }
 
-        return new AircraftIdentificationMessage(resultTimeStampsNs, resultIcao, resultCategory, resultCallSign);
+        fields.set(resultCategory, length);
+        return true;
     }
 }
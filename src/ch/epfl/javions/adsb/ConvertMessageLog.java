@@ -0,0 +1,42 @@
+package ch.epfl.javions.adsb;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The ConvertMessageLog
+ * It converts a file of raw messages, as replayed by the MessageReplay, to the message log format.
+ * Usage : ConvertMessageLog messages log [raw], the payloads of the blocks being compressed unless "raw" is given.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class ConvertMessageLog {
+
+    private ConvertMessageLog() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage : ConvertMessageLog messages log [raw]");
+            System.exit(1);
+        }
+        Path messages = Path.of(args[0]);
+        Path log = Path.of(args[1]);
+        boolean compress = args.length < 3 || !args[2].equals("raw");
+
+        long start = System.nanoTime();
+        long count;
+        try (MessageReplay replay = MessageReplay.open(messages);
+             MessageLogWriter writer = MessageLogWriter.create(log, compress)) {
+            replay.setSpeed(MessageReplay.AS_FAST_AS_POSSIBLE);
+            RawMessage message;
+            while ((message = replay.next()) != null) writer.write(message);
+            count = writer.messageCount();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.err.printf(Locale.ROOT, "%d messages converted in %.3f s to %s (%d bytes, %d bytes before)%n",
+                count, seconds, log, log.toFile().length(), messages.toFile().length());
+    }
+}
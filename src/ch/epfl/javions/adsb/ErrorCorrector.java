@@ -0,0 +1,209 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ErrorCorrector
+ * It repairs the ADS-B messages whose CRC is wrong because of one or two flipped bits.
+ * The CRC24 is linear : the crc of a message in which some bits are flipped is the xor of the crc of the correct
+ * message, which is 0, and of the crc of the flipped bits alone. This crc, called the syndrome, thus only depends on
+ * the position of the errors, and the syndromes of all the possible errors are computed once and stored in a hash
+ * table. Correcting a message then takes a single crc calculation and a single lookup.
+ * The bits of the DF are never corrected, as the demodulator only keeps the messages whose DF is 17. The syndromes
+ * shared by several errors are removed from the table, so that a message is never corrected in a wrong way.
+ * Correcting two bits makes a random message pass the check with a probability of about 1 in 3000 instead of 1 in
+ * 16 million, so it should only be used when the signal is otherwise strong enough.
+ * A corrector can be shared by several threads.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class ErrorCorrector {
+
+    /**
+     * The maximal number of flipped bits that can be corrected
+     */
+    public static final int MAX_ERRORS = 2;
+
+    /**
+     * The number of bits of a message
+     */
+    private static final int MESSAGE_BITS = RawMessage.LENGTH * Byte.SIZE;
+
+    /**
+     * The index of the first bit that can be corrected, after the DF
+     */
+    private static final int FIRST_CORRECTED_BIT = RawMessage.DF_SIZE;
+
+    /**
+     * The size of the hash table, a power of two at least twice as big as the number of errors
+     */
+    private static final int TABLE_SIZE = 1 << 14;
+
+    /**
+     * The value of an entry of the table whose syndrome corresponds to several errors
+     */
+    private static final int AMBIGUOUS = -1;
+
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+
+    private final int maxErrors;
+    private final int[] syndromes;
+    private final int[] errors;
+    private final AtomicLong[] correctedFrames;
+
+    /**
+     * The constructor of the corrector. It computes the syndromes of all the errors of at most the given number of
+     * bits.
+     *
+     * @param maxErrors (int) : the maximal number of flipped bits that are corrected, 0 meaning that the messages are
+     *                  only checked
+     * @throws IllegalArgumentException if the number of bits is not between 0 and MAX_ERRORS (included)
+     */
+    public ErrorCorrector(int maxErrors) {
+        Preconditions.checkArgument(0 <= maxErrors && maxErrors <= MAX_ERRORS);
+        this.maxErrors = maxErrors;
+        syndromes = new int[TABLE_SIZE];
+        errors = new int[TABLE_SIZE];
+        correctedFrames = new AtomicLong[MAX_ERRORS + 1];
+        for (int i = 0; i < correctedFrames.length; ++i) correctedFrames[i] = new AtomicLong();
+
+        int[] bitSyndromes = new int[MESSAGE_BITS];
+        byte[] message = new byte[RawMessage.LENGTH];
+        for (int bit = FIRST_CORRECTED_BIT; bit < MESSAGE_BITS; ++bit) {
+            flip(message, bit);
+            bitSyndromes[bit] = CRC24.crc(message);
+            flip(message, bit);
+        }
+
+        if (maxErrors >= 1) {
+            for (int bit = FIRST_CORRECTED_BIT; bit < MESSAGE_BITS; ++bit) {
+                add(bitSyndromes[bit], error(bit, bit, 1));
+            }
+        }
+        if (maxErrors >= 2) {
+            for (int first = FIRST_CORRECTED_BIT; first < MESSAGE_BITS; ++first) {
+                for (int second = first + 1; second < MESSAGE_BITS; ++second) {
+                    add(bitSyndromes[first] ^ bitSyndromes[second], error(first, second, 2));
+                }
+            }
+        }
+    }
+
+    /**
+     * This function returns the maximal number of flipped bits that are corrected.
+     * @return (int) : the maximal number of corrected bits
+     */
+    public int maxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * This function checks the CRC of the given message and, if it is wrong because of an error that can be corrected,
+     * corrects it by flipping back the wrong bits.
+     *
+     * @param bytes (byte[]) : the 14 bytes of the message, modified if they are corrected
+     * @return (boolean) : true if the CRC of the message was correct or if it was corrected, false otherwise
+     * @throws IllegalArgumentException if the message does not have 14 bytes
+     */
+    public boolean correct(byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+        int syndrome = CRC24.crc(bytes);
+        if (syndrome == 0) return true;
+
+        int error = find(syndrome);
+        if (error == 0 || error == AMBIGUOUS) return false;
+
+        int bitCount = error >>> 16;
+        flip(bytes, error & 0xFF);
+        if (bitCount == 2) flip(bytes, (error >>> 8) & 0xFF);
+        correctedFrames[bitCount].incrementAndGet();
+        return true;
+    }
+
+    /**
+     * This function returns the number of messages that were corrected since the creation of the corrector.
+     * @return (long) : the number of corrected messages
+     */
+    public long correctedFrames() {
+        long total = 0;
+        for (AtomicLong count : correctedFrames) total += count.get();
+        return total;
+    }
+
+    /**
+     * This function returns the number of messages in which the given number of bits were corrected.
+     *
+     * @param errors (int) : the number of corrected bits
+     * @return (long) : the number of messages corrected with this number of bits
+     * @throws IllegalArgumentException if the number of bits is not 1 or 2
+     */
+    public long correctedFrames(int errors) {
+        Preconditions.checkArgument(1 <= errors && errors <= MAX_ERRORS);
+        return correctedFrames[errors].get();
+    }
+
+    /**
+     * This function adds an error to the table. If its syndrome is already in the table, the entry is marked as
+     * ambiguous.
+     * @param syndrome (int) : the syndrome of the error, which is never 0
+     * @param error    (int) : the encoded error
+     */
+    private void add(int syndrome, int error) {
+        int i = slot(syndrome);
+        if (syndromes[i] == syndrome) {
+            errors[i] = AMBIGUOUS;
+        } else {
+            syndromes[i] = syndrome;
+            errors[i] = error;
+        }
+    }
+
+    /**
+     * This function returns the error of the given syndrome.
+     * @param syndrome (int) : the syndrome of the message, which is not 0
+     * @return (int) : the encoded error, 0 if the syndrome does not correspond to any error, or AMBIGUOUS
+     */
+    private int find(int syndrome) {
+        int i = slot(syndrome);
+        return syndromes[i] == syndrome ? errors[i] : 0;
+    }
+
+    /**
+     * This function returns the slot of the table in which the syndrome is, or should be, stored : the first one that
+     * contains it or that is empty, starting from its hash.
+     * @param syndrome (int) : the syndrome
+     * @return (int) : the index of the slot
+     */
+    private int slot(int syndrome) {
+        int i = (syndrome * 0x9E3779B1) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(TABLE_SIZE));
+        while (syndromes[i] != 0 && syndromes[i] != syndrome) {
+            i = (i + 1) & (TABLE_SIZE - 1);
+        }
+        return i;
+    }
+
+    /**
+     * This function encodes an error : the number of flipped bits in bits 16 to 23, and the index of the bits in bits
+     * 0 to 7 and 8 to 15.
+     * @param first    (int) : the index of the first flipped bit
+     * @param second   (int) : the index of the second flipped bit, equal to the first one if only one bit is flipped
+     * @param bitCount (int) : the number of flipped bits
+     * @return (int) : the encoded error
+     */
+    private static int error(int first, int second, int bitCount) {
+        return (bitCount << 16) | (second << 8) | first;
+    }
+
+    /**
+     * This function flips a bit of the message, the bit 0 being the most significant bit of the first byte.
+     * @param bytes (byte[]) : the message
+     * @param bit   (int) : the index of the bit
+     */
+    private static void flip(byte[] bytes, int bit) {
+        bytes[bit / Byte.SIZE] ^= (byte) (0x80 >>> (bit % Byte.SIZE));
+    }
+}
@@ -0,0 +1,110 @@
+package ch.epfl.javions.adsb;
+
+/**
+ * The MessageLogFormat
+ * The constants of the message log format, written by the MessageLogWriter and read by the MessageLogReader :
+ * -> a header : the magic number (int) and the version (int) of the format,
+ * -> a sequence of blocks of at most BLOCK_MESSAGES messages, each made of a header : the number of messages (int),
+ * their minimal and maximal time stamps (long), the bloom filter of their ICAO addresses (BLOOM_WORDS longs), whether
+ * the payload is compressed (byte) and the size of the payload (int), followed by the payload.
+ * The payload contains two columns : the time stamps of the messages, each one written as the difference with the
+ * previous one (long), then the 14 bytes of the messages. It is compressed with deflate (LZ77) when that makes it
+ * smaller.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+final class MessageLogFormat {
+
+    /**
+     * The magic number of the format, "JVML" in ASCII
+     */
+    static final int MAGIC = 0x4A564D4C;
+
+    /**
+     * The version of the format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header of the file, in bytes
+     */
+    static final int FILE_HEADER_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * The maximal number of messages of a block
+     */
+    static final int BLOCK_MESSAGES = 1 << 12;
+
+    /**
+     * The number of longs of the bloom filter of a block, which has 1024 bits
+     */
+    static final int BLOOM_WORDS = 16;
+
+    /**
+     * The size of the header of a block, in bytes
+     */
+    static final int BLOCK_HEADER_BYTES = Integer.BYTES + 2 * Long.BYTES + BLOOM_WORDS * Long.BYTES + 1 + Integer.BYTES;
+
+    /**
+     * The size of a message in the payload, in bytes
+     */
+    static final int MESSAGE_BYTES = Long.BYTES + RawMessage.LENGTH;
+
+    private static final int BLOOM_HASHES = 3;
+    private static final int BLOOM_INDEX_BITS = 10;
+
+    private MessageLogFormat() {}
+
+    /**
+     * This function adds the given ICAO address to the bloom filter.
+     *
+     * @param bloom       (long[]) : the bloom filter
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     */
+    static void bloomAdd(long[] bloom, int icaoAddress) {
+        long hash = hash(icaoAddress);
+        for (int i = 0; i < BLOOM_HASHES; ++i) {
+            int bit = bloomBit(hash, i);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * This function states if the given ICAO address may have been added to the bloom filter.
+     *
+     * @param bloom       (long[]) : the bloom filter
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     * @return (boolean) : false if the address has certainly not been added
+     */
+    static boolean bloomMayContain(long[] bloom, int icaoAddress) {
+        long hash = hash(icaoAddress);
+        for (int i = 0; i < BLOOM_HASHES; ++i) {
+            int bit = bloomBit(hash, i);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * This function returns the ICAO address of the message of the given bytes.
+     *
+     * @param bytes  (byte[]) : an array containing the bytes of the message
+     * @param offset (int) : the index of the first byte of the message
+     * @return (int) : the 24 bits of the ICAO address
+     */
+    static int icaoAddress(byte[] bytes, int offset) {
+        return Byte.toUnsignedInt(bytes[offset + 1]) << 16
+                | Byte.toUnsignedInt(bytes[offset + 2]) << 8
+                | Byte.toUnsignedInt(bytes[offset + 3]);
+    }
+
+    private static long hash(int icaoAddress) {
+        return icaoAddress * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int bloomBit(long hash, int i) {
+        // The highest bits of a multiplicative hash are the best mixed
+        return (int) (hash >>> (Long.SIZE - BLOOM_INDEX_BITS * (i + 1))) & ((1 << BLOOM_INDEX_BITS) - 1);
+    }
+}
@@ -0,0 +1,235 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static ch.epfl.javions.adsb.MessageLogFormat.*;
+
+/**
+ * The MessageLogReader
+ * It reads a file in the message log format (see MessageLogFormat). Only the headers of the blocks are read when the
+ * file is opened : a query then reads the payloads of the blocks whose time stamps overlap the requested period, or
+ * whose bloom filter may contain the requested aircraft, and skips the other ones.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class MessageLogReader implements AutoCloseable {
+
+    /**
+     * The header of a block.
+     *
+     * @param payloadOffset  (long) : the position of the payload in the file
+     * @param count          (int) : the number of messages of the block
+     * @param minTimeStampNs (long) : the smallest time stamp of the messages of the block
+     * @param maxTimeStampNs (long) : the greatest time stamp of the messages of the block
+     * @param bloom          (long[]) : the bloom filter of the ICAO addresses of the messages of the block
+     * @param compressed     (boolean) : true if the payload is compressed
+     * @param storedLength   (int) : the size of the payload in the file
+     */
+    private record Block(long payloadOffset, int count, long minTimeStampNs, long maxTimeStampNs, long[] bloom,
+                         boolean compressed, int storedLength) {
+    }
+
+    private final FileChannel channel;
+    private final List<Block> blocks;
+    private final long messageCount;
+    private final AtomicLong blocksRead = new AtomicLong();
+
+    private MessageLogReader(FileChannel channel, List<Block> blocks) {
+        this.channel = channel;
+        this.blocks = blocks;
+        this.messageCount = blocks.stream().mapToLong(Block::count).sum();
+    }
+
+    /**
+     * This function opens the given message log and reads the headers of its blocks. A block that is not complete,
+     * because the recording was interrupted, is ignored.
+     *
+     * @param path (Path) : the path of the file
+     * @return (MessageLogReader) : the reader of the file
+     * @throws IOException if an input/output error occurs while reading the file, or if it is not a message log
+     */
+    public static MessageLogReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            if (size < FILE_HEADER_BYTES) throw new IOException("Not a message log : " + path);
+            readFully(channel, fileHeader, 0);
+            if (fileHeader.getInt(0) != MAGIC || fileHeader.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a message log, or unsupported version : " + path);
+            }
+
+            List<Block> blocks = new ArrayList<>();
+            ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+            long offset = FILE_HEADER_BYTES;
+            while (offset + BLOCK_HEADER_BYTES <= size) {
+                readFully(channel, header.clear(), offset);
+                header.flip();
+                int count = header.getInt();
+                long minTimeStampNs = header.getLong();
+                long maxTimeStampNs = header.getLong();
+                long[] bloom = new long[BLOOM_WORDS];
+                for (int i = 0; i < BLOOM_WORDS; ++i) bloom[i] = header.getLong();
+                boolean compressed = header.get() != 0;
+                int storedLength = header.getInt();
+
+                long payloadOffset = offset + BLOCK_HEADER_BYTES;
+                if (count <= 0 || count > BLOCK_MESSAGES || storedLength <= 0
+                        || payloadOffset + storedLength > size) break;
+                blocks.add(new Block(payloadOffset, count, minTimeStampNs, maxTimeStampNs, bloom, compressed,
+                        storedLength));
+                offset = payloadOffset + storedLength;
+            }
+            return new MessageLogReader(channel, List.copyOf(blocks));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * getter of the number of messages of the log
+     * @return (long) : the number of messages
+     */
+    public long messageCount() {
+        return messageCount;
+    }
+
+    /**
+     * getter of the number of blocks of the log
+     * @return (int) : the number of blocks
+     */
+    public int blockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * getter of the number of payloads of blocks read since the opening of the log
+     * @return (long) : the number of blocks read
+     */
+    public long blocksRead() {
+        return blocksRead.get();
+    }
+
+    /**
+     * This function returns all the messages of the log, in the order in which they were written. The blocks are read
+     * as the stream is consumed, an input/output error being thrown as an UncheckedIOException.
+     *
+     * @return (Stream<RawMessage>) : the messages of the log
+     */
+    public Stream<RawMessage> messages() {
+        return messages(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * This function returns the messages of the log received during the given period, in the order in which they were
+     * written. Only the blocks overlapping the period are read.
+     *
+     * @param fromTimeStampNs (long) : the beginning of the period, in nanoseconds (included)
+     * @param toTimeStampNs   (long) : the end of the period, in nanoseconds (excluded)
+     * @return (Stream<RawMessage>) : the messages of the period
+     */
+    public Stream<RawMessage> messages(long fromTimeStampNs, long toTimeStampNs) {
+        return query(b -> b.minTimeStampNs() < toTimeStampNs && b.maxTimeStampNs() >= fromTimeStampNs,
+                m -> fromTimeStampNs <= m.timeStampNs() && m.timeStampNs() < toTimeStampNs);
+    }
+
+    /**
+     * This function returns the messages of the log sent by the given aircraft, in the order in which they were
+     * written. Only the blocks whose bloom filter may contain the aircraft are read.
+     *
+     * @param icaoAddress (IcaoAddress) : the ICAO address of the aircraft
+     * @return (Stream<RawMessage>) : the messages of the aircraft
+     */
+    public Stream<RawMessage> messages(IcaoAddress icaoAddress) {
+        int address = icaoAddress.value();
+        return query(b -> bloomMayContain(b.bloom(), address), m -> m.icaoAddress().value() == address);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Stream<RawMessage> query(Predicate<Block> blockFilter, Predicate<RawMessage> messageFilter) {
+        return blocks.stream()
+                .filter(blockFilter)
+                .flatMap(b -> readBlock(b).stream())
+                .filter(messageFilter);
+    }
+
+    /**
+     * This function reads and decodes the messages of the given block.
+     * @param block (Block) : the block
+     * @return (List<RawMessage>) : the messages of the block
+     * @throws UncheckedIOException if an input/output error occurs while reading the file, or if the block is corrupted
+     */
+    private List<RawMessage> readBlock(Block block) {
+        try {
+            ByteBuffer stored = ByteBuffer.allocate(block.storedLength());
+            readFully(channel, stored, block.payloadOffset());
+            byte[] payload = stored.array();
+            int payloadLength = block.count() * MESSAGE_BYTES;
+            if (block.compressed()) payload = inflate(payload, payloadLength);
+            else if (block.storedLength() != payloadLength) throw new IOException("Corrupted block");
+            blocksRead.incrementAndGet();
+
+            ByteBuffer columns = ByteBuffer.wrap(payload);
+            int bytesColumn = block.count() * Long.BYTES;
+            List<RawMessage> messages = new ArrayList<>(block.count());
+            byte[] bytes = new byte[RawMessage.LENGTH];
+            long timeStampNs = 0;
+            for (int i = 0; i < block.count(); ++i) {
+                timeStampNs += columns.getLong();
+                System.arraycopy(payload, bytesColumn + i * RawMessage.LENGTH, bytes, 0, RawMessage.LENGTH);
+                messages.add(new RawMessage(timeStampNs, new ByteString(bytes)));
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, int payloadLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] payload = new byte[payloadLength];
+            int length = 0;
+            while (length < payloadLength && !inflater.finished()) {
+                int inflated = inflater.inflate(payload, length, payloadLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += inflated;
+            }
+            if (length != payloadLength) throw new IOException("Corrupted block");
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+}
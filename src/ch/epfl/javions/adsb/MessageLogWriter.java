@@ -0,0 +1,178 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static ch.epfl.javions.adsb.MessageLogFormat.*;
+
+/**
+ * The MessageLogWriter
+ * It writes raw messages to a file in the message log format (see MessageLogFormat). The messages are gathered in
+ * arrays allocated once, and a block is only encoded and written when it is full, so that recording live does not
+ * cost more than a copy per message. A block that was not completely written, if the recording is interrupted, is
+ * ignored by the reader.
+ * It is not thread safe.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class MessageLogWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final Deflater deflater;
+
+    private final long[] timeStamps = new long[BLOCK_MESSAGES];
+    private final byte[] messageBytes = new byte[BLOCK_MESSAGES * RawMessage.LENGTH];
+    private final long[] bloom = new long[BLOOM_WORDS];
+    private final byte[] payload = new byte[BLOCK_MESSAGES * MESSAGE_BYTES];
+    private final byte[] compressed = new byte[BLOCK_MESSAGES * MESSAGE_BYTES];
+    private final ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+
+    private int count = 0;
+    private long minTimeStampNs = Long.MAX_VALUE;
+    private long maxTimeStampNs = Long.MIN_VALUE;
+    private long messageCount = 0;
+    private long blockCount = 0;
+
+    private MessageLogWriter(FileChannel channel, boolean compress) {
+        this.channel = channel;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    /**
+     * This function creates the given file, replacing it if it exists, and returns the writer of its messages.
+     *
+     * @param path     (Path) : the path of the file
+     * @param compress (boolean) : true if the payloads of the blocks are compressed
+     * @return (MessageLogWriter) : the writer of the file
+     * @throws IOException if an input/output error occurs while creating the file
+     */
+    public static MessageLogWriter create(Path path, boolean compress) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+            while (fileHeader.hasRemaining()) channel.write(fileHeader);
+            return new MessageLogWriter(channel, compress);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This function adds a message to the log.
+     *
+     * @param timeStampNs (long) : the time stamp of the message
+     * @param bytes       (byte[]) : the 14 bytes of the message
+     * @throws IllegalArgumentException if the time stamp is negative or if the message does not have 14 bytes
+     * @throws IOException              if an input/output error occurs while writing the file
+     */
+    public void write(long timeStampNs, byte[] bytes) throws IOException {
+        Preconditions.checkArgument(timeStampNs >= 0 && bytes.length == RawMessage.LENGTH);
+        System.arraycopy(bytes, 0, messageBytes, count * RawMessage.LENGTH, RawMessage.LENGTH);
+        add(timeStampNs);
+    }
+
+    /**
+     * This function adds a message to the log.
+     *
+     * @param message (RawMessage) : the message
+     * @throws IOException if an input/output error occurs while writing the file
+     */
+    public void write(RawMessage message) throws IOException {
+        int offset = count * RawMessage.LENGTH;
+        for (int i = 0; i < RawMessage.LENGTH; ++i) messageBytes[offset + i] = (byte) message.bytes().byteAt(i);
+        add(message.timeStampNs());
+    }
+
+    /**
+     * This function writes the block of the messages added since the last block, even if it is not full.
+     *
+     * @throws IOException if an input/output error occurs while writing the file
+     */
+    public void flush() throws IOException {
+        if (count == 0) return;
+
+        ByteBuffer columns = ByteBuffer.wrap(payload);
+        long previous = 0;
+        for (int i = 0; i < count; ++i) {
+            columns.putLong(timeStamps[i] - previous);
+            previous = timeStamps[i];
+        }
+        columns.put(messageBytes, 0, count * RawMessage.LENGTH);
+        int payloadLength = columns.position();
+
+        byte[] stored = payload;
+        int storedLength = payloadLength;
+        if (deflater != null) {
+            deflater.reset();
+            deflater.setInput(payload, 0, payloadLength);
+            deflater.finish();
+            int compressedLength = deflater.deflate(compressed);
+            // The compressed payload is kept only if it fits and is smaller
+            if (deflater.finished() && compressedLength < payloadLength) {
+                stored = compressed;
+                storedLength = compressedLength;
+            }
+        }
+
+        header.clear().putInt(count).putLong(minTimeStampNs).putLong(maxTimeStampNs);
+        for (long word : bloom) header.putLong(word);
+        header.put((byte) (stored == compressed ? 1 : 0)).putInt(storedLength).flip();
+        ByteBuffer[] block = {header, ByteBuffer.wrap(stored, 0, storedLength)};
+        while (block[1].hasRemaining()) channel.write(block);
+
+        ++blockCount;
+        count = 0;
+        minTimeStampNs = Long.MAX_VALUE;
+        maxTimeStampNs = Long.MIN_VALUE;
+        Arrays.fill(bloom, 0);
+    }
+
+    /**
+     * getter of the number of messages added to the log
+     * @return (long) : the number of messages
+     */
+    public long messageCount() {
+        return messageCount;
+    }
+
+    /**
+     * getter of the number of blocks written to the file
+     * @return (long) : the number of blocks
+     */
+    public long blockCount() {
+        return blockCount;
+    }
+
+    /**
+     * This function writes the last block and closes the file.
+     *
+     * @throws IOException if an input/output error occurs while writing the file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (deflater != null) deflater.end();
+            channel.close();
+        }
+    }
+
+    private void add(long timeStampNs) throws IOException {
+        timeStamps[count] = timeStampNs;
+        minTimeStampNs = Math.min(minTimeStampNs, timeStampNs);
+        maxTimeStampNs = Math.max(maxTimeStampNs, timeStampNs);
+        bloomAdd(bloom, icaoAddress(messageBytes, count * RawMessage.LENGTH));
+        ++messageCount;
+        if (++count == BLOCK_MESSAGES) flush();
+    }
+}
@@ -1,13 +1,22 @@
 package ch.epfl.javions.adsb;
 
+import java.util.Objects;
+
 /**
  * The MessageParser
+ * Besides building the messages, it can decode their fields into holders given by the caller, without creating any
+ * object : the holders are meant to be reused for all the messages of a stream.
  *
  * @author Yassine El graoui (361984)
  * @author Alexandre Raybaut (355794)
  */
 public class MessageParser {
 
+    /**
+     * The number of characters of a call sign
+     */
+    private static final int CALL_SIGN_LENGTH = 8;
+
     private MessageParser(){}
 
     /**
@@ -31,4 +40,218 @@ public class MessageParser {
         };
 
     }
+
+    /**
+     * This function states if a message of the given type code is an identification message.
+     * @param typeCode (int) : the type code of the message
+     * @return (boolean) : true if the message is an identification message
+     */
+    public static boolean isIdentification(int typeCode) {
+        return 1 <= typeCode && typeCode <= 4;
+    }
+
+    /**
+     * This function states if a message of the given type code is an airborne position message.
+     * @param typeCode (int) : the type code of the message
+     * @return (boolean) : true if the message is an airborne position message
+     */
+    public static boolean isPosition(int typeCode) {
+        return (9 <= typeCode && typeCode <= 18) || (20 <= typeCode && typeCode <= 22);
+    }
+
+    /**
+     * This function states if a message of the given type code is an airborne velocity message.
+     * @param typeCode (int) : the type code of the message
+     * @return (boolean) : true if the message is an airborne velocity message
+     */
+    public static boolean isVelocity(int typeCode) {
+        return typeCode == 19;
+    }
+
+    /**
+     * This function decodes the fields of the identification message shown by the view into the given holder.
+     *
+     * @param message (RawMessageView) : the message
+     * @param fields  (IdentificationFields) : the holder receiving the fields
+     * @return (boolean) : true if the message is a valid identification message, false otherwise, in which case the
+     * holder is left unchanged
+     */
+    public static boolean parseIdentification(RawMessageView message, IdentificationFields fields) {
+        int typeCode = message.typeCode();
+        return isIdentification(typeCode)
+                && AircraftIdentificationMessage.decode(typeCode, message.payload(), fields);
+    }
+
+    /**
+     * This function decodes the fields of the airborne position message shown by the view into the given holder.
+     *
+     * @param message (RawMessageView) : the message
+     * @param fields  (PositionFields) : the holder receiving the fields
+     * @return (boolean) : true if the message is a valid airborne position message, false otherwise
+     */
+    public static boolean parsePosition(RawMessageView message, PositionFields fields) {
+        return isPosition(message.typeCode()) && AirbornePositionMessage.decode(message.payload(), fields);
+    }
+
+    /**
+     * This function decodes the fields of the airborne velocity message shown by the view into the given holder.
+     *
+     * @param message (RawMessageView) : the message
+     * @param fields  (VelocityFields) : the holder receiving the fields
+     * @return (boolean) : true if the message is a valid airborne velocity message, false otherwise
+     */
+    public static boolean parseVelocity(RawMessageView message, VelocityFields fields) {
+        return isVelocity(message.typeCode()) && AirborneVelocityMessage.decode(message.payload(), fields);
+    }
+
+    /**
+     * The fields of an identification message (see AircraftIdentificationMessage).
+     */
+    public static final class IdentificationFields {
+        private final char[] callSign = new char[CALL_SIGN_LENGTH];
+        private int callSignLength;
+        private int category;
+
+        /**
+         * This function returns the category of the aircraft.
+         * @return (int) : the category
+         */
+        public int category() {
+            return category;
+        }
+
+        /**
+         * This function returns the number of characters of the call sign.
+         * @return (int) : the length of the call sign
+         */
+        public int callSignLength() {
+            return callSignLength;
+        }
+
+        /**
+         * This function returns a character of the call sign.
+         * @param i (int) : the index of the character
+         * @return (char) : the character
+         * @throws IndexOutOfBoundsException if the index is not smaller than the length of the call sign
+         */
+        public char callSignCharAt(int i) {
+            return callSign[Objects.checkIndex(i, callSignLength)];
+        }
+
+        /**
+         * This function builds the string of the call sign.
+         * @return (String) : the call sign
+         */
+        public String callSign() {
+            return new String(callSign, 0, callSignLength);
+        }
+
+        /**
+         * This function returns the array in which the characters of the call sign are decoded.
+         * @return (char[]) : the characters of the call sign
+         */
+        char[] callSignChars() {
+            return callSign;
+        }
+
+        /**
+         * This function sets the fields, once the characters of the call sign are decoded.
+         * @param category       (int) : the category of the aircraft
+         * @param callSignLength (int) : the number of characters of the call sign
+         */
+        void set(int category, int callSignLength) {
+            this.category = category;
+            this.callSignLength = callSignLength;
+        }
+    }
+
+    /**
+     * The fields of an airborne position message (see AirbornePositionMessage).
+     */
+    public static final class PositionFields {
+        private double altitude;
+        private int parity;
+        private double x;
+        private double y;
+
+        /**
+         * This function returns the altitude of the aircraft.
+         * @return (double) : the altitude in meters
+         */
+        public double altitude() {
+            return altitude;
+        }
+
+        /**
+         * This function returns the parity of the message.
+         * @return (int) : the parity (0 or 1)
+         */
+        public int parity() {
+            return parity;
+        }
+
+        /**
+         * This function returns the local and normalized longitude of the aircraft.
+         * @return (double) : the longitude, in [0, 1[
+         */
+        public double x() {
+            return x;
+        }
+
+        /**
+         * This function returns the local and normalized latitude of the aircraft.
+         * @return (double) : the latitude, in [0, 1[
+         */
+        public double y() {
+            return y;
+        }
+
+        /**
+         * This function sets the fields.
+         * @param altitude (double) : the altitude in meters
+         * @param parity   (int) : the parity of the message
+         * @param x        (double) : the local and normalized longitude
+         * @param y        (double) : the local and normalized latitude
+         */
+        void set(double altitude, int parity, double x, double y) {
+            this.altitude = altitude;
+            this.parity = parity;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * The fields of an airborne velocity message (see AirborneVelocityMessage).
+     */
+    public static final class VelocityFields {
+        private double speed;
+        private double trackOrHeading;
+
+        /**
+         * This function returns the speed of the aircraft.
+         * @return (double) : the speed in m/s
+         */
+        public double speed() {
+            return speed;
+        }
+
+        /**
+         * This function returns the direction of the aircraft.
+         * @return (double) : the track or heading in radians
+         */
+        public double trackOrHeading() {
+            return trackOrHeading;
+        }
+
+        /**
+         * This function sets the fields.
+         * @param speed          (double) : the speed in m/s
+         * @param trackOrHeading (double) : the track or heading in radians
+         */
+        void set(double speed, double trackOrHeading) {
+            this.speed = speed;
+            this.trackOrHeading = trackOrHeading;
+        }
+    }
 }
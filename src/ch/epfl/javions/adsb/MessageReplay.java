@@ -0,0 +1,253 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The MessageReplay
+ * It replays a file of raw messages, written as a sequence of records made of the time stamp of a message (a long)
+ * followed by its 14 bytes, at the pace given by their time stamps multiplied by a speed factor, or as fast as possible.
+ * The time at which a message must be given is computed from the time at which the replay started (or last changed
+ * its speed or position), and not from the previous message, so that the errors of the waits do not add up.
+ * When the file is opened, the time stamp of one record out of INDEX_INTERVAL is read to build a sparse index, which
+ * allows to seek a time stamp by reading at most INDEX_INTERVAL records.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class MessageReplay implements AutoCloseable {
+
+    /**
+     * The size of a record of the file, in bytes
+     */
+    public static final int RECORD_BYTES = Long.BYTES + RawMessage.LENGTH;
+
+    /**
+     * The slowest speed factor
+     */
+    public static final double MIN_SPEED = 0.5;
+
+    /**
+     * The fastest speed factor, apart from AS_FAST_AS_POSSIBLE
+     */
+    public static final double MAX_SPEED = 100;
+
+    /**
+     * The speed factor replaying the messages without waiting, to measure the throughput of their consumers
+     */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    /**
+     * The number of records between two entries of the index
+     */
+    static final int INDEX_INTERVAL = 1 << 10;
+
+    /**
+     * The number of records read at once
+     */
+    private static final int BUFFER_RECORDS = 1 << 12;
+
+    /**
+     * The lateness beyond which the replay starts again from the current message instead of catching up, when the
+     * consumer of the messages was blocked
+     */
+    private static final long MAX_LATENESS_NS = TimeUnit.SECONDS.toNanos(1);
+
+    private final FileChannel channel;
+    private final long recordCount;
+    private final long[] index;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+    private final byte[] bytes = new byte[RawMessage.LENGTH];
+
+    private long bufferFirstRecord = 0;
+    private int bufferRecords = 0;
+    private long position = 0;
+
+    private volatile double speed = 1;
+    private double anchoredSpeed = Double.NaN;
+    private long anchorNanoTime;
+    private long anchorTimeStampNs = 0;
+
+    private MessageReplay(FileChannel channel, long recordCount, long[] index) {
+        this.channel = channel;
+        this.recordCount = recordCount;
+        this.index = index;
+    }
+
+    /**
+     * This function opens the given file of messages and builds its index. A partial record at the end of the file is
+     * ignored.
+     *
+     * @param path (Path) : the path of the file
+     * @return (MessageReplay) : the replay of the file, positioned at its beginning, at speed 1
+     * @throws IOException if an input/output error occurs while opening the file
+     */
+    public static MessageReplay open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long recordCount = channel.size() / RECORD_BYTES;
+            long[] index = new long[(int) ((recordCount + INDEX_INTERVAL - 1) / INDEX_INTERVAL)];
+            ByteBuffer timeStamp = ByteBuffer.allocate(Long.BYTES);
+            for (int i = 0; i < index.length; ++i) {
+                readFully(channel, timeStamp.clear(), (long) i * INDEX_INTERVAL * RECORD_BYTES);
+                index[i] = timeStamp.getLong(0);
+            }
+            return new MessageReplay(channel, recordCount, index);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This function sets the speed factor of the replay. It can be called from any thread, and takes effect from the
+     * next message on.
+     *
+     * @param speed (double) : the speed factor, between MIN_SPEED and MAX_SPEED, or AS_FAST_AS_POSSIBLE
+     * @throws IllegalArgumentException if the speed factor is invalid
+     */
+    public void setSpeed(double speed) {
+        Preconditions.checkArgument(speed == AS_FAST_AS_POSSIBLE || (MIN_SPEED <= speed && speed <= MAX_SPEED));
+        this.speed = speed;
+    }
+
+    /**
+     * getter of the speed factor of the replay
+     * @return (double) : the speed factor
+     */
+    public double speed() {
+        return speed;
+    }
+
+    /**
+     * getter of the number of records of the file, including the ones that are not valid messages
+     * @return (long) : the number of records
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * getter of the index of the next record to replay
+     * @return (long) : the index of the next record
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * This function positions the replay at the first record whose time stamp is greater or equal to the given one,
+     * the time stamps of the file being sorted. The replay then continues from that time stamp.
+     *
+     * @param timeStampNs (long) : the time stamp to seek
+     * @throws IOException if an input/output error occurs while reading the file
+     */
+    public void seek(long timeStampNs) throws IOException {
+        int entry = Arrays.binarySearch(index, timeStampNs);
+        // The last entry that is strictly before the time stamp, several records possibly having the same time stamp
+        if (entry >= 0) {
+            while (entry > 0 && index[entry - 1] == timeStampNs) --entry;
+            entry -= 1;
+        } else {
+            entry = -entry - 2;
+        }
+
+        position = Math.max(0, (long) entry * INDEX_INTERVAL);
+        while (position < recordCount && timeStampAt(position) < timeStampNs) ++position;
+
+        anchoredSpeed = Double.NaN;
+        anchorTimeStampNs = timeStampNs;
+    }
+
+    /**
+     * This function returns the next valid message of the file, once its time is reached.
+     *
+     * @return (RawMessage) : the next message, or null if the end of the file is reached
+     * @throws IOException          if an input/output error occurs while reading the file
+     * @throws InterruptedException if the thread is interrupted while it waits for the time of the message
+     */
+    public RawMessage next() throws IOException, InterruptedException {
+        while (position < recordCount) {
+            long timeStampNs = timeStampAt(position);
+            int offset = (int) (position - bufferFirstRecord) * RECORD_BYTES + Long.BYTES;
+            buffer.get(offset, bytes);
+            ++position;
+
+            RawMessage message = RawMessage.of(timeStampNs, bytes);
+            if (message != null) {
+                waitFor(timeStampNs);
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * This function waits until the time of the message of the given time stamp is reached.
+     * @param timeStampNs (long) : the time stamp of the message
+     * @throws InterruptedException if the thread is interrupted while it waits
+     */
+    private void waitFor(long timeStampNs) throws InterruptedException {
+        double currentSpeed = speed;
+        if (currentSpeed == AS_FAST_AS_POSSIBLE) {
+            anchoredSpeed = Double.NaN;
+            anchorTimeStampNs = timeStampNs;
+            return;
+        }
+        if (currentSpeed != anchoredSpeed) {
+            // The replay continues from the time stamp reached at the previous speed
+            long now = System.nanoTime();
+            if (!Double.isNaN(anchoredSpeed)) anchorTimeStampNs += (long) ((now - anchorNanoTime) * anchoredSpeed);
+            anchoredSpeed = currentSpeed;
+            anchorNanoTime = now;
+        }
+
+        long deadline = anchorNanoTime + (long) ((timeStampNs - anchorTimeStampNs) / currentSpeed);
+        long remaining = deadline - System.nanoTime();
+        if (remaining < -MAX_LATENESS_NS) {
+            anchorNanoTime = System.nanoTime();
+            anchorTimeStampNs = timeStampNs;
+            return;
+        }
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) throw new InterruptedException();
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * This function returns the time stamp of the given record, reading the file if the record is not buffered.
+     * @param record (long) : the index of the record
+     * @return (long) : the time stamp of the record
+     * @throws IOException if an input/output error occurs while reading the file
+     */
+    private long timeStampAt(long record) throws IOException {
+        if (record < bufferFirstRecord || record >= bufferFirstRecord + bufferRecords) {
+            bufferRecords = (int) Math.min(BUFFER_RECORDS, recordCount - record);
+            readFully(channel, buffer.clear().limit(bufferRecords * RECORD_BYTES), record * RECORD_BYTES);
+            bufferFirstRecord = record;
+        }
+        return buffer.getLong((int) (record - bufferFirstRecord) * RECORD_BYTES);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+}
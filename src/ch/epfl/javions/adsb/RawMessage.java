@@ -6,7 +6,6 @@ import ch.epfl.javions.Crc24;
 import ch.epfl.javions.Preconditions;
 import ch.epfl.javions.aircraft.IcaoAddress;
 
-import java.util.HexFormat;
 
 /**
  * The RawMessage
@@ -67,6 +66,19 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
         return crcValue == 0 ? new RawMessage(timeStampNs, new ByteString(bytes)) : null;
     }
 
+    /**
+     * This function builds a RawMessage like the previous one, but first tries to correct the bytes with the given
+     * corrector if their crc24 is not correct. The given array is then modified.
+     *
+     * @param timeStampNs (long) : the time in nanosecond when we receive the message
+     * @param bytes (byte[]) : the bytes of the message
+     * @param corrector (ErrorCorrector) : the corrector used to repair the message
+     * @return (RawMessage) : the decoded message, or null if its crc24 is not correct and can not be corrected
+     */
+    public static RawMessage of(long timeStampNs, byte[] bytes, ErrorCorrector corrector) {
+        return corrector.correct(bytes) ? new RawMessage(timeStampNs, new ByteString(bytes)) : null;
+    }
+
     /**
      * This function returns the size of the message depending on the value of the DF. If the DF is equal to 17, the size of the
      * message is LENGTH (14), otherwise, it is equal to 0.
@@ -103,8 +115,7 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
      * @return (IcaoAddress) : this function returns the OACI address of the message.
      */
     public IcaoAddress icaoAddress() {
-        //return new IcaoAddress(bytes.toString().substring(2, 8));
-        return new IcaoAddress(HexFormat.of().withUpperCase().toHexDigits(bytes.bytesInRange(1, 4), 6));
+        return IcaoAddress.of((int) bytes.bytesInRange(1, 4));
     }
 
     /**
@@ -0,0 +1,261 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Preconditions;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * The RawMessageRingBuffer
+ * A bounded queue of raw messages between a single producer thread (the demodulator) and a single consumer thread,
+ * that does not use any lock nor allocate anything : the time stamps and the bytes of the messages are copied into
+ * slots preallocated in two arrays, and the threads only share the index of the next slot to write (the head) and the
+ * index of the next slot to read (the tail).
+ * When the buffer is full, the producer either waits for the consumer (BLOCK), replaces the oldest message (DROP_OLDEST)
+ * or drops the new message (DROP_NEWEST). To drop the oldest message, the producer moves the tail itself : the
+ * consumer thus first copies a message, then moves the tail with a compare-and-set, and ignores the copy if it failed.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class RawMessageRingBuffer {
+
+    /**
+     * What the producer does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The producer waits until the consumer took a message
+         */
+        BLOCK,
+        /**
+         * The oldest message of the buffer is dropped to make room for the new one
+         */
+        DROP_OLDEST,
+        /**
+         * The new message is dropped
+         */
+        DROP_NEWEST
+    }
+
+    /**
+     * The longest time a waiting thread sleeps before checking the buffer again
+     */
+    private static final long MAX_PARK_NS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private final OverflowPolicy policy;
+    private final int mask;
+    private final long[] timeStamps;
+    private final byte[] bytes;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long highWaterMark;
+    private volatile boolean closed;
+
+    private final byte[] producerBytes = new byte[RawMessage.LENGTH];
+    private final byte[] consumerBytes = new byte[RawMessage.LENGTH];
+    private final RawMessageView consumerView = new RawMessageView();
+
+    /**
+     * The constructor of the buffer.
+     *
+     * @param capacity (int) : the number of messages the buffer can contain, rounded up to a power of 2
+     * @param policy   (OverflowPolicy) : what the producer does when the buffer is full
+     * @throws IllegalArgumentException if the capacity is not in [1, 2^24]
+     * @throws NullPointerException     if the policy is null
+     */
+    public RawMessageRingBuffer(int capacity, OverflowPolicy policy) {
+        Preconditions.checkArgument(1 <= capacity && capacity <= 1 << 24);
+        this.policy = Objects.requireNonNull(policy);
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = size - 1;
+        this.timeStamps = new long[size];
+        this.bytes = new byte[size * RawMessage.LENGTH];
+    }
+
+    /**
+     * This function adds a message to the buffer. It must only be called by the producer thread.
+     *
+     * @param timeStampNs  (long) : the time stamp of the message
+     * @param messageBytes (byte[]) : the 14 bytes of the message, copied into the buffer
+     * @return (boolean) : false if the message was dropped (DROP_NEWEST) or if the buffer is closed
+     * @throws IllegalArgumentException if the message does not have 14 bytes
+     * @throws InterruptedException     if the thread is interrupted while it waits for the consumer (BLOCK)
+     */
+    public boolean offer(long timeStampNs, byte[] messageBytes) throws InterruptedException {
+        Preconditions.checkArgument(messageBytes.length == RawMessage.LENGTH);
+        if (closed) return false;
+
+        long h = head.get();
+        long park = 1;
+        while (h - tail.get() > mask) {
+            switch (policy) {
+                case DROP_NEWEST -> {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    long t = tail.get();
+                    if (h - t > mask && tail.compareAndSet(t, t + 1)) dropped.incrementAndGet();
+                }
+                case BLOCK -> {
+                    // A producer waiting for the consumer is released by close, its message being refused
+                    if (closed) return false;
+                    if (Thread.interrupted()) throw new InterruptedException();
+                    LockSupport.parkNanos(park);
+                    park = Math.min(2 * park, MAX_PARK_NS);
+                }
+            }
+        }
+
+        int slot = (int) (h & mask);
+        timeStamps[slot] = timeStampNs;
+        System.arraycopy(messageBytes, 0, bytes, slot * RawMessage.LENGTH, RawMessage.LENGTH);
+        head.set(h + 1);
+
+        long size = h + 1 - tail.get();
+        if (size > highWaterMark) highWaterMark = size;
+        return true;
+    }
+
+    /**
+     * This function adds a message to the buffer. It must only be called by the producer thread.
+     *
+     * @param message (RawMessage) : the message
+     * @return (boolean) : false if the message was dropped (DROP_NEWEST) or if the buffer is closed
+     * @throws InterruptedException if the thread is interrupted while it waits for the consumer (BLOCK)
+     */
+    public boolean offer(RawMessage message) throws InterruptedException {
+        for (int i = 0; i < RawMessage.LENGTH; ++i) producerBytes[i] = (byte) message.bytes().byteAt(i);
+        return offer(message.timeStampNs(), producerBytes);
+    }
+
+    /**
+     * This function gives to the consumer, in order, the messages of the buffer, at most maxCount of them. The view
+     * given to the consumer is only valid during its call. It must only be called by the consumer thread.
+     *
+     * @param maxCount (int) : the maximal number of messages to take
+     * @param consumer (Consumer<RawMessageView>) : the receiver of the messages
+     * @return (int) : the number of messages given to the consumer
+     */
+    public int drain(int maxCount, Consumer<RawMessageView> consumer) {
+        int count = 0;
+        while (count < maxCount) {
+            long t = tail.get();
+            if (t == head.get()) break;
+
+            int slot = (int) (t & mask);
+            long timeStampNs = timeStamps[slot];
+            System.arraycopy(bytes, slot * RawMessage.LENGTH, consumerBytes, 0, RawMessage.LENGTH);
+            // If the producer dropped this message meanwhile, the copy may be corrupted and is ignored
+            if (!tail.compareAndSet(t, t + 1)) continue;
+
+            consumerView.wrap(timeStampNs, consumerBytes);
+            consumer.accept(consumerView);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * This function removes and returns the oldest message of the buffer. It must only be called by the consumer
+     * thread.
+     *
+     * @return (RawMessage) : the oldest message, or null if the buffer is empty
+     */
+    public RawMessage poll() {
+        RawMessage[] message = new RawMessage[1];
+        drain(1, view -> message[0] = view.toRawMessage());
+        return message[0];
+    }
+
+    /**
+     * This function waits until the buffer contains a message, the buffer is closed or the given time is elapsed.
+     *
+     * @param timeoutNs (long) : the maximal waiting time, in nanoseconds
+     * @return (boolean) : true if the buffer contains a message
+     * @throws InterruptedException if the thread is interrupted while it waits
+     */
+    public boolean await(long timeoutNs) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNs;
+        long park = 1;
+        while (isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (closed || remaining <= 0) return false;
+            if (Thread.interrupted()) throw new InterruptedException();
+            LockSupport.parkNanos(Math.min(park, remaining));
+            park = Math.min(2 * park, MAX_PARK_NS);
+        }
+        return true;
+    }
+
+    /**
+     * This function closes the buffer : the following messages offered by the producer are refused, as well as the one
+     * it may be waiting to add (BLOCK), and the consumer stops waiting once it took the remaining ones.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * This function states if the buffer is closed.
+     * @return (boolean) : true if the buffer is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * This function states if the buffer contains no message.
+     * @return (boolean) : true if the buffer is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * getter of the number of messages in the buffer
+     * @return (int) : the number of messages
+     */
+    public int size() {
+        long t = tail.get();
+        return (int) Math.max(0, head.get() - t);
+    }
+
+    /**
+     * getter of the number of messages the buffer can contain
+     * @return (int) : the capacity of the buffer
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * getter of the overflow policy of the buffer
+     * @return (OverflowPolicy) : what the producer does when the buffer is full
+     */
+    public OverflowPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * getter of the number of messages dropped because the buffer was full
+     * @return (long) : the number of dropped messages
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * getter of the largest number of messages the buffer contained at once
+     * @return (long) : the high-water mark of the buffer
+     */
+    public long highWaterMark() {
+        return highWaterMark;
+    }
+}
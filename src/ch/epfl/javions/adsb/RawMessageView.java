@@ -0,0 +1,92 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Preconditions;
+
+/**
+ * The RawMessageView
+ * It gives access to the fields of a raw message whose bytes are stored in an array owned by someone else, typically
+ * the buffer of the demodulator, without copying them nor creating any object. The same view can thus be reused for
+ * all the messages of a stream, the RawMessage being only built if it is needed.
+ * The view is only valid until the array is modified : for example until the next message of the demodulator.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class RawMessageView {
+    private long timeStampNs;
+    private byte[] bytes;
+
+    /**
+     * The constructor of an empty view, whose bytes are all 0.
+     */
+    public RawMessageView() {
+        bytes = new byte[RawMessage.LENGTH];
+    }
+
+    /**
+     * This function makes the view show the message contained in the given array. The array is not copied.
+     *
+     * @param timeStampNs (long) : the time in nanosecond when the message was received
+     * @param bytes       (byte[]) : the bytes of the message, whose crc24 should have been checked
+     * @throws IllegalArgumentException if the time stamp is negative or if the message does not have 14 bytes
+     */
+    public void wrap(long timeStampNs, byte[] bytes) {
+        Preconditions.checkArgument(timeStampNs >= 0);
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+        this.timeStampNs = timeStampNs;
+        this.bytes = bytes;
+    }
+
+    /**
+     * This function returns the time in nanosecond when the message was received.
+     * @return (long) : the time stamp of the message
+     */
+    public long timeStampNs() {
+        return timeStampNs;
+    }
+
+    /**
+     * This function returns the DF value of the message.
+     * @return (int) : the DF value of the message.
+     */
+    public int downLinkFormat() {
+        return (bytes[0] >>> RawMessage.DF_START) & ((1 << RawMessage.DF_SIZE) - 1);
+    }
+
+    /**
+     * This function returns the OACI address of the message as an integer : its 24 bits are the bytes 1 to 3.
+     * @return (int) : the OACI address of the message.
+     */
+    public int icaoAddress() {
+        return (Byte.toUnsignedInt(bytes[1]) << 16) | (Byte.toUnsignedInt(bytes[2]) << 8) | Byte.toUnsignedInt(bytes[3]);
+    }
+
+    /**
+     * This function returns the ME value of the message, its useful charge, which is made of the bytes 4 to 10.
+     * @return (long) : the ME value of the message.
+     */
+    public long payload() {
+        long payload = 0;
+        for (int i = 4; i < 11; ++i) {
+            payload = (payload << Byte.SIZE) | Byte.toUnsignedInt(bytes[i]);
+        }
+        return payload;
+    }
+
+    /**
+     * This function returns the type code of the message which are the bits 51 to 56 of the ME.
+     * @return (int) : the type code of the message
+     */
+    public int typeCode() {
+        return Byte.toUnsignedInt(bytes[4]) >>> 3;
+    }
+
+    /**
+     * This function builds the RawMessage shown by the view. The bytes are copied.
+     * @return (RawMessage) : the raw message
+     */
+    public RawMessage toRawMessage() {
+        return new RawMessage(timeStampNs, new ByteString(bytes));
+    }
+}
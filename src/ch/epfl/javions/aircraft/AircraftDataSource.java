@@ -0,0 +1,24 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.IOException;
+
+/**
+ * The AircraftDataSource
+ * It gives the fixed characteristics of the aircraft, known by their ICAO address. It is implemented by the database
+ * reading the mictronics file at each request as well as by the ones keeping it in memory.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public interface AircraftDataSource {
+
+    /**
+     * This function returns the data of the aircraft whose ICAO address is the given one, or null if the source does
+     * not know this address.
+     *
+     * @param address (IcaoAddress) : the ICAO address of the aircraft
+     * @return (AircraftData) : the data of the aircraft, or null if no entry exists for this address
+     * @throws IOException in case of an input/output error
+     */
+    AircraftData get(IcaoAddress address) throws IOException;
+}
@@ -12,7 +12,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * @author Yassine El graoui (361984)
  * @author Alexandre Raybaut (355794)
  */
-public final class AircraftDatabase {
+public final class AircraftDatabase implements AircraftDataSource {
     private final String mictronicsDataBase;
 
     /**
@@ -35,6 +35,7 @@ public final class AircraftDatabase {
       or null if no entry exists in the database for this address;
      * @throws IOException in case of an input/output error.
      */
+    @Override
     public AircraftData get(IcaoAddress address) throws IOException{
         String adressIcao = address.string();
 
@@ -0,0 +1,135 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * The AsyncAircraftDataLoader
+ * It searches the data of the aircraft in a source on a pool of worker threads, so that a slow source never blocks
+ * the thread receiving the messages. The requests for an address whose search is still in progress are coalesced
+ * with it, and the result is delivered to every requester through a given executor (for example the JavaFX thread).
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class AsyncAircraftDataLoader implements AutoCloseable {
+
+    /**
+     * The default number of worker threads
+     */
+    public static final int DEFAULT_THREADS = 2;
+
+    private final AircraftDataSource source;
+    private final Executor publisher;
+    private final ExecutorService workers;
+    private final Map<IcaoAddress, CompletableFuture<AircraftData>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor of the loader, using DEFAULT_THREADS worker threads.
+     *
+     * @param source    (AircraftDataSource) : the source in which the data is searched
+     * @param publisher (Executor) : the executor on which the results are delivered
+     * @throws NullPointerException if the source or the publisher is null
+     */
+    public AsyncAircraftDataLoader(AircraftDataSource source, Executor publisher) {
+        this(source, publisher, DEFAULT_THREADS);
+    }
+
+    /**
+     * The constructor of the loader.
+     *
+     * @param source    (AircraftDataSource) : the source in which the data is searched
+     * @param publisher (Executor) : the executor on which the results are delivered
+     * @param threads   (int) : the number of worker threads
+     * @throws NullPointerException     if the source or the publisher is null
+     * @throws IllegalArgumentException if the number of threads is not strictly positive
+     */
+    public AsyncAircraftDataLoader(AircraftDataSource source, Executor publisher, int threads) {
+        Preconditions.checkArgument(threads > 0);
+        this.source = Objects.requireNonNull(source);
+        this.publisher = Objects.requireNonNull(publisher);
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "aircraft-data-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * This function starts the search of the data of the aircraft whose ICAO address is given, unless it is already
+     * in progress, and returns immediately. Once the search is done, the data, or null if the address is unknown or
+     * the source could not be read, is given to the consumer on the publisher.
+     *
+     * @param address  (IcaoAddress) : the ICAO address of the aircraft
+     * @param consumer (Consumer<AircraftData>) : the receiver of the data
+     * @throws NullPointerException if the address or the consumer is null
+     */
+    public void load(IcaoAddress address, Consumer<AircraftData> consumer) {
+        Objects.requireNonNull(consumer);
+        lookup(address).thenAcceptAsync(consumer, publisher);
+    }
+
+    /**
+     * This function returns the search of the data of the aircraft whose ICAO address is given, starting it unless it
+     * is already in progress. The future completes with null if the address is unknown or the source could not be
+     * read.
+     *
+     * @param address (IcaoAddress) : the ICAO address of the aircraft
+     * @return (CompletableFuture<AircraftData>) : the search of the data, completed on a worker thread
+     * @throws NullPointerException if the address is null
+     */
+    public CompletableFuture<AircraftData> lookup(IcaoAddress address) {
+        Objects.requireNonNull(address);
+        CompletableFuture<AircraftData> future = pending.get(address);
+        if (future != null) return future;
+
+        CompletableFuture<AircraftData> created = new CompletableFuture<>();
+        future = pending.putIfAbsent(address, created);
+        if (future != null) return future;
+
+        try {
+            workers.execute(() -> {
+                AircraftData data;
+                try {
+                    data = source.get(address);
+                } catch (IOException | RuntimeException e) {
+                    data = null;
+                }
+                pending.remove(address, created);
+                created.complete(data);
+            });
+        } catch (RejectedExecutionException e) {
+            // The loader is closed
+            pending.remove(address, created);
+            created.complete(null);
+        }
+        return created;
+    }
+
+    /**
+     * getter of the number of addresses whose search is in progress
+     * @return (int) : the number of pending searches
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * This function stops the worker threads. The searches that are not done yet are abandoned, and complete with
+     * null so that no requester waits for them forever.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        // The abandoned tasks never complete their future, and a search interrupted while it runs completes it too
+        for (IcaoAddress address : pending.keySet()) {
+            CompletableFuture<AircraftData> future = pending.remove(address);
+            if (future != null) future.complete(null);
+        }
+    }
+}
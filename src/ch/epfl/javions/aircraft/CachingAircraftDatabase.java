@@ -0,0 +1,124 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The CachingAircraftDatabase
+ * It keeps the results of the last requests made to another source of aircraft data, for the operators who can not
+ * keep the whole database in memory. The addresses that are not in the database are cached too, as an empty result,
+ * since many of the received addresses (military aircraft, TIS-B) are not known and would otherwise cost a full read
+ * of the source at each message. When the cache is full, the least recently used address is evicted.
+ * It can be used from several threads at the same time.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class CachingAircraftDatabase implements AircraftDataSource {
+    private final AircraftDataSource source;
+    private final int capacity;
+    private final Map<IcaoAddress, Optional<AircraftData>> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The constructor of the cache.
+     *
+     * @param source   (AircraftDataSource) : the source of the data that is not in the cache
+     * @param capacity (int) : the maximal number of addresses kept in the cache, found or not
+     * @throws NullPointerException     if the source is null
+     * @throws IllegalArgumentException if the capacity is not strictly positive
+     */
+    public CachingAircraftDatabase(AircraftDataSource source, int capacity) {
+        Preconditions.checkArgument(capacity > 0);
+        this.source = Objects.requireNonNull(source);
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IcaoAddress, Optional<AircraftData>> eldest) {
+                boolean full = size() > CachingAircraftDatabase.this.capacity;
+                if (full) evictions.incrementAndGet();
+                return full;
+            }
+        };
+    }
+
+    /**
+     * This function returns the data of the aircraft whose ICAO address is the given one, from the cache if the
+     * address has been asked for recently, from the source otherwise. The source is not locked while it is read, so
+     * two threads missing the same address at the same time both read it.
+     *
+     * @param address (IcaoAddress) : the ICAO address of the aircraft
+     * @return (AircraftData) : the data of the aircraft, or null if no entry exists for this address
+     * @throws IOException in case of an input/output error of the source, in which case nothing is cached
+     */
+    @Override
+    public AircraftData get(IcaoAddress address) throws IOException {
+        Objects.requireNonNull(address);
+        Optional<AircraftData> cached;
+        synchronized (cache) {
+            cached = cache.get(address);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.orElse(null);
+        }
+
+        misses.incrementAndGet();
+        AircraftData data = source.get(address);
+        synchronized (cache) {
+            cache.put(address, Optional.ofNullable(data));
+        }
+        return data;
+    }
+
+    /**
+     * getter of the maximal number of addresses kept in the cache
+     * @return (int) : the capacity of the cache
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * getter of the number of addresses currently in the cache
+     * @return (int) : the size of the cache
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * getter of the number of requests answered by the cache, including the unknown addresses
+     * @return (long) : the number of hits
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * getter of the number of requests that had to be forwarded to the source
+     * @return (long) : the number of misses
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * getter of the number of addresses removed from the cache to make room for new ones
+     * @return (long) : the number of evictions
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+}
@@ -0,0 +1,35 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The ConvertAircraftDatabase
+ * It converts the mictronics zip database to the binary file read by the MappedAircraftDatabase.
+ * Usage : ConvertAircraftDatabase [zip [file]], the zip being by default resources/aircraft.zip and the binary file
+ * resources/aircraft.bin.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class ConvertAircraftDatabase {
+
+    private ConvertAircraftDatabase() {}
+
+    public static void main(String[] args) throws IOException {
+        String zip = args.length > 0 ? args[0] : "resources/aircraft.zip";
+        Path file = Path.of(args.length > 1 ? args[1] : "resources/aircraft.bin");
+
+        long start = System.nanoTime();
+        MappedAircraftDatabase.convert(zip, file);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        MappedAircraftDatabase database = MappedAircraftDatabase.open(file);
+        double openMs = (System.nanoTime() - start) / 1e6;
+
+        System.err.printf(Locale.ROOT, "%d entries converted in %.3f s to %s (%d bytes), opened in %.3f ms%n",
+                database.size(), seconds, file, file.toFile().length(), openMs);
+    }
+}
@@ -2,33 +2,128 @@ package ch.epfl.javions.aircraft;
 
 import ch.epfl.javions.Preconditions;
 
-import java.util.regex.Pattern;
-
 /**
  * The ICAO address of the aircraft
+ * It is stored as the 24 bits integer transmitted in the messages, so that comparing and hashing addresses are integer
+ * operations. The addresses obtained with {@link #of(int)} are interned : an aircraft sending thousands of messages is
+ * always represented by the same object. The textual representation is only computed the first time it is asked for.
  *
  * @author Yassine El graoui (361984)
  * @author Alexandre Raybaut (355794)
- *
- * @param string (String) : the OACI adress of the plane
  */
+public final class IcaoAddress {
+
+    /**
+     * The number of bits of an ICAO address
+     */
+    public static final int BITS = 24;
+
+    /**
+     * The number of hexadecimal digits of the textual representation of an ICAO address
+     */
+    private static final int DIGITS = BITS / 4;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
-public record IcaoAddress(String string) {
     /**
-     * The used pattern to describe all the possible ICAO Addresses
+     * The interning table is split into pages of PAGE_SIZE addresses, allocated the first time one of their addresses
+     * is asked for, as only a few thousand of the 16 million possible addresses are ever seen.
      */
-     private final static Pattern p = Pattern.compile("[0-9A-F]{6}");
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final IcaoAddress[][] PAGES = new IcaoAddress[1 << (BITS - PAGE_BITS)][];
+
+    private final int value;
+    private String string;
 
     /**
-     * The compact constructor of this record validates the string passed to it and throws
-     * an IllegalArgumentException if it does not represent a valid ICAO address.
-     * This validation is done using the regular expression "[0-9A-F]{6}".
+     * The constructor of an ICAO address validates the string passed to it and throws an IllegalArgumentException if
+     * it does not represent a valid ICAO address, that is if it does not contain exactly six characters among
+     * "0123456789ABCDEF".
      *
-     * @param string the string containing the textual representation of the ICAO address.
-     * @throws IllegalArgumentException if the string is empty or null, or if the string does not match the following
+     * @param string (String) : the string containing the textual representation of the ICAO address.
+     * @throws IllegalArgumentException if the string is empty, or if the string does not match the following
      * pattern ([0-9A-F]{6}).
+     * @throws NullPointerException if the string is null
      */
-    public IcaoAddress {
-        Preconditions.checkArgument(p.matcher(string).matches());
+    public IcaoAddress(String string) {
+        Preconditions.checkArgument(string.length() == DIGITS);
+        int value = 0;
+        for (int i = 0; i < DIGITS; ++i) {
+            char c = string.charAt(i);
+            Preconditions.checkArgument(('0' <= c && c <= '9') || ('A' <= c && c <= 'F'));
+            value = (value << 4) | (c <= '9' ? c - '0' : c - 'A' + 10);
+        }
+        this.value = value;
+        this.string = string;
+    }
+
+    private IcaoAddress(int value) {
+        this.value = value;
+    }
+
+    /**
+     * This function returns the interned ICAO address of the given 24 bits value.
+     * The table is filled without synchronization : two threads asking for the same new address at the same time may
+     * each create an instance, which is harmless as the equality of addresses only depends on their value.
+     *
+     * @param value (int) : the 24 bits value of the address
+     * @return (IcaoAddress) : the interned address
+     * @throws IllegalArgumentException if the value does not fit in 24 bits
+     */
+    public static IcaoAddress of(int value) {
+        Preconditions.checkArgument((value >>> BITS) == 0);
+        IcaoAddress[] page = PAGES[value >>> PAGE_BITS];
+        if (page == null) {
+            page = new IcaoAddress[PAGE_SIZE];
+            PAGES[value >>> PAGE_BITS] = page;
+        }
+        int index = value & (PAGE_SIZE - 1);
+        IcaoAddress address = page[index];
+        if (address == null) {
+            address = new IcaoAddress(value);
+            page[index] = address;
+        }
+        return address;
+    }
+
+    /**
+     * This function returns the address as the 24 bits integer transmitted in the messages.
+     * @return (int) : the value of the address
+     */
+    public int value() {
+        return value;
+    }
+
+    /**
+     * This function returns the textual representation of the address, six uppercase hexadecimal digits.
+     * @return (String) : the textual representation of the address
+     */
+    public String string() {
+        String s = string;
+        if (s == null) {
+            char[] chars = new char[DIGITS];
+            for (int i = DIGITS - 1, v = value; i >= 0; --i, v >>>= 4) {
+                chars[i] = HEX_DIGITS[v & 0xF];
+            }
+            s = new String(chars);
+            string = s;
+        }
+        return s;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IcaoAddress that && that.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "IcaoAddress[string=" + string() + "]";
     }
 }
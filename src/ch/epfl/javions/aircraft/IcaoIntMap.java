@@ -0,0 +1,273 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.javions.Preconditions;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * The IcaoIntMap
+ * A map whose keys are the 24 bits of ICAO addresses, stored as ints in an open addressing table (linear probing), so
+ * that neither the keys nor the entries are objects. The table is kept at most half full, and a removal shifts back
+ * the following entries of its cluster instead of leaving a tombstone.
+ * It is not thread safe, and does not accept null values.
+ *
+ * @param <V> the type of the values
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class IcaoIntMap<V> {
+
+    /**
+     * A receiver of the entries of the map.
+     *
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * This function receives an entry of the map.
+         * @param icaoAddress (int) : the key, the 24 bits of an ICAO address
+         * @param value       (V) : the value
+         */
+        void accept(int icaoAddress, V value);
+    }
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size = 0;
+
+    /**
+     * The constructor of an empty map.
+     */
+    public IcaoIntMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * The constructor of an empty map that can contain the given number of entries without growing.
+     *
+     * @param expectedSize (int) : the expected number of entries
+     * @throws IllegalArgumentException if the expected number of entries is negative or greater than 2^24
+     */
+    public IcaoIntMap(int expectedSize) {
+        Preconditions.checkArgument(0 <= expectedSize && expectedSize <= 1 << IcaoAddress.BITS);
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, 2 * expectedSize - 1)) << 1));
+    }
+
+    /**
+     * getter of the number of entries
+     * @return (int) : the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This function states if the map is empty.
+     * @return (boolean) : true if the map contains no entry
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This function returns the value associated to the given address.
+     *
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     * @return (V) : the value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int icaoAddress) {
+        int slot = find(icaoAddress);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * This function states if a value is associated to the given address.
+     *
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     * @return (boolean) : true if the map contains the address
+     */
+    public boolean containsKey(int icaoAddress) {
+        return find(icaoAddress) >= 0;
+    }
+
+    /**
+     * This function associates the given value to the given address.
+     *
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     * @param value       (V) : the value
+     * @return (V) : the value previously associated to the address, or null if there was none
+     * @throws IllegalArgumentException if the address does not fit in 24 bits
+     * @throws NullPointerException     if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int icaoAddress, V value) {
+        Objects.requireNonNull(value);
+        int slot = slotOf(icaoAddress);
+        if (keys[slot] == icaoAddress) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(slot, icaoAddress, value);
+        return null;
+    }
+
+    /**
+     * This function returns the value associated to the given address, after having associated it the value computed
+     * by the given function if there was none.
+     *
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     * @param function    (IntFunction<V>) : the function computing the value from the address
+     * @return (V) : the value associated to the address
+     * @throws IllegalArgumentException if the address does not fit in 24 bits
+     * @throws NullPointerException     if the computed value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int icaoAddress, IntFunction<V> function) {
+        int slot = slotOf(icaoAddress);
+        if (keys[slot] == icaoAddress) return (V) values[slot];
+        V value = Objects.requireNonNull(function.apply(icaoAddress));
+        insert(slot, icaoAddress, value);
+        return value;
+    }
+
+    /**
+     * This function removes the value associated to the given address.
+     *
+     * @param icaoAddress (int) : the 24 bits of the ICAO address
+     * @return (V) : the removed value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int icaoAddress) {
+        int slot = find(icaoAddress);
+        if (slot < 0) return null;
+        V previous = (V) values[slot];
+        removeSlot(slot);
+        return previous;
+    }
+
+    /**
+     * This function removes the entries whose value satisfies the given predicate. A value can be tested twice.
+     *
+     * @param predicate (Predicate<V>) : the predicate
+     * @return (int) : the number of removed entries
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(Predicate<V> predicate) {
+        int removed = 0;
+        for (int slot = 0; slot < keys.length; ++slot) {
+            // The entry shifted back into a freed slot is tested in turn
+            while (keys[slot] != EMPTY && predicate.test((V) values[slot])) {
+                removeSlot(slot);
+                ++removed;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * This function gives all the entries of the map to the given consumer, in no particular order. The map must not
+     * be modified meanwhile.
+     *
+     * @param consumer (EntryConsumer<V>) : the receiver of the entries
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int slot = 0; slot < keys.length; ++slot) {
+            if (keys[slot] != EMPTY) consumer.accept(keys[slot], (V) values[slot]);
+        }
+    }
+
+    /**
+     * This function removes all the entries of the map.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(int icaoAddress) {
+        // The multiplication mixes the bits towards the highest ones, which are then folded onto the lowest ones
+        int h = icaoAddress * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * This function returns the slot of the given address, or -1 if it is not in the map.
+     */
+    private int find(int icaoAddress) {
+        if (icaoAddress >>> IcaoAddress.BITS != 0) return -1;
+        int slot = slotOf(icaoAddress);
+        return keys[slot] == icaoAddress ? slot : -1;
+    }
+
+    /**
+     * This function returns the slot containing the given address or, if there is none, the empty slot where it must
+     * be inserted.
+     */
+    private int slotOf(int icaoAddress) {
+        Preconditions.checkArgument(icaoAddress >>> IcaoAddress.BITS == 0);
+        int slot = hash(icaoAddress) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != icaoAddress) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void insert(int slot, int icaoAddress, Object value) {
+        keys[slot] = icaoAddress;
+        values[slot] = value;
+        if (++size * 2 > keys.length) grow();
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * This function empties the given slot, and shifts back the following entries of the cluster that cannot be found
+     * anymore once the slot is empty.
+     */
+    private void removeSlot(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // The entry can fill the hole if its home is not cyclically in ]hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        --size;
+    }
+}
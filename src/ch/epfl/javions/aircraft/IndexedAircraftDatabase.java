@@ -0,0 +1,243 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The IndexedAircraftDatabase
+ * It loads the whole mictronics database once, instead of decompressing and scanning a file of the zip at each
+ * request. The entries are stored by column : the ICAO addresses as a sorted array of integers, in which an address is
+ * found by binary search, and the textual fields as indices in a pool of distinct strings, as most of the type
+ * designators, models and descriptions are shared by many aircraft.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class IndexedAircraftDatabase implements AircraftDataSource {
+
+    /**
+     * The approximate number of bytes used by a String in the pool, without its characters
+     */
+    private static final int STRING_OVERHEAD = 56;
+
+    private static final WakeTurbulenceCategory[] CATEGORIES = WakeTurbulenceCategory.values();
+
+    private final int[] addresses;
+    private final int[] registrations;
+    private final int[] typeDesignators;
+    private final int[] models;
+    private final int[] descriptions;
+    private final byte[] categories;
+    private final String[] pool;
+    private final long loadTimeNs;
+
+    private IndexedAircraftDatabase(int[] addresses, int[] registrations, int[] typeDesignators, int[] models,
+                                    int[] descriptions, byte[] categories, String[] pool, long loadTimeNs) {
+        this.addresses = addresses;
+        this.registrations = registrations;
+        this.typeDesignators = typeDesignators;
+        this.models = models;
+        this.descriptions = descriptions;
+        this.categories = categories;
+        this.pool = pool;
+        this.loadTimeNs = loadTimeNs;
+    }
+
+    /**
+     * The lines of a single file of the zip, with their addresses already parsed.
+     */
+    private record Chunk(int[] addresses, String[][] fields) {}
+
+    /**
+     * This function loads the mictronics database stored in the given zip file. The files of the zip are read and
+     * parsed in parallel, on the common fork-join pool.
+     *
+     * @param fileName (String) : the name of the zip file
+     * @return (IndexedAircraftDatabase) : the database containing all the entries of the file
+     * @throws IOException in case of an input/output error
+     * @throws NullPointerException if the name is null
+     */
+    public static IndexedAircraftDatabase load(String fileName) throws IOException {
+        Objects.requireNonNull(fileName);
+        long start = System.nanoTime();
+
+        List<Chunk> chunks;
+        try (ZipFile zipFile = new ZipFile(fileName)) {
+            try {
+                chunks = zipFile.stream()
+                        .parallel()
+                        .filter(e -> !e.isDirectory() && e.getName().endsWith(".csv"))
+                        .map(e -> readChunk(zipFile, e))
+                        .toList();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        int count = 0;
+        for (Chunk chunk : chunks) count += chunk.addresses().length;
+
+        // The index of a line in the concatenation of the chunks is kept in the low bits of its sort key, so that
+        // lines having the same address stay in the order of the file, as with AircraftDatabase.
+        long[] keys = new long[count];
+        String[][] fields = new String[count][];
+        int row = 0;
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.addresses().length; ++i, ++row) {
+                keys[row] = ((long) chunk.addresses()[i] << Integer.SIZE) | row;
+                fields[row] = chunk.fields()[i];
+            }
+        }
+        Arrays.parallelSort(keys);
+
+        int[] addresses = new int[count];
+        int[] registrations = new int[count];
+        int[] typeDesignators = new int[count];
+        int[] models = new int[count];
+        int[] descriptions = new int[count];
+        byte[] categories = new byte[count];
+        Map<String, Integer> poolIndices = new HashMap<>();
+        List<String> pool = new ArrayList<>();
+
+        for (int i = 0; i < count; ++i) {
+            String[] line = fields[(int) keys[i]];
+            addresses[i] = (int) (keys[i] >>> Integer.SIZE);
+            registrations[i] = intern(line[1], poolIndices, pool);
+            typeDesignators[i] = intern(line[2], poolIndices, pool);
+            models[i] = intern(line[3], poolIndices, pool);
+            descriptions[i] = intern(line[4], poolIndices, pool);
+            categories[i] = (byte) WakeTurbulenceCategory.of(line[5]).ordinal();
+        }
+
+        return new IndexedAircraftDatabase(addresses, registrations, typeDesignators, models, descriptions,
+                categories, pool.toArray(new String[0]), System.nanoTime() - start);
+    }
+
+    /**
+     * This function reads and splits all the lines of a file of the zip.
+     *
+     * @param zipFile (ZipFile) : the zip file
+     * @param entry   (ZipEntry) : the file to read
+     * @return (Chunk) : the lines of the file
+     * @throws UncheckedIOException in case of an input/output error
+     */
+    private static Chunk readChunk(ZipFile zipFile, ZipEntry entry) {
+        List<String[]> lines = new ArrayList<>();
+        try (InputStream stream = zipFile.getInputStream(entry);
+             BufferedReader buffer = new BufferedReader(new InputStreamReader(stream, UTF_8))) {
+            String l;
+            while ((l = buffer.readLine()) != null) {
+                if (!l.isEmpty()) lines.add(l.split(",", -1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int[] addresses = new int[lines.size()];
+        for (int i = 0; i < addresses.length; ++i) {
+            addresses[i] = new IcaoAddress(lines.get(i)[0]).value();
+        }
+        return new Chunk(addresses, lines.toArray(new String[0][]));
+    }
+
+    private static int intern(String s, Map<String, Integer> poolIndices, List<String> pool) {
+        return poolIndices.computeIfAbsent(s, k -> {
+            pool.add(k);
+            return pool.size() - 1;
+        });
+    }
+
+    /**
+     * This function returns the data of the aircraft whose ICAO address is the given one, found by binary search
+     * among the loaded addresses.
+     *
+     * @param address (IcaoAddress) : the ICAO address of the aircraft
+     * @return (AircraftData) : the data of the aircraft, or null if no entry exists in the database for this address
+     */
+    @Override
+    public AircraftData get(IcaoAddress address) {
+        int value = address.value();
+        int low = 0;
+        int high = addresses.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (addresses[middle] < value) low = middle + 1;
+            else high = middle;
+        }
+        if (low == addresses.length || addresses[low] != value) return null;
+
+        return new AircraftData(new AircraftRegistration(pool[registrations[low]]),
+                new AircraftTypeDesignator(pool[typeDesignators[low]]), pool[models[low]],
+                new AircraftDescription(pool[descriptions[low]]), CATEGORIES[categories[low]]);
+    }
+
+    /**
+     * getter of the sorted ICAO addresses of the entries, used to write the database in binary form
+     * @return (int[]) : the addresses, not copied
+     */
+    int[] addresses() {
+        return addresses;
+    }
+
+    /**
+     * getter of a textual column of the entries, used to write the database in binary form
+     * @param column (int) : 0 for the registrations, 1 for the type designators, 2 for the models and 3 for the
+     *               descriptions
+     * @return (int[]) : the indices in the pool of the strings of the column, not copied
+     */
+    int[] column(int column) {
+        return switch (column) {
+            case 0 -> registrations;
+            case 1 -> typeDesignators;
+            case 2 -> models;
+            case 3 -> descriptions;
+            default -> throw new IndexOutOfBoundsException(column);
+        };
+    }
+
+    /**
+     * getter of the ordinals of the wake turbulence categories of the entries
+     * @return (byte[]) : the ordinals, not copied
+     */
+    byte[] categories() {
+        return categories;
+    }
+
+    /**
+     * getter of the pool of distinct strings of the entries
+     * @return (String[]) : the pool, not copied
+     */
+    String[] pool() {
+        return pool;
+    }
+
+    /**
+     * getter of the number of entries of the database
+     * @return (int) : the number of entries
+     */
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * getter of the time it took to load the database
+     * @return (long) : the loading time in nanoseconds
+     */
+    public long loadTimeNs() {
+        return loadTimeNs;
+    }
+
+    /**
+     * This function estimates the memory used by the database : its columns and its pool of strings.
+     * @return (long) : the approximate number of bytes used
+     */
+    public long footprintBytes() {
+        long bytes = (long) addresses.length * (5 * Integer.BYTES + Byte.BYTES) + (long) pool.length * Integer.BYTES;
+        for (String s : pool) bytes += STRING_OVERHEAD + s.length();
+        return bytes;
+    }
+}
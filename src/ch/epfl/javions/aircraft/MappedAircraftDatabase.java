@@ -0,0 +1,202 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The MappedAircraftDatabase
+ * It reads the mictronics database from a binary file, obtained once from the zip with {@link #convert}, that is
+ * mapped in memory instead of being loaded : opening it is almost instantaneous, and an address is found by binary
+ * search directly in the mapping, without allocating anything until its AircraftData is built.
+ * <p>
+ * The file contains, in big endian order :
+ * <ul>
+ *     <li>a header : the magic number, the version of the format, the number n of entries, the size of the heap,</li>
+ *     <li>the n ICAO addresses of the entries, sorted, as ints,</li>
+ *     <li>four columns of n ints, the offsets in the heap of the registrations, type designators, models and
+ *     descriptions of the entries,</li>
+ *     <li>the n ordinals of the wake turbulence categories of the entries, as bytes,</li>
+ *     <li>the heap, in which each distinct string is stored once, as its length in bytes (an unsigned short) followed
+ *     by its UTF-8 bytes.</li>
+ * </ul>
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class MappedAircraftDatabase implements AircraftDataSource {
+
+    /**
+     * The magic number starting the file, "JVAD"
+     */
+    private static final int MAGIC = 0x4A564144;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final int COLUMN_COUNT = 4;
+
+    private static final WakeTurbulenceCategory[] CATEGORIES = WakeTurbulenceCategory.values();
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int columnsOffset;
+    private final int categoriesOffset;
+    private final int heapOffset;
+
+    private MappedAircraftDatabase(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+        this.columnsOffset = HEADER_SIZE + count * Integer.BYTES;
+        this.categoriesOffset = columnsOffset + COLUMN_COUNT * count * Integer.BYTES;
+        this.heapOffset = categoriesOffset + count;
+    }
+
+    /**
+     * This function maps the given binary database file.
+     *
+     * @param file (Path) : the file written by convert
+     * @return (MappedAircraftDatabase) : the database
+     * @throws IOException in case of an input/output error, or if the file is not a valid binary database
+     * @throws NullPointerException if the path is null
+     */
+    public static MappedAircraftDatabase open(Path file) throws IOException {
+        Objects.requireNonNull(file);
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid aircraft database size : " + channel.size());
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int count = buffer.getInt(2 * Integer.BYTES);
+        int heapSize = buffer.getInt(3 * Integer.BYTES);
+        long expectedSize = HEADER_SIZE + (long) count * ((1 + COLUMN_COUNT) * Integer.BYTES + 1) + heapSize;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION
+                || count < 0 || heapSize < 0 || expectedSize != buffer.capacity()) {
+            throw new IOException("Invalid aircraft database file : " + file);
+        }
+
+        MappedAircraftDatabase database = new MappedAircraftDatabase(buffer, count);
+        // The categories are checked once here, so that a lookup never reads an invalid ordinal
+        for (int entry = 0; entry < count; ++entry) {
+            byte category = buffer.get(database.categoriesOffset + entry);
+            if (category < 0 || category >= CATEGORIES.length) {
+                throw new IOException("Invalid wake turbulence category " + category + " in : " + file);
+            }
+        }
+        return database;
+    }
+
+    /**
+     * This function converts the mictronics database stored in the given zip file to a binary database file. The file
+     * is first written next to the destination, then moved to it.
+     *
+     * @param zipFileName (String) : the name of the zip file
+     * @param file        (Path) : the binary file to write
+     * @throws IOException in case of an input/output error
+     * @throws NullPointerException if one of the arguments is null
+     */
+    public static void convert(String zipFileName, Path file) throws IOException {
+        Objects.requireNonNull(file);
+        IndexedAircraftDatabase database = IndexedAircraftDatabase.load(zipFileName);
+
+        String[] pool = database.pool();
+        byte[][] encoded = new byte[pool.length][];
+        int[] offsets = new int[pool.length];
+        long heapSize = 0;
+        for (int i = 0; i < pool.length; ++i) {
+            encoded[i] = pool[i].getBytes(UTF_8);
+            if (encoded[i].length > 0xFFFF) throw new IOException("String too long : " + pool[i]);
+            offsets[i] = (int) heapSize;
+            heapSize += Short.BYTES + encoded[i].length;
+        }
+        if (heapSize > Integer.MAX_VALUE) throw new IOException("Aircraft database too big");
+
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), "aircraft", ".tmp");
+        try {
+            try (DataOutputStream s = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                int[] addresses = database.addresses();
+                s.writeInt(MAGIC);
+                s.writeInt(VERSION);
+                s.writeInt(addresses.length);
+                s.writeInt((int) heapSize);
+                for (int address : addresses) s.writeInt(address);
+                for (int c = 0; c < COLUMN_COUNT; ++c) {
+                    for (int poolIndex : database.column(c)) s.writeInt(offsets[poolIndex]);
+                }
+                s.write(database.categories());
+                for (byte[] bytes : encoded) {
+                    s.writeShort(bytes.length);
+                    s.write(bytes);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * This function returns the data of the aircraft whose ICAO address is the given one, found by binary search
+     * in the mapped file.
+     *
+     * @param address (IcaoAddress) : the ICAO address of the aircraft
+     * @return (AircraftData) : the data of the aircraft, or null if no entry exists in the database for this address
+     */
+    @Override
+    public AircraftData get(IcaoAddress address) {
+        int entry = indexOf(address.value());
+        if (entry < 0) return null;
+
+        return new AircraftData(new AircraftRegistration(string(entry, 0)),
+                new AircraftTypeDesignator(string(entry, 1)), string(entry, 2),
+                new AircraftDescription(string(entry, 3)), CATEGORIES[buffer.get(categoriesOffset + entry)]);
+    }
+
+    /**
+     * This function finds the first entry of the given address.
+     *
+     * @param value (int) : the value of the ICAO address
+     * @return (int) : the index of the entry, or -1 if there is none
+     */
+    private int indexOf(int value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getInt(HEADER_SIZE + middle * Integer.BYTES) < value) low = middle + 1;
+            else high = middle;
+        }
+        return low < count && buffer.getInt(HEADER_SIZE + low * Integer.BYTES) == value ? low : -1;
+    }
+
+    /**
+     * This function decodes a textual field of an entry from the heap.
+     *
+     * @param entry  (int) : the index of the entry
+     * @param column (int) : the index of the field
+     * @return (String) : the field
+     */
+    private String string(int entry, int column) {
+        int offset = heapOffset + buffer.getInt(columnsOffset + (column * count + entry) * Integer.BYTES);
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+        buffer.get(offset + Short.BYTES, bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * getter of the number of entries of the database
+     * @return (int) : the number of entries
+     */
+    public int size() {
+        return count;
+    }
+}
@@ -1,8 +1,12 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.adsb.ErrorCorrector;
 import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageView;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 
 /**
  * The ADS-B Demodulator
@@ -31,8 +35,44 @@ public final class AdsbDemodulator {
      * The length of the PowerWindow used to decode a sequence of ADS-B messages
      */
     private static final int WINDOW_SIZE = 1200;
+
+    /**
+     * The number of power samples computed at once in the batch scan mode
+     */
+    private static final int BATCH_SIZE = 1 << 16;
+
+    /**
+     * The time between two power samples, in nanoseconds
+     */
+    private static final int NANOSECONDS_PER_POSITION = 100;
+
     private final PowerWindow window;
     private final byte[] message;
+    private final ErrorCorrector corrector;
+
+    private final PowerComputer powerComputer;
+    private final int[] powers;
+    private final int[] batch;
+    private int length;
+    private int index;
+    private long firstPosition;
+    private long nextAllowedPosition;
+    private boolean endOfStream;
+
+    /**
+     * The ways the demodulator can look for the preambles in the power samples. Both find exactly the same messages.
+     */
+    public enum ScanMode {
+        /**
+         * The demodulator advances a PowerWindow one power sample at a time.
+         */
+        WINDOW,
+        /**
+         * The demodulator scans the contiguous batches of power samples directly, and jumps over the window of a message
+         * at once.
+         */
+        BATCH
+    }
 
     /**
      * The constructor of the adsb demodulator. It creates a window of size 1200.
@@ -41,8 +81,90 @@ public final class AdsbDemodulator {
      * @throws IOException if there is a problem in the reading of the file.
      */
     public AdsbDemodulator(InputStream inputStream) throws IOException {
-        window = new PowerWindow(inputStream, WINDOW_SIZE);
+        this(inputStream, ScanMode.WINDOW);
+    }
+
+    /**
+     * The constructor of the adsb demodulator using the given scan mode.
+     *
+     * @param inputStream (InputStream) : the stream of data that is given to be read and decoded
+     * @param mode        (ScanMode) : the way the preambles are searched
+     * @throws IOException if there is a problem in the reading of the file.
+     * @throws NullPointerException if the mode is null
+     */
+    public AdsbDemodulator(InputStream inputStream, ScanMode mode) throws IOException {
+        this(inputStream, mode, new ErrorCorrector(0));
+    }
+
+    /**
+     * The constructor of the adsb demodulator using the given scan mode, and correcting the messages whose CRC is
+     * wrong with the given corrector.
+     *
+     * @param inputStream (InputStream) : the stream of data that is given to be read and decoded
+     * @param mode        (ScanMode) : the way the preambles are searched
+     * @param corrector   (ErrorCorrector) : the corrector of the messages
+     * @throws IOException if there is a problem in the reading of the file.
+     * @throws NullPointerException if the mode or the corrector is null
+     */
+    public AdsbDemodulator(InputStream inputStream, ScanMode mode, ErrorCorrector corrector) throws IOException {
+        this(Objects.requireNonNull(mode) == ScanMode.WINDOW ? new PowerWindow(inputStream, WINDOW_SIZE) : null,
+                mode == ScanMode.BATCH ? new PowerComputer(inputStream, BATCH_SIZE) : null, 0, corrector);
+    }
+
+    /**
+     * The constructor of the adsb demodulator reading the samples of a mapped file, using the given scan mode. The
+     * demodulation starts at the beginning of the range of the file as if it was the beginning of a stream, but the
+     * time stamps of the messages are relative to the beginning of the file.
+     *
+     * @param samples (SampleFile) : the samples that are given to be decoded
+     * @param mode    (ScanMode) : the way the preambles are searched
+     * @throws IOException if there is a problem in the reading of the file.
+     * @throws NullPointerException if the sample file or the mode is null
+     */
+    public AdsbDemodulator(SampleFile samples, ScanMode mode) throws IOException {
+        this(samples, mode, new ErrorCorrector(0));
+    }
+
+    /**
+     * The constructor of the adsb demodulator reading the samples of a mapped file, using the given scan mode, and
+     * correcting the messages whose CRC is wrong with the given corrector.
+     *
+     * @param samples   (SampleFile) : the samples that are given to be decoded
+     * @param mode      (ScanMode) : the way the preambles are searched
+     * @param corrector (ErrorCorrector) : the corrector of the messages
+     * @throws IOException if there is a problem in the reading of the file.
+     * @throws NullPointerException if the sample file, the mode or the corrector is null
+     */
+    public AdsbDemodulator(SampleFile samples, ScanMode mode, ErrorCorrector corrector) throws IOException {
+        this(Objects.requireNonNull(mode) == ScanMode.WINDOW ? new PowerWindow(samples, WINDOW_SIZE) : null,
+                mode == ScanMode.BATCH ? new PowerComputer(samples, BATCH_SIZE) : null, samples.firstPosition(),
+                corrector);
+    }
+
+    /**
+     * The constructor of the adsb demodulator using either a window or the batches of a PowerComputer.
+     *
+     * @param window        (PowerWindow) : the window, or null in the batch scan mode
+     * @param powerComputer (PowerComputer) : the computer of the power samples, or null in the window scan mode
+     * @param firstPosition (long) : the position of the first power sample
+     * @param corrector     (ErrorCorrector) : the corrector of the messages
+     */
+    private AdsbDemodulator(PowerWindow window, PowerComputer powerComputer, long firstPosition,
+                            ErrorCorrector corrector) {
         message = new byte[14];
+        this.corrector = Objects.requireNonNull(corrector);
+        this.window = window;
+        this.powerComputer = powerComputer;
+        if (powerComputer == null) {
+            powers = null;
+            batch = null;
+        } else {
+            powers = new int[BATCH_SIZE + WINDOW_SIZE];
+            batch = new int[BATCH_SIZE];
+            index = 1;
+            this.firstPosition = firstPosition;
+            nextAllowedPosition = firstPosition;
+        }
     }
 
     /**
@@ -56,11 +178,42 @@ public final class AdsbDemodulator {
      * by 1200 (because all the elements of the window were already used to decode the message, so we cannot use them twice for a
      * different message). However, if the crc24, is not correct, we return null because the message is not interesting. And, we advance
      * by one because we can still find a message.
+     * If the demodulator was given an ErrorCorrector, a message whose crc24 is wrong because of a few flipped bits is
+     * corrected and returned like a correct one.
      *
      * @return (RawMessage) : a decoded message at a certain position in the stream of data.
      * @throws IOException : if there is a problem in the reading of the file.
      */
     public RawMessage nextMessage() throws IOException{
+        long timeStampNs = findNextMessage();
+        return timeStampNs < 0 ? null : new RawMessage(timeStampNs, new ByteString(message));
+    }
+
+    /**
+     * This function finds the next message like nextMessage(), but shows it with the given view instead of building a
+     * RawMessage, so that no object is created. The view shows the buffer of the demodulator, and is thus only valid
+     * until the next call to one of the nextMessage functions.
+     *
+     * @param view (RawMessageView) : the view showing the message that is found
+     * @return (boolean) : true if a message was found, false if the end of the stream is reached.
+     * @throws IOException : if there is a problem in the reading of the file.
+     */
+    public boolean nextMessage(RawMessageView view) throws IOException {
+        long timeStampNs = findNextMessage();
+        if (timeStampNs < 0) return false;
+
+        view.wrap(timeStampNs, message);
+        return true;
+    }
+
+    /**
+     * This function finds the next message of the stream and leaves its bytes in the message array.
+     * @return (long) : the time stamp of the message, or -1 if the end of the stream is reached.
+     * @throws IOException : if there is a problem in the reading of the file.
+     */
+    private long findNextMessage() throws IOException {
+        if (window == null) return nextMessageInBatches();
+
         int previousSumP = 0;
         int currentSumP = 0;
         int nextSumP = 0;
@@ -71,17 +224,87 @@ public final class AdsbDemodulator {
             if(currentSumP > nextSumP && currentSumP > previousSumP && currentSumP >= 2*calculateSumV()
                         && TestIfCorrectMessage()){
                 getMessage();
-                RawMessage result = RawMessage.of(window.position()*100, message);
-                if(result != null) {
+                if(corrector.correct(message)) {
+                    long timeStampNs = window.position() * NANOSECONDS_PER_POSITION;
                     window.advanceBy(WINDOW_SIZE);
-                    return result;
+                    return timeStampNs;
                 }
             }
             previousSumP = currentSumP;
             currentSumP = nextSumP;
         }
 
-        return null;
+        return -1;
+    }
+
+    /**
+     * This function finds the next message like the window scan, but works directly on the contiguous array of power
+     * samples. The SumP of each position is computed once, and the three conditions on the preamble are evaluated
+     * together without branching, so that nearly all the positions are ruled out by a single, well predicted test
+     * before the DF is decoded. When a message is found, the scan jumps directly over its window instead of advancing
+     * 1200 times.
+     * The array keeps the last WINDOW_SIZE power samples of the previous batch in front of the new one, so that the
+     * positions close to the end of a batch are scanned once the next batch is read.
+     *
+     * @return (long) : the time stamp of the next message, or -1 if the end of the stream is reached.
+     * @throws IOException : if there is a problem in the reading of the file.
+     */
+    private long nextMessageInBatches() throws IOException {
+        do {
+            int to = length - WINDOW_SIZE + 1;
+            int i = index;
+            if (i < to) {
+                int[] p = powers;
+                int relaxedIndex = (int) Math.max(-1, nextAllowedPosition + 1 - firstPosition);
+                int previousSumP = PreambleScanner.sumP(p, i - 1);
+                int currentSumP = PreambleScanner.sumP(p, i);
+
+                for (; i < to; ++i) {
+                    int nextSumP = PreambleScanner.sumP(p, i + 1);
+                    boolean isPeak = (currentSumP > nextSumP) & (currentSumP > previousSumP | i == relaxedIndex)
+                            & (currentSumP >= 2 * PreambleScanner.sumV(p, i));
+
+                    if (isPeak && PreambleScanner.downLinkFormat(p, i) == RawMessage.VALID_TYPE_CHECKER) {
+                        PreambleScanner.decodeBytes(powers, i, message);
+                        if (corrector.correct(message)) {
+                            nextAllowedPosition = firstPosition + i + WINDOW_SIZE;
+                            index = i + WINDOW_SIZE + 1;
+                            return (firstPosition + i) * NANOSECONDS_PER_POSITION;
+                        }
+                    }
+                    previousSumP = currentSumP;
+                    currentSumP = nextSumP;
+                }
+                index = i;
+            }
+        } while (readBatch());
+
+        return -1;
+    }
+
+    /**
+     * This function reads the next batch of power samples at the end of the array, after having moved the last
+     * WINDOW_SIZE power samples at its beginning.
+     *
+     * @return (boolean) : false if the end of the stream was already reached, true otherwise
+     * @throws IOException : if there is a problem in the reading of the file.
+     */
+    private boolean readBatch() throws IOException {
+        if (endOfStream) return false;
+
+        if (length > WINDOW_SIZE) {
+            int shift = length - WINDOW_SIZE;
+            System.arraycopy(powers, shift, powers, 0, WINDOW_SIZE);
+            firstPosition += shift;
+            index -= shift;
+            length = WINDOW_SIZE;
+        }
+
+        int read = powerComputer.readBatch(batch);
+        System.arraycopy(batch, 0, powers, length, read);
+        length += read;
+        endOfStream = read < BATCH_SIZE;
+        return true;
     }
 
     /**
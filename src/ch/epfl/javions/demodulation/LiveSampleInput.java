@@ -0,0 +1,214 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The LiveSampleInput
+ * The stream of the bytes coming live from the AirSpy radio. A dedicated thread reads the channel into large direct
+ * buffers allocated once, and hands them to the demodulator, which thus never waits for a small read of the channel.
+ * The radio does not wait for the demodulator : when no free buffer is left, the thread keeps reading the channel but
+ * drops what it reads, and counts the dropped samples. As the demodulator deduces the time stamps of the messages from
+ * the number of samples read, the time stamps of the messages following a drop are early by the duration of the
+ * dropped samples.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class LiveSampleInput extends InputStream {
+
+    /**
+     * The default size of a buffer, in bytes, about 50 ms of samples
+     */
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * The default number of buffers
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 16;
+
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private final ReadableByteChannel channel;
+    private final int bufferCount;
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final BlockingQueue<ByteBuffer> filledBuffers;
+    private final ByteBuffer dropBuffer;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong droppedBytes = new AtomicLong();
+    private final Thread reader;
+    private final long startNanos;
+    private volatile IOException readerException;
+
+    private final byte[] singleByte = new byte[1];
+    private ByteBuffer current;
+
+    /**
+     * The statistics of the input.
+     *
+     * @param samplesRead    (long) : the number of samples read from the channel, dropped ones included
+     * @param droppedSamples (long) : the number of samples dropped because no buffer was free
+     * @param filledBuffers  (int) : the number of buffers in use, being filled, waiting to be demodulated or being
+     *                       demodulated
+     * @param bufferCount    (int) : the total number of buffers
+     * @param elapsedNanos   (long) : the time elapsed since the creation of the input, in nanoseconds
+     */
+    public record Statistics(long samplesRead, long droppedSamples, int filledBuffers, int bufferCount,
+                             long elapsedNanos) {
+
+        /**
+         * This function returns the mean number of samples read per second, which should be the sampling rate of the
+         * radio.
+         * @return (double) : the number of samples per second, or 0 if no time elapsed
+         */
+        public double samplesPerSecond() {
+            return elapsedNanos == 0 ? 0 : samplesRead * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * This function returns the part of the buffers in use. It stays close to one when the radio outruns the
+         * demodulator.
+         * @return (double) : the fill of the buffers, between 0 and 1
+         */
+        public double fill() {
+            return (double) filledBuffers / bufferCount;
+        }
+    }
+
+    /**
+     * The constructor of the input, which starts its reading thread.
+     *
+     * @param channel     (ReadableByteChannel) : the channel of the bytes of the radio
+     * @param bufferBytes (int) : the size of a buffer, in bytes
+     * @param bufferCount (int) : the number of buffers
+     * @throws IllegalArgumentException if the size of a buffer is not a strictly positive multiple of the size of a
+     *                                  sample, or if the number of buffers is not strictly positive
+     * @throws NullPointerException     if the channel is null
+     */
+    public LiveSampleInput(ReadableByteChannel channel, int bufferBytes, int bufferCount) {
+        Preconditions.checkArgument(bufferBytes > 0 && bufferBytes % SamplesDecoder.BYTES_IN_SHORT == 0);
+        Preconditions.checkArgument(bufferCount > 0);
+        this.channel = Objects.requireNonNull(channel);
+        this.bufferCount = bufferCount;
+
+        freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        // One more place for the end of the stream
+        filledBuffers = new ArrayBlockingQueue<>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; ++i) freeBuffers.add(ByteBuffer.allocateDirect(bufferBytes));
+        dropBuffer = ByteBuffer.allocateDirect(bufferBytes);
+
+        reader = new Thread(this::readChannel, "live-samples-reading");
+        reader.setDaemon(true);
+        startNanos = System.nanoTime();
+        reader.start();
+    }
+
+    /**
+     * This function returns the input reading the standard input, with the default buffers.
+     * @return (LiveSampleInput) : the input of the standard input
+     */
+    public static LiveSampleInput standardInput() {
+        return new LiveSampleInput(new FileInputStream(FileDescriptor.in).getChannel(), DEFAULT_BUFFER_BYTES,
+                DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * This function returns the statistics of the input. It can be called from any thread.
+     * @return (Statistics) : the statistics of the input
+     */
+    public Statistics statistics() {
+        return new Statistics(bytesRead.get() / SamplesDecoder.BYTES_IN_SHORT,
+                droppedBytes.get() / SamplesDecoder.BYTES_IN_SHORT, bufferCount - freeBuffers.size(), bufferCount,
+                System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(singleByte, 0, 1) < 0 ? -1 : Byte.toUnsignedInt(singleByte[0]);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) return 0;
+        if (!nextBytes()) return -1;
+
+        int count = Math.min(len, current.remaining());
+        current.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.remaining();
+    }
+
+    /**
+     * This function stops the reading thread, which closes the channel.
+     */
+    @Override
+    public void close() {
+        reader.interrupt();
+    }
+
+    /**
+     * This function makes sure that the current buffer contains bytes, giving back the empty ones to the reading
+     * thread, and waiting for it if needed.
+     * @return (boolean) : false if the end of the stream is reached
+     * @throws IOException if the reading of the channel failed, or if the thread is interrupted
+     */
+    private boolean nextBytes() throws IOException {
+        while (current != END_OF_STREAM && (current == null || !current.hasRemaining())) {
+            if (current != null) freeBuffers.add(current.clear());
+            try {
+                current = filledBuffers.take();
+            } catch (InterruptedException e) {
+                current = null;
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        if (current == END_OF_STREAM && readerException != null) throw readerException;
+        return current != END_OF_STREAM;
+    }
+
+    /**
+     * The loop of the reading thread, which fills the free buffers, or the drop buffer if there is none.
+     */
+    private void readChannel() {
+        try {
+            int lastRead = 0;
+            while (lastRead >= 0) {
+                ByteBuffer buffer = freeBuffers.poll();
+                boolean dropping = buffer == null;
+                if (dropping) buffer = dropBuffer.clear();
+
+                while (buffer.hasRemaining() && lastRead >= 0) lastRead = channel.read(buffer);
+
+                int bytes = buffer.position();
+                if (dropping) {
+                    droppedBytes.addAndGet(bytes);
+                } else if (bytes > 0) {
+                    filledBuffers.add(buffer.flip());
+                } else {
+                    freeBuffers.add(buffer);
+                }
+                bytesRead.addAndGet(bytes);
+            }
+        } catch (ClosedByInterruptException e) {
+            // The input is closed
+        } catch (IOException e) {
+            readerException = e;
+        } finally {
+            filledBuffers.add(END_OF_STREAM);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The parallel ADS-B demodulator
+ * It demodulates a recorded sample file on the threads of a fork-join pool, and produces exactly the same messages, in
+ * the same order, as the AdsbDemodulator reading the file.
+ * The positions of the file are cut in chunks, each one being scanned by a task with the WINDOW_SIZE - 1 power samples
+ * following it, so that the chunks overlap and a message straddling two chunks is entirely contained in the first one.
+ * The tasks return all the possible messages of their chunk (see PreambleScanner), and the thread calling
+ * nextMessage() selects in order the ones the sequential demodulator would have accepted, which removes the messages
+ * found twice in the overlapping power samples.
+ * Only a bounded number of chunks are scanned ahead of the one being read, so that the memory used does not depend on
+ * the size of the file.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class ParallelAdsbDemodulator implements AutoCloseable {
+
+    /**
+     * The number of positions scanned by a task
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The number of power samples computed at once by a task
+     */
+    private static final int BATCH_SIZE = 1 << 16;
+
+    /**
+     * The number of chunks scanned ahead for each thread of the pool
+     */
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    /**
+     * The time between two power samples, in nanoseconds
+     */
+    private static final int NANOSECONDS_PER_POSITION = 100;
+
+    private final SampleFile samples;
+    private final ForkJoinPool pool;
+    private final Deque<ForkJoinTask<List<PreambleScanner.Candidate>>> chunks = new ArrayDeque<>();
+    private final int maxChunksAhead;
+    private final long endPosition;
+    private long nextChunkPosition;
+
+    private Iterator<PreambleScanner.Candidate> candidates = Collections.emptyIterator();
+    private long nextAllowedPosition;
+
+    /**
+     * The constructor of the parallel demodulator using the common fork-join pool.
+     *
+     * @param samples (SampleFile) : the samples that are given to be decoded
+     * @throws NullPointerException if the sample file is null
+     */
+    public ParallelAdsbDemodulator(SampleFile samples) {
+        this(samples, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * The constructor of the parallel demodulator. It starts scanning the first chunks of the file right away.
+     * Like the AdsbDemodulator, the demodulation starts at the beginning of the range of the file as if it was the
+     * beginning of a stream, and the time stamps of the messages are relative to the beginning of the file.
+     *
+     * @param samples (SampleFile) : the samples that are given to be decoded
+     * @param pool    (ForkJoinPool) : the pool on which the chunks are scanned
+     * @throws NullPointerException if the sample file or the pool is null
+     */
+    public ParallelAdsbDemodulator(SampleFile samples, ForkJoinPool pool) {
+        this.samples = Objects.requireNonNull(samples);
+        this.pool = Objects.requireNonNull(pool);
+        maxChunksAhead = CHUNKS_PER_THREAD * pool.getParallelism();
+
+        nextAllowedPosition = samples.firstPosition();
+        nextChunkPosition = samples.firstPosition() + 1;
+        endPosition = Math.max(nextChunkPosition,
+                samples.firstPosition() + samples.sampleCount() / 2 - PreambleScanner.WINDOW_SIZE + 1);
+        submitChunks();
+    }
+
+    /**
+     * This function returns the next message of the file, the same as the one AdsbDemodulator.nextMessage() would
+     * return. It waits for the scan of the chunks if needed.
+     *
+     * @return (RawMessage) : the next message, or null if the end of the file is reached.
+     * @throws IOException if there is a problem in the reading of the file.
+     */
+    public RawMessage nextMessage() throws IOException {
+        while (true) {
+            while (candidates.hasNext()) {
+                PreambleScanner.Candidate candidate = candidates.next();
+                if (candidate.isAcceptedAfter(nextAllowedPosition)) {
+                    RawMessage message = RawMessage.of(candidate.position() * NANOSECONDS_PER_POSITION, candidate.bytes());
+                    if (message != null) {
+                        nextAllowedPosition = candidate.position() + PreambleScanner.WINDOW_SIZE;
+                        return message;
+                    }
+                }
+            }
+
+            ForkJoinTask<List<PreambleScanner.Candidate>> chunk = chunks.poll();
+            if (chunk == null) return null;
+            try {
+                candidates = chunk.join().iterator();
+            } catch (UncheckedIOException e) {
+                close();
+                throw e.getCause();
+            }
+            submitChunks();
+        }
+    }
+
+    /**
+     * This function cancels the scan of the chunks that were not read yet.
+     */
+    @Override
+    public void close() {
+        for (ForkJoinTask<?> chunk : chunks) chunk.cancel(false);
+        chunks.clear();
+        nextChunkPosition = endPosition;
+    }
+
+    /**
+     * This function submits to the pool the next chunks of the file, until enough chunks are scanned ahead.
+     */
+    private void submitChunks() {
+        while (chunks.size() < maxChunksAhead && nextChunkPosition < endPosition) {
+            long from = nextChunkPosition;
+            long to = Math.min(from + CHUNK_SIZE, endPosition);
+            chunks.add(pool.submit(() -> scanChunk(from, to)));
+            nextChunkPosition = to;
+        }
+    }
+
+    /**
+     * This function returns all the possible messages of the positions [from, to[ of the file. It calculates the power
+     * samples from the one preceding from to the last one of the window starting at to - 1, the samples preceding them
+     * being used as for the first batch of a range of a file.
+     *
+     * @param from (long) : the first scanned position (included), which is after the first position of the file range
+     * @param to   (long) : the last scanned position (excluded)
+     * @return (List<Candidate>) : the candidates of the chunk, in increasing position
+     * @throws UncheckedIOException if there is a problem in the reading of the file
+     */
+    private List<PreambleScanner.Candidate> scanChunk(long from, long to) {
+        long firstPosition = from - 1;
+        int length = (int) (to - firstPosition) + PreambleScanner.WINDOW_SIZE - 1;
+        PowerComputer computer = new PowerComputer(samples.range(2 * firstPosition, 2 * (firstPosition + length)),
+                BATCH_SIZE);
+
+        int[] powers = new int[length];
+        int[] batch = new int[BATCH_SIZE];
+        try {
+            for (int index = 0; index < length; index += BATCH_SIZE) {
+                int read = computer.readBatch(batch);
+                System.arraycopy(batch, 0, powers, index, Math.min(read, length - index));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<PreambleScanner.Candidate> candidates = new ArrayList<>();
+        PreambleScanner.scan(powers, 1, (int) (to - firstPosition), firstPosition, candidates);
+        return candidates;
+    }
+}
@@ -0,0 +1,345 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The pipelined ADS-B demodulator
+ * It produces exactly the same messages, in the same order, as the AdsbDemodulator, but splits the work in stages
+ * running on different threads and connected by bounded queues :
+ * 1) the reading of the raw bytes of the stream,
+ * 2) the computation of the power samples from the raw bytes (PowerComputer),
+ * 3) the search of the preambles, sharded on several threads : the power samples are cut in segments that overlap
+ *    by the size of a window, so that a message straddling two segments is entirely contained in one of them,
+ * 4) the selection of the messages in order and the verification of their CRC (RawMessage.of), done by the thread
+ *    calling nextMessage().
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class PipelinedAdsbDemodulator implements AutoCloseable {
+
+    /**
+     * The number of power samples computed at once, which is also the number of positions scanned by each shard
+     */
+    private static final int BATCH_SIZE = 1 << 16;
+
+    /**
+     * The number of raw bytes needed to compute a batch of power samples
+     */
+    private static final int BATCH_BYTES = 2 * SamplesDecoder.BYTES_IN_SHORT * BATCH_SIZE;
+
+    /**
+     * The capacity of the queues between the stages
+     */
+    private static final int QUEUE_CAPACITY = 8;
+
+    /**
+     * The time between two power samples, in nanoseconds
+     */
+    private static final int NANOSECONDS_PER_POSITION = 100;
+
+    private static final byte[] END_OF_BYTES = new byte[0];
+    private static final Future<List<PreambleScanner.Candidate>> END_OF_SEGMENTS =
+            CompletableFuture.completedFuture(List.of());
+
+    private final InputStream stream;
+    private final BlockingQueue<byte[]> bytesQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<Future<List<PreambleScanner.Candidate>>> segmentsQueue =
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<int[]> freeSegments = new LinkedBlockingQueue<>();
+    private final ExecutorService scanners;
+    private final Thread reader;
+    private final Thread powerComputer;
+    private volatile IOException readerException;
+
+    private final AtomicLong[] processedSamples = new AtomicLong[Stage.values().length];
+    private final AtomicLong[] busyNanos = new AtomicLong[Stage.values().length];
+    private final long startNanos;
+
+    private Iterator<PreambleScanner.Candidate> candidates = Collections.emptyIterator();
+    private long nextAllowedPosition = 0;
+    // Written by close, which may be called from another thread than the consumer
+    private volatile boolean finished = false;
+
+    /**
+     * The stages of the pipeline
+     */
+    public enum Stage {
+        READING, POWER, SCAN, MESSAGE
+    }
+
+    /**
+     * The throughput of a stage of the pipeline.
+     *
+     * @param stage        (Stage) : the stage
+     * @param samples      (long) : the number of power samples handled by the stage
+     * @param busyNanos    (long) : the time spent working by all the threads of the stage, in nanoseconds
+     * @param elapsedNanos (long) : the time elapsed since the creation of the demodulator, in nanoseconds
+     */
+    public record StageThroughput(Stage stage, long samples, long busyNanos, long elapsedNanos) {
+
+        /**
+         * This function returns the number of power samples the stage handles per second of work. Comparing it to the
+         * global rate shows which stage limits the pipeline.
+         * @return (double) : the number of power samples per second of work, or 0 if the stage did not work yet.
+         */
+        public double samplesPerBusySecond() {
+            return busyNanos == 0 ? 0 : samples * 1e9 / busyNanos;
+        }
+
+        /**
+         * This function returns the part of the elapsed time during which the stage worked. It can be bigger than one
+         * for the scan stage, which runs on several threads.
+         * @return (double) : the occupation of the stage.
+         */
+        public double occupation() {
+            return elapsedNanos == 0 ? 0 : (double) busyNanos / elapsedNanos;
+        }
+    }
+
+    /**
+     * The constructor of the pipelined demodulator. It starts the reading and power threads as well as the given
+     * number of scanning threads.
+     *
+     * @param stream      (InputStream) : the stream of data that is given to be read and decoded
+     * @param scanThreads (int) : the number of threads searching the preambles in parallel
+     * @throws IllegalArgumentException if the number of scanning threads is not strictly positive
+     * @throws NullPointerException     if the stream is null
+     */
+    public PipelinedAdsbDemodulator(InputStream stream, int scanThreads) {
+        Preconditions.checkArgument(scanThreads > 0);
+        this.stream = Objects.requireNonNull(stream);
+
+        for (int i = 0; i < processedSamples.length; ++i) {
+            processedSamples[i] = new AtomicLong();
+            busyNanos[i] = new AtomicLong();
+        }
+
+        scanners = Executors.newFixedThreadPool(scanThreads, r -> {
+            Thread thread = new Thread(r, "adsb-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reader = new Thread(this::readBytes, "adsb-reading");
+        powerComputer = new Thread(this::computePowers, "adsb-power");
+        reader.setDaemon(true);
+        powerComputer.setDaemon(true);
+
+        startNanos = System.nanoTime();
+        reader.start();
+        powerComputer.start();
+    }
+
+    /**
+     * This function returns the next message of the stream, the same as the one AdsbDemodulator.nextMessage() would
+     * return. It waits for the other stages if needed.
+     *
+     * @return (RawMessage) : the next message, or null if the end of the stream is reached.
+     * @throws IOException if there is a problem in the reading of the stream, or if the thread is interrupted.
+     */
+    public RawMessage nextMessage() throws IOException {
+        while (!finished) {
+            long start = System.nanoTime();
+            while (candidates.hasNext()) {
+                PreambleScanner.Candidate candidate = candidates.next();
+                if (candidate.isAcceptedAfter(nextAllowedPosition)) {
+                    RawMessage message = RawMessage.of(candidate.position() * NANOSECONDS_PER_POSITION, candidate.bytes());
+                    if (message != null) {
+                        nextAllowedPosition = candidate.position() + PreambleScanner.WINDOW_SIZE;
+                        busyNanos[Stage.MESSAGE.ordinal()].addAndGet(System.nanoTime() - start);
+                        return message;
+                    }
+                }
+            }
+            busyNanos[Stage.MESSAGE.ordinal()].addAndGet(System.nanoTime() - start);
+            candidates = nextSegmentCandidates();
+        }
+        return null;
+    }
+
+    /**
+     * This function returns the throughput of each stage of the pipeline, in the order of the stages.
+     * @return (List<StageThroughput>) : the throughput of the stages
+     */
+    public List<StageThroughput> throughput() {
+        long elapsed = System.nanoTime() - startNanos;
+        List<StageThroughput> throughput = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            throughput.add(new StageThroughput(stage, processedSamples[stage.ordinal()].get(),
+                    busyNanos[stage.ordinal()].get(), elapsed));
+        }
+        return Collections.unmodifiableList(throughput);
+    }
+
+    /**
+     * This function stops all the threads of the pipeline. The stream given to the constructor is not closed.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        reader.interrupt();
+        powerComputer.interrupt();
+        scanners.shutdownNow();
+    }
+
+    /**
+     * This function waits for the candidates of the next segment, in the order of the segments.
+     * @return (Iterator<Candidate>) : the candidates of the next segment
+     * @throws IOException if a stage failed to read the stream, or if the thread is interrupted.
+     */
+    private Iterator<PreambleScanner.Candidate> nextSegmentCandidates() throws IOException {
+        try {
+            Future<List<PreambleScanner.Candidate>> segment = segmentsQueue.take();
+            if (segment == END_OF_SEGMENTS) {
+                finished = true;
+                return Collections.emptyIterator();
+            }
+            List<PreambleScanner.Candidate> segmentCandidates = segment.get();
+            processedSamples[Stage.MESSAGE.ordinal()].addAndGet(BATCH_SIZE);
+            return segmentCandidates.iterator();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            finished = true;
+            if (e.getCause() instanceof IOException ioException) throw ioException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The work of the reading stage : it reads the stream by chunks of the size of a batch.
+     */
+    private void readBytes() {
+        try {
+            try {
+                int read;
+                do {
+                    long start = System.nanoTime();
+                    byte[] bytes = new byte[BATCH_BYTES];
+                    read = stream.readNBytes(bytes, 0, BATCH_BYTES);
+                    processedSamples[Stage.READING.ordinal()].addAndGet(read / (2 * SamplesDecoder.BYTES_IN_SHORT));
+                    busyNanos[Stage.READING.ordinal()].addAndGet(System.nanoTime() - start);
+                    if (read > 0) bytesQueue.put(read == BATCH_BYTES ? bytes : Arrays.copyOf(bytes, read));
+                } while (read == BATCH_BYTES);
+            } catch (IOException e) {
+                readerException = e;
+            }
+            bytesQueue.put(END_OF_BYTES);
+        } catch (InterruptedException ignored) {
+            /*the pipeline is closed*/
+        }
+    }
+
+    /**
+     * The work of the power stage : it computes the power samples of the chunks read by the reading stage and cuts them
+     * in overlapping segments, each one being sent to a scanning thread.
+     * The index 0 of a segment is the last position scanned by the previous one, so that the SumP preceding the first
+     * scanned position is known. For the first segment, the position 0 is never scanned, as the sequential
+     * demodulator can not accept a message there.
+     */
+    private void computePowers() {
+        try {
+            PowerComputer computer = new PowerComputer(new SequenceInputStream(new BytesEnumeration()), BATCH_SIZE);
+            int[] batch = new int[BATCH_SIZE];
+            int[] segment = newSegment();
+            int length = 0;
+            long firstPosition = 0;
+            int read;
+
+            do {
+                long start = System.nanoTime();
+                read = computer.readBatch(batch);
+                System.arraycopy(batch, 0, segment, length, read);
+                length += read;
+
+                int to = length - PreambleScanner.WINDOW_SIZE + 1;
+                int[] nextSegment = newSegment();
+                if (length >= PreambleScanner.WINDOW_SIZE) {
+                    System.arraycopy(segment, length - PreambleScanner.WINDOW_SIZE, nextSegment, 0, PreambleScanner.WINDOW_SIZE);
+                }
+                processedSamples[Stage.POWER.ordinal()].addAndGet(read);
+                busyNanos[Stage.POWER.ordinal()].addAndGet(System.nanoTime() - start);
+
+                if (to > 1) {
+                    segmentsQueue.put(scanners.submit(scanTask(segment, to, firstPosition)));
+                    firstPosition += length - PreambleScanner.WINDOW_SIZE;
+                    length = PreambleScanner.WINDOW_SIZE;
+                    segment = nextSegment;
+                } else {
+                    freeSegments.offer(nextSegment);
+                }
+            } while (read == BATCH_SIZE);
+
+            if (readerException != null) throw readerException;
+            segmentsQueue.put(END_OF_SEGMENTS);
+        } catch (IOException | UncheckedIOException e) {
+            IOException cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+            segmentsQueue.offer(CompletableFuture.failedFuture(cause));
+        } catch (InterruptedException | RejectedExecutionException ignored) {
+            /*the pipeline is closed*/
+        }
+    }
+
+    /**
+     * This function creates the task scanning a segment. Once scanned, the segment is given back to be reused.
+     * @param segment       (int[]) : the power samples of the segment
+     * @param to            (int) : the last scanned index (excluded)
+     * @param firstPosition (long) : the position in the stream of the power sample at index 0
+     * @return (Callable<List<Candidate>>) : the task returning the candidates of the segment
+     */
+    private Callable<List<PreambleScanner.Candidate>> scanTask(int[] segment, int to, long firstPosition) {
+        return () -> {
+            long start = System.nanoTime();
+            List<PreambleScanner.Candidate> segmentCandidates = new ArrayList<>();
+            PreambleScanner.scan(segment, 1, to, firstPosition, segmentCandidates);
+            freeSegments.offer(segment);
+            processedSamples[Stage.SCAN.ordinal()].addAndGet(to - 1);
+            busyNanos[Stage.SCAN.ordinal()].addAndGet(System.nanoTime() - start);
+            return segmentCandidates;
+        };
+    }
+
+    /**
+     * This function returns an array able to contain a segment, reusing a scanned one if possible.
+     * @return (int[]) : an array of the size of a batch and a window
+     */
+    private int[] newSegment() {
+        int[] segment = freeSegments.poll();
+        return segment != null ? segment : new int[BATCH_SIZE + PreambleScanner.WINDOW_SIZE];
+    }
+
+    /**
+     * The enumeration giving to the power stage the chunks read by the reading stage, as a sequence of streams.
+     */
+    private final class BytesEnumeration implements Enumeration<InputStream> {
+        private byte[] next;
+
+        @Override
+        public boolean hasMoreElements() {
+            if (next == null) {
+                try {
+                    next = bytesQueue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException());
+                }
+            }
+            return next != END_OF_BYTES;
+        }
+
+        @Override
+        public InputStream nextElement() {
+            if (!hasMoreElements()) throw new NoSuchElementException();
+            InputStream element = new ByteArrayInputStream(next);
+            next = null;
+            return element;
+        }
+    }
+}
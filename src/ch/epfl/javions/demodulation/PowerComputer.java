@@ -4,6 +4,9 @@ import ch.epfl.javions.Preconditions;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
 
 /**
  * The PowerComputer
@@ -12,47 +15,95 @@ import java.io.InputStream;
  * @author Alexandre Raybaut (355794)
  */
 public final class PowerComputer {
-    private final SamplesDecoder decoder;
+    private final InputStream stream;
+    private final SampleFile samples;
+    private final SampleKernel kernel;
     private final int batchSize;
-    private final short[] batchDecoded;
-    private int front = 0;
-    private int rear = 0;
-    private final int[] array;
+    private final byte[] batchBytes;
+    private final ByteBuffer streamBuffer;
+    private final short[] history;
+    private ByteBuffer batchBuffer;
+    private long nextSample;
 
     /**
      * The constructor of powerComputer
      *
-     * @param stream (InputStream) the give input stream of bytes from the AirSpy radio to be converted into
-     *               their signed version using the SamplesDecoder attribute
+     * @param stream (InputStream) the give input stream of bytes from the AirSpy radio, two bytes per sample
      * @param batchSize the given size of the batches
      * @throws IllegalArgumentException if the size of the batches is not a multiple of 8 or
      * if the size is not  strictly positive
+     * @throws NullPointerException if the stream is null
      */
     public PowerComputer(InputStream stream, int batchSize){
-        Preconditions.checkArgument(batchSize > 0 && batchSize % 8 == 0);
+        this(stream, batchSize, SampleKernel.selected());
+    }
 
-        decoder = new SamplesDecoder(stream, 2*batchSize);
-        batchDecoded = new short[2*batchSize];
+    /**
+     * The constructor of powerComputer using the given kernel to calculate the power samples.
+     *
+     * @param stream (InputStream) the give input stream of bytes from the AirSpy radio, two bytes per sample
+     * @param batchSize the given size of the batches
+     * @param kernel (SampleKernel) the implementation of the loop on the samples
+     * @throws IllegalArgumentException if the size of the batches is not a multiple of 8 or
+     * if the size is not  strictly positive
+     * @throws NullPointerException if the stream is null
+     */
+    PowerComputer(InputStream stream, int batchSize, SampleKernel kernel){
+        this(Objects.requireNonNull(stream), null, batchSize, kernel);
+    }
 
-        this.batchSize = batchSize;
-        array = new int[8];
+    /**
+     * The constructor of powerComputer reading the samples of a mapped file. The power samples are calculated directly
+     * from the mapped bytes, and the first ones are calculated with the samples preceding the range of the file.
+     *
+     * @param samples (SampleFile) the samples from the AirSpy radio
+     * @param batchSize the given size of the batches
+     * @throws IllegalArgumentException if the size of the batches is not a multiple of 8 or
+     * if the size is not  strictly positive
+     * @throws NullPointerException if the sample file is null
+     */
+    public PowerComputer(SampleFile samples, int batchSize){
+        this(null, Objects.requireNonNull(samples), batchSize, SampleKernel.selected());
+    }
 
-        for(int i = 0; i < 6; ++i){
-            addLast(0);
+    /**
+     * The constructor of powerComputer, which reads either the stream or the sample file.
+     *
+     * @param stream (InputStream) the stream of bytes, or null if the sample file is read
+     * @param samples (SampleFile) the sample file, or null if the stream is read
+     * @param batchSize the given size of the batches
+     * @param kernel (SampleKernel) the implementation of the loop on the samples
+     */
+    private PowerComputer(InputStream stream, SampleFile samples, int batchSize, SampleKernel kernel){
+        Preconditions.checkArgument(batchSize > 0 && batchSize % 8 == 0);
+
+        this.stream = stream;
+        this.samples = samples;
+        this.kernel = kernel;
+        this.batchSize = batchSize;
+        batchBytes = new byte[2 * SamplesDecoder.BYTES_IN_SHORT * batchSize];
+        streamBuffer = ByteBuffer.wrap(batchBytes).order(ByteOrder.LITTLE_ENDIAN);
+        history = new short[SampleKernel.HISTORY_SIZE];
+
+        if (samples != null) {
+            nextSample = samples.fromSample();
+            for (int i = 1; i <= Math.min(nextSample, SampleKernel.HISTORY_SIZE); ++i) {
+                history[SampleKernel.HISTORY_SIZE - i] = samples.sample(nextSample - i);
+            }
         }
     }
 
 
     /**
-     * This method reads from the sample decoder the number of samples needed to calculate a batch of power
+     * This method reads from the stream the bytes of the samples needed to calculate a batch of power
      * samples, then calculates them using the aforementioned formula and places
      * them in the array passed as an argument;
      *
      * The formula used P[n] = [x[2n - 6] - x[2n - 4] + x[2n - 2] - x[2n]]^2
      *                         + [x[2n - 5] - x[2n - 3] + x[2n - 1] - x[2n + 1]]^2
-     * The power batches are calculated with the method calculatePower() of BoundedQueue given inside the inner class.
-     * This is possible due to the fact that the byte values are successively passed to the queue in groups of two.
-     * Note that the queue itself is initialized inside the constructor thus there is no difference in reading a batch of 160
+     * The power samples are calculated by the kernel in a single pass over the raw bytes, without storing the decoded
+     * samples (see SamplesDecoder for their format). The six last samples of a batch are kept as the history of the
+     * next one (they are initially zeros), thus there is no difference in reading a batch of 160
      * values in one go or reading them successively using batches of eight.
 
      * @param batch the array where the power samples shall be saved
@@ -62,48 +113,47 @@ public final class PowerComputer {
     public int readBatch(int[] batch) throws IOException {
         Preconditions.checkArgument(batch.length == batchSize);
 
-        int nbPower = 0;
-        int nbDecoded = decoder.readBatch(batchDecoded);
-
-        for(int i = 0; i < nbDecoded; i += 2){
-            addLast(batchDecoded[i]);
-            addLast(batchDecoded[i+1]);
-            batch[i/2] = calculatePower();
-            ++nbPower;
-
-            removeFirst();
-            removeFirst();
-        }
+        int nbPower = readBytes();
+        kernel.computePowers(history, batchBuffer, nbPower, batch);
 
         return nbPower;
     }
 
     /**
-     * This function adds a new element at the end of our array to calculate a new Power.
-     * @param newElement (int) : the new element to add to the array
+     * This method reads from the stream the bytes of the samples needed to calculate a batch of power samples, but
+     * does not calculate them. Only the last samples, which are needed to calculate the first power samples of the
+     * next batch, are kept. This allows to fast-forward through a stream.
+     *
+     * @return (int) the number of power samples that were skipped
+     * @throws IOException if an input/output error occurs while reading the stream
      */
-    private void addLast(int newElement) {
-        rear = (rear + 1) & 0x7;
-        array[rear] = newElement;
-    }
+    public int skipBatch() throws IOException {
+        int nbPower = readBytes();
+        ScalarSampleKernel.updateHistory(history, batchBuffer, 2 * nbPower);
 
-    /**
-     * This function removes the first element of our array and returns its value.
-     * //J'ai enlevé le retour parce qu'il ne sert à rien.
-     */
-    private void removeFirst() {
-        front = (front + 1) & 0x7;
+        return nbPower;
     }
 
     /**
-     * This function calculates a Power according to the elements present in the array
-     * @return (int) : the calculated Power
+     * This function makes the bytes of the next batch available in the batch buffer. They are read from the stream, or
+     * taken directly from the mapping of the sample file.
+     * @return (int) the number of power samples that can be calculated with these bytes
+     * @throws IOException if an input/output error occurs while reading the stream
      */
-    private int calculatePower() {
-        int b = array[(front) & 0x7] - array[(front + 2) & 0x7]+ array[(front + 4) & 0x7] - array[(front + 6) & 0x7];
+    private int readBytes() throws IOException {
+        if (samples == null) {
+            int readBytes = stream.readNBytes(batchBytes, 0, batchBytes.length);
+            int nbDecoded = readBytes / SamplesDecoder.BYTES_IN_SHORT;
+            batchBuffer = streamBuffer;
+
+            return (nbDecoded + 1) / 2;
+        }
 
-        int a = array[(front + 1) & 0x7] - array[(front + 3) & 0x7] +array[(front + 5) & 0x7] - array[(front + 7) & 0x7];
+        int nbSamples = (int) Math.min(2L * batchSize, samples.toSample() - nextSample);
+        batchBuffer = samples.bytes(nextSample * SamplesDecoder.BYTES_IN_SHORT,
+                nbSamples * SamplesDecoder.BYTES_IN_SHORT, batchBytes);
+        nextSample += nbSamples;
 
-        return a*a + b*b;
+        return nbSamples / 2;
     }
-}
\ No newline at end of file
+}
@@ -23,6 +23,7 @@ public final class PowerWindow {
     private int[] arrayTwo;
     private final int windowSize;
     private final PowerComputer powerComputer;
+    private final long firstPosition;
     private int indexStartWindow;
     private int indexEndWindow;
     private int indexLastPowerBytes;
@@ -41,9 +42,34 @@ public final class PowerWindow {
      * @throws IOException : if an input/output error occurs while reading the file
      */
     public PowerWindow(InputStream stream, int windowSize) throws IOException {
+        this(new PowerComputer(stream, BATCH_SIZE), 0, windowSize);
+    }
+
+    /**
+     * The constructor of a PowerWindow going through the power samples of a mapped sample file. The window starts at the
+     * position of the first power sample of the file range, so that its positions are the ones in the whole file.
+     *
+     * @param samples (SampleFile) : the samples that are given to be treated by the PowerComputer.
+     * @param windowSize (int) : the actual size of the window
+     * @throws IOException : if an input/output error occurs while reading the file
+     */
+    public PowerWindow(SampleFile samples, int windowSize) throws IOException {
+        this(new PowerComputer(samples, BATCH_SIZE), samples.firstPosition(), windowSize);
+    }
+
+    /**
+     * The constructor of a PowerWindow whose power samples are given by the PowerComputer.
+     *
+     * @param powerComputer (PowerComputer) : the computer of the power samples, with batches of size BATCH_SIZE
+     * @param firstPosition (long) : the position of the first power sample
+     * @param windowSize (int) : the actual size of the window
+     * @throws IOException : if an input/output error occurs while reading the file
+     */
+    private PowerWindow(PowerComputer powerComputer, long firstPosition, int windowSize) throws IOException {
         Preconditions.checkArgument(0 < windowSize && windowSize <= BATCH_SIZE);
 
-        position = 0;
+        this.firstPosition = firstPosition;
+        position = firstPosition;
         indexStartWindow = 0;
         indexEndWindow = (indexStartWindow + windowSize - 1) % BATCH_SIZE;
 
@@ -52,7 +78,7 @@ public final class PowerWindow {
         arrayOne = new int[BATCH_SIZE];
         arrayTwo = new int[BATCH_SIZE];
 
-        powerComputer = new PowerComputer(stream, BATCH_SIZE);
+        this.powerComputer = powerComputer;
         indexLastPowerBytes = powerComputer.readBatch(arrayOne)-1;
     }
 
@@ -66,7 +92,8 @@ public final class PowerWindow {
     }
 
     /**
-     * This function returns the position of the window (more precisely the index of the starting of the window) in the first array
+     * This function returns the position of the window (more precisely the index of the starting of the window) in the
+     * flow of power samples
      * @return (long) : the current position of the window relative to the batch flow
      */
     public long position(){
@@ -144,19 +171,72 @@ public final class PowerWindow {
     }
 
     /**
-     * This function repeats the operation of advance() a desired number of time.
+     * This function moves the window forward by the given offset, with the same result as calling advance() offset
+     * times. Instead of moving one power sample at a time, it computes directly the new indexes of the window and only
+     * reads the batches that the window will contain. The batches that the window jumps over entirely are skipped
+     * without calculating their power samples.
      *
-     * @param offset (int) : the number of times we want to repeat advance().
+     * @param offset (int) : the number of positions by which the window moves.
      * @throws IOException : if there is a problem in the input/output of the file that is read.
      * @throws IllegalArgumentException : if the offset is not positive (0 is included)
      */
     public void advanceBy(int offset) throws IOException{
-        {
-            Preconditions.checkArgument( offset >= 0);
+        Preconditions.checkArgument( offset >= 0);
+        jumpTo(position + offset);
+    }
+
+    /**
+     * This function moves the window forward by the given number of whole batches. The batches that the window jumps
+     * over entirely are skipped without calculating their power samples, which allows to fast-forward through a
+     * recorded stream.
+     *
+     * @param batches (int) : the number of batches by which the window moves.
+     * @throws IOException : if there is a problem in the input/output of the file that is read.
+     * @throws IllegalArgumentException : if the number of batches is not positive (0 is included)
+     */
+    public void skipBatches(int batches) throws IOException {
+        Preconditions.checkArgument(batches >= 0);
+        jumpTo(position + (long) batches * BATCH_SIZE);
+    }
 
-            for (int i = 0; i < offset; ++i) {
-                advance();
+    /**
+     * This function moves the start of the window to the given position. The batch containing the end of the window is
+     * always the last one that was read, and the start and the end of the window are at most one batch apart.
+     * 1) if the new start is in a batch that was not read yet, the batches before it are skipped and the batch is read
+     * in the first array,
+     * 2) if the new start is in the last read batch, this batch becomes the first array,
+     * 3) then, if the new end is in the batch after the one of the new start, this batch is read in the second array.
+     *
+     * The batches are counted from the first position of the window.
+     *
+     * @param newPosition (long) : the new position of the window, which is not before the current one.
+     * @throws IOException : if there is a problem in the input/output of the file that is read.
+     */
+    private void jumpTo(long newPosition) throws IOException {
+        long offset = position - firstPosition;
+        long newOffset = newPosition - firstPosition;
+        long startBatch = offset / BATCH_SIZE;
+        long lastReadBatch = (offset + windowSize - 1) / BATCH_SIZE;
+        long newStartBatch = newOffset / BATCH_SIZE;
+        long newEndBatch = (newOffset + windowSize - 1) / BATCH_SIZE;
+
+        if (newStartBatch > lastReadBatch) {
+            for (long batch = lastReadBatch + 1; batch < newStartBatch; ++batch) {
+                powerComputer.skipBatch();
             }
+            indexLastPowerBytes = powerComputer.readBatch(arrayOne) - 1;
+        } else if (newStartBatch > startBatch) {
+            int[] temp = arrayOne;
+            arrayOne = arrayTwo;
+            arrayTwo = temp;
+        }
+
+        if (newEndBatch > Math.max(newStartBatch, lastReadBatch)) {
+            indexLastPowerBytes = powerComputer.readBatch(arrayTwo) - 1;
         }
+
+        position = newPosition;
+        indexStartWindow = (int) (newOffset % BATCH_SIZE);
+        indexEndWindow = (int) ((newOffset + windowSize - 1) % BATCH_SIZE);
     }
-}
\ No newline at end of file
+}
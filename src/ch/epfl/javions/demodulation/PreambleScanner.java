@@ -0,0 +1,156 @@
+package ch.epfl.javions.demodulation;
+
+import java.util.List;
+
+/**
+ * The PreambleScanner
+ * It looks for ADS-B preambles directly inside a contiguous array of power samples, without going through a
+ * PowerWindow. Since it does not know which message was accepted before the scanned range, it does not apply the
+ * "skip the whole window after a message" rule itself : it returns every candidate and lets the caller decide, in
+ * order, which ones the sequential demodulator would have accepted.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+final class PreambleScanner {
+
+    /**
+     * The number of power samples needed to decode a message, which is also the number of samples skipped after one
+     */
+    static final int WINDOW_SIZE = 1200;
+
+    /**
+     * The only DF value that is decoded
+     */
+    private static final int VALID_DOWN_LINK_FORMAT = 17;
+
+    private PreambleScanner() {}
+
+    /**
+     * A possible message found by the scanner.
+     *
+     * @param position        (long) : the position of the first power sample of the preamble in the stream
+     * @param exceedsPrevious (boolean) : true if SumP at this position is strictly bigger than SumP at the position before
+     * @param bytes           (byte[]) : the 14 decoded bytes, whose CRC is not verified yet
+     */
+    record Candidate(long position, boolean exceedsPrevious, byte[] bytes) {
+
+        /**
+         * This function states if the sequential demodulator would have tested this candidate, knowing the position at
+         * which its window was when it last started (the beginning of the stream or the position following a message).
+         * At this position, the previous SumP is considered to be 0, so the candidate just after it only needs to be
+         * strictly positive, which it always is as it is bigger than the following SumP.
+         *
+         * @param nextAllowedPosition (long) : the position from which the sequential demodulator restarted
+         * @return (boolean) : true if the candidate would have been tested.
+         */
+        boolean isAcceptedAfter(long nextAllowedPosition) {
+            return position > nextAllowedPosition && (exceedsPrevious || position == nextAllowedPosition + 1);
+        }
+    }
+
+    /**
+     * This function adds to the given list all the candidates whose preamble starts at an index in [from, to[.
+     * The array must contain the power sample preceding from and the WINDOW_SIZE - 1 power samples following the last
+     * scanned index.
+     *
+     * @param powers        (int[]) : the power samples
+     * @param from          (int) : the first scanned index (included)
+     * @param to            (int) : the last scanned index (excluded)
+     * @param firstPosition (long) : the position in the stream of the power sample at index 0
+     * @param candidates    (List<Candidate>) : the list to which the candidates are added, in increasing position
+     * @throws IndexOutOfBoundsException if the range can not be scanned with the given array
+     */
+    static void scan(int[] powers, int from, int to, long firstPosition, List<Candidate> candidates) {
+        if (from >= to) return;
+        if (from < 1 || to + WINDOW_SIZE - 1 > powers.length) throw new IndexOutOfBoundsException();
+
+        int previousSumP = sumP(powers, from - 1);
+        int currentSumP = sumP(powers, from);
+
+        for (int i = from; i < to; ++i) {
+            int nextSumP = sumP(powers, i + 1);
+            boolean isPeak = (currentSumP > nextSumP) & (currentSumP >= 2 * sumV(powers, i));
+
+            if (isPeak && downLinkFormat(powers, i) == VALID_DOWN_LINK_FORMAT) {
+                candidates.add(new Candidate(firstPosition + i, currentSumP > previousSumP, decodeBytes(powers, i)));
+            }
+            previousSumP = currentSumP;
+            currentSumP = nextSumP;
+        }
+    }
+
+    /**
+     * This function calculates the sum P at a given index : p0 + p10 + p35 + p45.
+     * @param powers (int[]) : the power samples
+     * @param i      (int) : the index of the start of the preamble
+     * @return (int) : the sum P
+     */
+    static int sumP(int[] powers, int i) {
+        return powers[i] + powers[i + 10] + powers[i + 35] + powers[i + 45];
+    }
+
+    /**
+     * This function calculates the sum V at a given index : p5 + p15 + p20 + p25 + p30 + p40.
+     * @param powers (int[]) : the power samples
+     * @param i      (int) : the index of the start of the preamble
+     * @return (int) : the sum V
+     */
+    static int sumV(int[] powers, int i) {
+        return powers[i + 5] + powers[i + 15] + powers[i + 20] + powers[i + 25] + powers[i + 30] + powers[i + 40];
+    }
+
+    /**
+     * This function decodes the five first bits of the message, which are its DF.
+     * @param powers (int[]) : the power samples
+     * @param i      (int) : the index of the start of the preamble
+     * @return (int) : the DF of the message
+     */
+    static int downLinkFormat(int[] powers, int i) {
+        int df = 0;
+        for (int bit = 0; bit < 5; ++bit) {
+            df = (df << 1) | decodeBit(powers, i, bit);
+        }
+        return df;
+    }
+
+    /**
+     * This function decodes the 112 bits of the message whose preamble starts at the given index.
+     * @param powers (int[]) : the power samples
+     * @param i      (int) : the index of the start of the preamble
+     * @return (byte[]) : the 14 bytes of the message
+     */
+    static byte[] decodeBytes(int[] powers, int i) {
+        byte[] bytes = new byte[AdsbDemodulator.MESSAGE_LENGTH / Byte.SIZE];
+        decodeBytes(powers, i, bytes);
+        return bytes;
+    }
+
+    /**
+     * This function decodes the 112 bits of the message whose preamble starts at the given index into the given array.
+     * @param powers (int[]) : the power samples
+     * @param i      (int) : the index of the start of the preamble
+     * @param bytes  (byte[]) : the array receiving the 14 bytes of the message
+     */
+    static void decodeBytes(int[] powers, int i, byte[] bytes) {
+        for (int b = 0; b < bytes.length; ++b) {
+            int value = 0;
+            for (int bit = b * Byte.SIZE; bit < (b + 1) * Byte.SIZE; ++bit) {
+                value = (value << 1) | decodeBit(powers, i, bit);
+            }
+            bytes[b] = (byte) value;
+        }
+    }
+
+    /**
+     * This function decodes a single bit of the message : it is 1 if p(80 + 10 * bit) >= p(85 + 10 * bit), 0 otherwise.
+     * @param powers (int[]) : the power samples
+     * @param i      (int) : the index of the start of the preamble
+     * @param bit    (int) : the index of the bit in the message
+     * @return (int) : the decoded bit
+     */
+    private static int decodeBit(int[] powers, int i, int bit) {
+        int index = i + AdsbDemodulator.SAMPLES_NUMBER + 10 * bit;
+        return powers[index] < powers[index + 5] ? 0 : 1;
+    }
+}
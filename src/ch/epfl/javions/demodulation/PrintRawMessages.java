@@ -1,48 +1,51 @@
 package ch.epfl.javions.demodulation;
 
-import ch.epfl.javions.adsb.*;
-import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.javions.adsb.RawMessage;
 
-import java.io.FileInputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The PrintRawMessages
+ * It demodulates a recorded sample file with the ParallelAdsbDemodulator and prints its messages, in the order of their
+ * time stamps, on the standard output. The number of messages and their rate are then printed on the error output.
+ * Usage : PrintRawMessages [file [threads]], the file being by default resources/samples_20230304_1442.bin and the
+ * number of threads the number of processors.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class PrintRawMessages {
+
+    private PrintRawMessages() {}
 
-public class PrintRawMessages {
-
-    /**
     public static void main(String[] args) throws IOException {
-        String f = "resources/samples_20230304_1442.bin";
-        try (InputStream s = new FileInputStream(f)) {
-            AdsbDemodulator d = new AdsbDemodulator(s);
+        String f = args.length > 0 ? args[0] : "resources/samples_20230304_1442.bin";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+             ParallelAdsbDemodulator d = new ParallelAdsbDemodulator(SampleFile.open(Path.of(f)), pool)) {
             RawMessage m;
-            long start = System.currentTimeMillis();
+            long count = 0;
+            long start = System.nanoTime();
 
             while ((m = d.nextMessage()) != null) {
-                System.out.println(m);
+                out.println(m);
+                ++count;
             }
+            out.flush();
 
-            long end = System.currentTimeMillis();
-            System.out.println((double)(end - start)/1000);
-
-        }
-    }
-     **/
-
-    public static void main(String[] args) throws IOException {
-        String f = "resources/samples_20230304_1442.bin";
-        IcaoAddress expectedAddress = new IcaoAddress("4D2228");
-        try (InputStream s = new FileInputStream(f)) {
-            AdsbDemodulator d = new AdsbDemodulator(s);
-            RawMessage m;
-            AircraftStateAccumulator<AircraftState> a =
-                    new AircraftStateAccumulator<>(new AircraftState());
-            while ((m = d.nextMessage()) != null) {
-                if (!m.icaoAddress().equals(expectedAddress)) continue;
-                else {
-                    Message pm = MessageParser.parse(m);
-                    if (pm != null) a.update(pm);
-                }
-            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf(Locale.ROOT, "%d messages in %.3f s (%.0f messages/s, %d threads)%n",
+                    count, seconds, count / seconds, threads);
+        } finally {
+            pool.shutdown();
         }
     }
 }
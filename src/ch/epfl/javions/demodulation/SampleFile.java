@@ -0,0 +1,179 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SampleFile
+ * It gives access to the samples of a file recorded from the AirSpy radio (two bytes per sample, in the format read by
+ * the SamplesDecoder) by mapping the file in memory. The samples are then read directly from the page cache, without
+ * being copied in the heap and without a system call per batch.
+ * A sample file can also represent a range of the samples of the file only, which allows to demodulate a given period
+ * of a recording. The positions of its power samples, and thus the time stamps of its messages, are the ones they
+ * have in the whole file.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class SampleFile {
+
+    /**
+     * The size of the parts in which the file is mapped, a mapped buffer being limited to 2 GB
+     */
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    /**
+     * The time between two samples, in nanoseconds
+     */
+    private static final int NANOSECONDS_PER_SAMPLE = 50;
+
+    private final ByteBuffer[] chunks;
+    private final long fileSampleCount;
+    private final long fromSample;
+    private final long toSample;
+
+    private SampleFile(ByteBuffer[] chunks, long fileSampleCount, long fromSample, long toSample) {
+        this.chunks = chunks;
+        this.fileSampleCount = fileSampleCount;
+        this.fromSample = fromSample;
+        this.toSample = toSample;
+    }
+
+    /**
+     * This function maps the whole given file in memory. The file can be closed right away, the mapping staying valid
+     * until the sample file is no longer used.
+     *
+     * @param path (Path) : the path of the file
+     * @return (SampleFile) : the sample file containing all the samples of the file
+     * @throws IOException if an input/output error occurs while opening or mapping the file
+     */
+    public static SampleFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; ++i) {
+                long offset = (long) i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, size - offset));
+            }
+
+            long sampleCount = evenFloor(size / SamplesDecoder.BYTES_IN_SHORT);
+            return new SampleFile(chunks, sampleCount, 0, sampleCount);
+        }
+    }
+
+    /**
+     * This function returns the range of the file containing the samples of indexes [fromSample, toSample[. Since a
+     * power sample is calculated from a pair of samples, both bounds are rounded down to an even index.
+     * The first power samples of the range are calculated with the samples preceding it, as if the whole file had been
+     * read from the beginning.
+     *
+     * @param fromSample (long) : the index in the file of the first sample (included)
+     * @param toSample   (long) : the index in the file of the last sample (excluded)
+     * @return (SampleFile) : the sample file containing the given range of samples
+     * @throws IllegalArgumentException if the bounds are not such that 0 <= fromSample <= toSample <= the number of
+     * samples of the file
+     */
+    public SampleFile range(long fromSample, long toSample) {
+        Preconditions.checkArgument(0 <= fromSample && fromSample <= toSample && toSample <= fileSampleCount);
+        return new SampleFile(chunks, fileSampleCount, evenFloor(fromSample), evenFloor(toSample));
+    }
+
+    /**
+     * This function returns the range of the file containing the samples received during the given period, the first
+     * sample of the file being received at time 0.
+     *
+     * @param fromTimeStampNs (long) : the beginning of the period, in nanoseconds (included)
+     * @param toTimeStampNs   (long) : the end of the period, in nanoseconds (excluded)
+     * @return (SampleFile) : the sample file containing the samples of the period that are in the file
+     * @throws IllegalArgumentException if the period is not such that 0 <= fromTimeStampNs <= toTimeStampNs
+     */
+    public SampleFile timeRange(long fromTimeStampNs, long toTimeStampNs) {
+        Preconditions.checkArgument(0 <= fromTimeStampNs && fromTimeStampNs <= toTimeStampNs);
+        return range(Math.min(fromTimeStampNs / NANOSECONDS_PER_SAMPLE, fileSampleCount),
+                Math.min(toTimeStampNs / NANOSECONDS_PER_SAMPLE, fileSampleCount));
+    }
+
+    /**
+     * This function returns the number of samples in the range.
+     * @return (long) : the number of samples
+     */
+    public long sampleCount() {
+        return toSample - fromSample;
+    }
+
+    /**
+     * This function returns the position in the whole file of the first power sample of the range, a power sample being
+     * calculated for every pair of samples.
+     * @return (long) : the position of the first power sample
+     */
+    public long firstPosition() {
+        return fromSample / 2;
+    }
+
+    /**
+     * This function returns the index in the file of the first sample of the range.
+     * @return (long) : the index of the first sample
+     */
+    long fromSample() {
+        return fromSample;
+    }
+
+    /**
+     * This function returns the index in the file of the sample following the range.
+     * @return (long) : the index of the last sample (excluded)
+     */
+    long toSample() {
+        return toSample;
+    }
+
+    /**
+     * This function returns the sample of the given index in the file, with the bias subtracted.
+     * @param index (long) : the index of the sample in the file
+     * @return (short) : the signed sample
+     */
+    short sample(long index) {
+        long offset = index * SamplesDecoder.BYTES_IN_SHORT;
+        ByteBuffer chunk = chunks[(int) (offset / CHUNK_SIZE)].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return ScalarSampleKernel.sample(chunk, (int) (offset % CHUNK_SIZE) / SamplesDecoder.BYTES_IN_SHORT);
+    }
+
+    /**
+     * This function returns a buffer in little-endian order whose indexes [0, count[ contain the given bytes of the
+     * file. The buffer is a view on the mapped file, except if the bytes are split between two parts of the mapping,
+     * in which case they are copied in the given array.
+     *
+     * @param offset  (long) : the offset in the file of the first byte
+     * @param count   (int) : the number of bytes
+     * @param scratch (byte[]) : the array in which the bytes are copied if needed, of at least count bytes
+     * @return (ByteBuffer) : the buffer containing the bytes
+     */
+    ByteBuffer bytes(long offset, int count, byte[] scratch) {
+        int chunk = (int) (offset / CHUNK_SIZE);
+        int indexInChunk = (int) (offset % CHUNK_SIZE);
+        if (count > 0 && indexInChunk + count <= chunks[chunk].capacity()) {
+            return chunks[chunk].slice(indexInChunk, count).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        for (int copied = 0; copied < count; indexInChunk = 0, ++chunk) {
+            int length = Math.min(count - copied, chunks[chunk].capacity() - indexInChunk);
+            chunks[chunk].get(indexInChunk, scratch, copied, length);
+            copied += length;
+        }
+        return ByteBuffer.wrap(scratch).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * This function rounds the given index down to an even one.
+     * @param value (long) : the index
+     * @return (long) : the greatest even index that is not bigger than the given one
+     */
+    private static long evenFloor(long value) {
+        return value & ~1L;
+    }
+}
@@ -0,0 +1,96 @@
+package ch.epfl.javions.demodulation;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * The SampleKernel
+ * It contains the two loops run on every sample : the conversion of the raw bytes into signed samples, used by the
+ * SamplesDecoder, and the computation of the power samples directly from the raw bytes, used by the PowerComputer.
+ * The implementation is chosen once, when the class is loaded : the one using the Vector API if it is available and
+ * useful on this hardware, the scalar one otherwise.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+interface SampleKernel {
+
+    /**
+     * The number of previous samples needed to calculate the first power samples of a batch
+     */
+    int HISTORY_SIZE = 6;
+
+    /**
+     * This function converts the given number of samples, each one being made of two bytes in little-endian order
+     * from which the bias is subtracted.
+     *
+     * @param bytes   (byte[]) : the raw bytes
+     * @param samples (short[]) : the array receiving the signed samples
+     * @param count   (int) : the number of samples to convert
+     */
+    void decode(byte[] bytes, short[] samples, int count);
+
+    /**
+     * This function calculates the power samples directly from the raw bytes, two samples giving one power sample :
+     * P[n] = (x[2n - 6] - x[2n - 4] + x[2n - 2] - x[2n])^2 + (x[2n - 5] - x[2n - 3] + x[2n - 1] - x[2n + 1])^2
+     * The samples of negative indexes are taken in the history, which contains the six samples preceding the batch
+     * (the oldest first). Once the power samples are calculated, the history is replaced by the six last samples used.
+     *
+     * @param history    (short[]) : the six samples preceding the batch, updated for the next batch
+     * @param bytes      (ByteBuffer) : the raw bytes of the batch, two per sample from index 0, in little-endian order
+     * @param powerCount (int) : the number of power samples to calculate
+     * @param powers     (int[]) : the array receiving the power samples
+     */
+    void computePowers(short[] history, ByteBuffer bytes, int powerCount, int[] powers);
+
+    /**
+     * The scalar implementation, which always works
+     */
+    SampleKernel SCALAR = new ScalarSampleKernel();
+
+    /**
+     * This function returns the implementation used by the decoders and the power computers.
+     * @return (SampleKernel) : the vector implementation if it is available, the scalar one otherwise.
+     */
+    static SampleKernel selected() {
+        return Selection.SELECTED;
+    }
+
+    /**
+     * This function returns the implementation using the Vector API, if the module jdk.incubator.vector is present,
+     * if the hardware has vectors of at least 128 bits and if it was not disabled with the system property
+     * javions.vector=false.
+     * @return (Optional<SampleKernel>) : the vector implementation, or an empty optional if it can not be used.
+     */
+    static Optional<SampleKernel> vector() {
+        return Optional.ofNullable(Selection.VECTOR);
+    }
+
+    /**
+     * The holder of the selected implementation, initialized the first time a kernel is needed.
+     */
+    final class Selection {
+        private static final SampleKernel VECTOR = loadVectorKernel();
+        private static final SampleKernel SELECTED = VECTOR != null ? VECTOR : SCALAR;
+
+        private Selection() {}
+
+        /**
+         * This function loads the vector implementation by reflection, so that the other classes do not depend on the
+         * incubator module.
+         * @return (SampleKernel) : the vector implementation, or null if it can not be used.
+         */
+        private static SampleKernel loadVectorKernel() {
+            if (!Boolean.parseBoolean(System.getProperty("javions.vector", "true"))
+                    || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return null;
+            }
+            try {
+                return (SampleKernel) Class.forName("ch.epfl.javions.demodulation.VectorSampleKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ public final class SamplesDecoder {
     public static final int BYTES_IN_SHORT = Short.BYTES;
     private final int batchSize;
     private final byte[] allBytes;
+    private final SampleKernel kernel;
 
     private final InputStream stream;
 
@@ -37,11 +38,25 @@ public final class SamplesDecoder {
      * @throws NullPointerException if the stream is null
      */
     public SamplesDecoder(InputStream stream, int batchSize) {
+        this(stream, batchSize, SampleKernel.selected());
+    }
+
+    /**
+     * Constructor of the class SamplesDecoder using the given kernel to convert the bytes.
+     *
+     * @param  stream (InputStream) : given input stream of data,  bytes from the AirSpy radio
+     * @param batchSize (batchSize) : the number of samples of a batch
+     * @param kernel (SampleKernel) : the implementation of the conversion loop
+     * @throws IllegalArgumentException the size of the batches is not strictly positive
+     * @throws NullPointerException if the stream is null
+     */
+    SamplesDecoder(InputStream stream, int batchSize, SampleKernel kernel) {
         Preconditions.checkArgument(batchSize > 0);
         Objects.requireNonNull(stream);
 
         this.batchSize = batchSize;
         this.stream = stream;
+        this.kernel = Objects.requireNonNull(kernel);
 
         allBytes = new byte[BYTES_IN_SHORT * batchSize];
     }
@@ -69,15 +84,7 @@ public final class SamplesDecoder {
             len = readBytes / BYTES_IN_SHORT;
         }
 
-        for(int i = 0; i < readBytes; i += 2) {
-            byte lsb = allBytes[i];
-            byte msb = allBytes[i + 1];
-
-            short result = (short) ((Byte.toUnsignedInt(msb) << Byte.SIZE) | Byte.toUnsignedInt(lsb));
-            result -= BIAS;
-
-            batch[i/2] = result;
-        }
+        kernel.decode(allBytes, batch, readBytes / BYTES_IN_SHORT);
 
         return len;
     }
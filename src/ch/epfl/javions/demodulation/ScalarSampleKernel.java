@@ -0,0 +1,168 @@
+package ch.epfl.javions.demodulation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The scalar SampleKernel
+ * It handles the samples one at a time.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+final class ScalarSampleKernel implements SampleKernel {
+
+    @Override
+    public void decode(byte[] bytes, short[] samples, int count) {
+        for (int i = 0; i < count; ++i) {
+            samples[i] = sample(bytes, i);
+        }
+    }
+
+    @Override
+    public void computePowers(short[] history, ByteBuffer bytes, int powerCount, int[] powers) {
+        computePowers(history, bytes, 0, powerCount, powers);
+        updateHistory(history, bytes, 2 * powerCount);
+    }
+
+    /**
+     * This function calculates the power samples of indexes [from, to[ in a single pass over the raw bytes. The eight
+     * samples needed by a power sample are kept in local variables, so that each sample is decoded only once and the
+     * six previous ones move from one power sample to the next without going through memory.
+     * Reading the samples directly in an array is faster than through a buffer, so the array of a heap buffer is used
+     * whenever possible.
+     *
+     * @param history (short[]) : the six samples preceding the batch
+     * @param bytes   (ByteBuffer) : the raw bytes of the batch, in little-endian order
+     * @param from    (int) : the first power sample to calculate
+     * @param to      (int) : the last power sample to calculate (excluded)
+     * @param powers  (int[]) : the array receiving the power samples
+     */
+    static void computePowers(short[] history, ByteBuffer bytes, int from, int to, int[] powers) {
+        if (bytes.hasArray() && bytes.arrayOffset() == 0) {
+            computePowers(history, bytes.array(), from, to, powers);
+            return;
+        }
+
+        int k = 2 * from;
+        int x0 = sample(history, bytes, k - 6);
+        int x1 = sample(history, bytes, k - 5);
+        int x2 = sample(history, bytes, k - 4);
+        int x3 = sample(history, bytes, k - 3);
+        int x4 = sample(history, bytes, k - 2);
+        int x5 = sample(history, bytes, k - 1);
+
+        for (int n = from; n < to; ++n) {
+            int x6 = sample(bytes, 2 * n);
+            int x7 = sample(bytes, 2 * n + 1);
+
+            int b = x0 - x2 + x4 - x6;
+            int a = x1 - x3 + x5 - x7;
+            powers[n] = a * a + b * b;
+
+            x0 = x2;
+            x1 = x3;
+            x2 = x4;
+            x3 = x5;
+            x4 = x6;
+            x5 = x7;
+        }
+    }
+
+    /**
+     * This function calculates the power samples of indexes [from, to[ like the previous one, but from an array.
+     *
+     * @param history (short[]) : the six samples preceding the batch
+     * @param bytes   (byte[]) : the raw bytes of the batch
+     * @param from    (int) : the first power sample to calculate
+     * @param to      (int) : the last power sample to calculate (excluded)
+     * @param powers  (int[]) : the array receiving the power samples
+     */
+    private static void computePowers(short[] history, byte[] bytes, int from, int to, int[] powers) {
+        int k = 2 * from;
+        int x0 = sample(history, bytes, k - 6);
+        int x1 = sample(history, bytes, k - 5);
+        int x2 = sample(history, bytes, k - 4);
+        int x3 = sample(history, bytes, k - 3);
+        int x4 = sample(history, bytes, k - 2);
+        int x5 = sample(history, bytes, k - 1);
+
+        for (int n = from; n < to; ++n) {
+            int x6 = sample(bytes, 2 * n);
+            int x7 = sample(bytes, 2 * n + 1);
+
+            int b = x0 - x2 + x4 - x6;
+            int a = x1 - x3 + x5 - x7;
+            powers[n] = a * a + b * b;
+
+            x0 = x2;
+            x1 = x3;
+            x2 = x4;
+            x3 = x5;
+            x4 = x6;
+            x5 = x7;
+        }
+    }
+
+    /**
+     * This function keeps the six last used samples as the history of the next batch. If less than six samples were
+     * used, the most recent samples of the history are kept before them.
+     *
+     * @param history (short[]) : the six samples preceding the batch, replaced by the ones preceding the next batch
+     * @param bytes   (ByteBuffer) : the raw bytes of the batch, in little-endian order
+     * @param used    (int) : the number of samples of the batch that were used
+     */
+    static void updateHistory(short[] history, ByteBuffer bytes, int used) {
+        int fromBatch = Math.min(used, HISTORY_SIZE);
+        int fromHistory = HISTORY_SIZE - fromBatch;
+
+        System.arraycopy(history, fromBatch, history, 0, fromHistory);
+        for (int i = 0; i < fromBatch; ++i) {
+            history[fromHistory + i] = sample(bytes, used - fromBatch + i);
+        }
+    }
+
+    /**
+     * This function decodes the sample of the given index : its first byte contains its 8 least significant bits and
+     * its second byte its 4 most significant bits. The bias is then subtracted.
+     * @param bytes (byte[]) : the raw bytes
+     * @param i     (int) : the index of the sample
+     * @return (short) : the signed sample
+     */
+    static short sample(byte[] bytes, int i) {
+        return (short) (((Byte.toUnsignedInt(bytes[2 * i + 1]) << Byte.SIZE) | Byte.toUnsignedInt(bytes[2 * i]))
+                - SamplesDecoder.BIAS);
+    }
+
+    /**
+     * This function decodes the sample of the given index from a buffer in little-endian order, where its two bytes
+     * can be read as a single short. The bias is then subtracted.
+     * @param bytes (ByteBuffer) : the raw bytes, in little-endian order
+     * @param i     (int) : the index of the sample
+     * @return (short) : the signed sample
+     */
+    static short sample(ByteBuffer bytes, int i) {
+        return (short) (bytes.getShort(SamplesDecoder.BYTES_IN_SHORT * i) - SamplesDecoder.BIAS);
+    }
+
+    /**
+     * This function returns the sample of the given index, taking it in the history if the index is negative.
+     * @param history (short[]) : the six samples preceding the batch
+     * @param bytes   (ByteBuffer) : the raw bytes of the batch, in little-endian order
+     * @param k       (int) : the index of the sample, at least -6
+     * @return (int) : the sample
+     */
+    private static int sample(short[] history, ByteBuffer bytes, int k) {
+        return k < 0 ? history[HISTORY_SIZE + k] : sample(bytes, k);
+    }
+
+    /**
+     * This function returns the sample of the given index, taking it in the history if the index is negative.
+     * @param history (short[]) : the six samples preceding the batch
+     * @param bytes   (byte[]) : the raw bytes of the batch
+     * @param k       (int) : the index of the sample, at least -6
+     * @return (int) : the sample
+     */
+    private static int sample(short[] history, byte[] bytes, int k) {
+        return k < 0 ? history[HISTORY_SIZE + k] : sample(bytes, k);
+    }
+}
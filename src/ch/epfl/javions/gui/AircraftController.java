@@ -8,6 +8,7 @@ import ch.epfl.javions.aircraft.*;
 
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
@@ -100,17 +101,29 @@ public final class AircraftController {
      * @param addedState(ObservableAircraftState) the state of the aircraft to be added
      */
     private void addGroupCorrespondingToChange(ObservableAircraftState addedState) {
-        AircraftData dataOfAircraft = addedState.getAircraftData();
+        // The data of the aircraft may arrive after the aircraft, as it is searched for in the background
+        ObservableValue<AircraftIcon> aircraftIcon = Bindings.createObjectBinding(
+                () -> iconFor(addedState), addedState.aircraftDataProperty(), addedState.categoryProperty());
+
+        Group group = setUpGroupForGivenAircraft(aircraftIcon, addedState);
+        pane.getChildren().add(group);
+    }
+
+    /**
+     * This function finds the closest icon for the given airplane, from its characteristics if they are known.
+     *
+     * @param state (ObservableAircraftState) : the state of the airplane
+     * @return (AircraftIcon) : the closest icon representing the airplane
+     */
+    private static AircraftIcon iconFor(ObservableAircraftState state) {
+        AircraftData dataOfAircraft = state.getAircraftData();
         boolean flag = Objects.nonNull(dataOfAircraft);
 
-        AircraftIcon aircraftIcon = AircraftIcon.iconFor(
+        return AircraftIcon.iconFor(
                 flag ? dataOfAircraft.typeDesignator() : EMPTY_DESIGNATOR,
                 flag ? dataOfAircraft.description() : EMPTY_DESCRIPTION,
-                addedState.getCategory(),
+                state.getCategory(),
                 flag ? dataOfAircraft.wakeTurbulenceCategory() : WakeTurbulenceCategory.UNKNOWN);
-
-        Group group = setUpGroupForGivenAircraft(aircraftIcon, addedState);
-        pane.getChildren().add(group);
     }
 
     /**
@@ -130,12 +143,12 @@ public final class AircraftController {
      *
      * Addition (bonus) : if we click on a certain plane, we automatically recenter the view on this plane.
      *
-     * @param aircraftIcon (AircraftIcon) : the closest icon representing the airplane
+     * @param aircraftIcon (ObservableValue<AircraftIcon>) : the closest icon representing the airplane
      * @param addedState   (ObservableAircraftState) : the observable state that was just added to set of aircraft.
      * @return (Group) : the group containing all the information (trajectory, icon, label, SVG path) in the ICAO
      * group of the plane.
      */
-    private Group setUpGroupForGivenAircraft(AircraftIcon aircraftIcon, ObservableAircraftState addedState) {
+    private Group setUpGroupForGivenAircraft(ObservableValue<AircraftIcon> aircraftIcon, ObservableAircraftState addedState) {
         Group mainAircraftGroup = new Group();
         mainAircraftGroup.setId(addedState.getIcaoAddress().string());
         mainAircraftGroup.viewOrderProperty().bind(addedState.altitudeProperty().negate());
@@ -285,17 +298,18 @@ public final class AircraftController {
      * This function links the SVG path with all the characteristics it needs to provide the closest icon corresponding
      * to a given plane, namely the altitude and the speed. Also, the color of the icon changes with the altitude.
      *
-     * @param aircraftIcon (AircraftIcon) : the icon representing the airplane
+     * @param aircraftIcon (ObservableValue<AircraftIcon>) : the icon representing the airplane
      * @param addedState   (ObservableAircraftState) : the updated state of the given airplane
      * @param path         (SVGPath) : the path that leads to the icon of the plane
      */
-    private void bindSvgPathComponents(AircraftIcon aircraftIcon, ObservableAircraftState addedState, SVGPath path) {
-        path.contentProperty().bind(Bindings.createStringBinding(
-                aircraftIcon::svgPath
-        ));
+    private void bindSvgPathComponents(ObservableValue<AircraftIcon> aircraftIcon, ObservableAircraftState addedState,
+                                       SVGPath path) {
+        path.contentProperty().bind(aircraftIcon.map(AircraftIcon::svgPath));
         path.rotateProperty().bind(Bindings.createDoubleBinding(
-                () -> aircraftIcon.canRotate() ? Units.convertTo(addedState.getTrackOrHeading(), Units.Angle.DEGREE) : 0,
-                addedState.trackOrHeadingProperty()
+                () -> aircraftIcon.getValue().canRotate()
+                        ? Units.convertTo(addedState.getTrackOrHeading(), Units.Angle.DEGREE)
+                        : 0,
+                addedState.trackOrHeadingProperty(), aircraftIcon
         ));
         path.fillProperty().bind(Bindings.createObjectBinding(() -> getColorFromRamp(addedState.getAltitude())
                 , addedState.altitudeProperty()));
@@ -315,7 +329,8 @@ public final class AircraftController {
                         getTheLabelIdentifier(addedState) +
                                 '\n' +
                                 getTheLabelInformation(addedState)
-                , addedState.altitudeProperty(), addedState.velocityProprety()));
+                , addedState.altitudeProperty(), addedState.velocityProprety(),
+                addedState.aircraftDataProperty()));
 
         Rectangle rectangle = new Rectangle();
         rectangle.widthProperty().bind(text.layoutBoundsProperty().map(bounds -> bounds.getWidth() + 4));
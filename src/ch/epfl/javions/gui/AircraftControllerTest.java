@@ -59,6 +59,7 @@ public class AircraftControllerTest extends Application {
         var db = new AircraftDatabase(f);
 
         AircraftStateManager asm = new AircraftStateManager(db);
+        asm.setBatching(true);
         ObjectProperty<ObservableAircraftState> sap =
                 new SimpleObjectProperty<>();
         AircraftController ac =
@@ -74,18 +75,14 @@ public class AircraftControllerTest extends Application {
         new AnimationTimer() {
             @Override
             public void handle(long now) {
-                try {
-                    for (int i = 0; i < 10; i += 1) {
-                        if(mi.hasNext()) {
-                            Message m = MessageParser.parse(mi.next());
-                            if (m != null) asm.updateWithMessage(m);
-                        }
+                for (int i = 0; i < 10; i += 1) {
+                    if(mi.hasNext()) {
+                        Message m = MessageParser.parse(mi.next());
+                        if (m != null) asm.updateWithMessage(m);
                     }
-                    asm.purge();
-
-                } catch (IOException e) {
-                    System.out.println("Amogus WTF");
                 }
+                asm.flush();
+                asm.purge();
             }
         }.start();
     }
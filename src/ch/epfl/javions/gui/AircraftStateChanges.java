@@ -0,0 +1,164 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.adsb.AircraftStateSetter;
+import ch.epfl.javions.adsb.CallSign;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static ch.epfl.javions.gui.ObservableAircraftState.AirbornePos;
+
+/**
+ * The AircraftStateChanges
+ * A state setter that does not notify anyone : it keeps the last value of each property of an aircraft that changed,
+ * and the new points of its trajectory, computed with the same rule as the observable state. These changes are then
+ * taken all at once as an AircraftStateDelta and applied to the observable state of the aircraft, so that a property
+ * changing several times in the meantime is only set once. It is not thread safe.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class AircraftStateChanges implements AircraftStateSetter {
+    private final IcaoAddress icaoAddress;
+    private final TrajectoryRule trajectoryRule;
+
+    private int changes;
+    private long timeStampNs;
+    private int category;
+    private CallSign callSign;
+    private GeoPos position;
+    private double altitude = Double.NaN;
+    private double velocity = Double.NaN;
+    private double trackOrHeading;
+    private AirbornePos replacedLast;
+    private final List<AirbornePos> appended = new ArrayList<>();
+
+    private final TrajectoryRule.Trajectory trajectory = new TrajectoryRule.Trajectory() {
+        @Override
+        public void add(AirbornePos point) {
+            appended.add(point);
+            changes |= AircraftStateDelta.TRAJECTORY;
+        }
+
+        @Override
+        public void replaceLast(AirbornePos point) {
+            // The last point may have been added since the last delta, in which case it is not known by the state yet
+            if (appended.isEmpty()) replacedLast = point;
+            else appended.set(appended.size() - 1, point);
+            changes |= AircraftStateDelta.TRAJECTORY;
+        }
+    };
+
+    /**
+     * The constructor of the changes of an aircraft, whose state is the initial one of an ObservableAircraftState.
+     *
+     * @param icaoAddress (IcaoAddress) : the ICAO address of the aircraft
+     * @throws NullPointerException if the address is null
+     */
+    public AircraftStateChanges(IcaoAddress icaoAddress) {
+        this(icaoAddress, new TrajectoryRule(), 0);
+    }
+
+    /**
+     * The constructor of the changes of an observable state, sharing its trajectory rule so that the trajectory can be
+     * continued by the changes.
+     *
+     * @param icaoAddress    (IcaoAddress) : the ICAO address of the aircraft
+     * @param trajectoryRule (TrajectoryRule) : the trajectory rule of the observable state
+     * @param timeStampNs    (long) : the current time stamp of the observable state
+     */
+    AircraftStateChanges(IcaoAddress icaoAddress, TrajectoryRule trajectoryRule, long timeStampNs) {
+        this.icaoAddress = Objects.requireNonNull(icaoAddress);
+        this.trajectoryRule = trajectoryRule;
+        this.timeStampNs = timeStampNs;
+    }
+
+    /**
+     * the getter of the ICAO address.
+     *
+     * @return (IcaoAddress) : returns the ICAO address of the airplane
+     */
+    public IcaoAddress icaoAddress() {
+        return icaoAddress;
+    }
+
+    /**
+     * The getter of the time stamp of the last message of the aircraft, whether it has been taken or not
+     *
+     * @return (long) : returns the time stamp of the last message
+     */
+    public long timeStampNs() {
+        return timeStampNs;
+    }
+
+    /**
+     * This function states if something changed since the changes were last taken.
+     *
+     * @return (boolean) : true if there are changes
+     */
+    public boolean hasChanges() {
+        return changes != 0;
+    }
+
+    /**
+     * This function returns the changes since they were last taken, and forgets them.
+     *
+     * @return (AircraftStateDelta) : the changes
+     */
+    public AircraftStateDelta take() {
+        AircraftStateDelta delta = new AircraftStateDelta(icaoAddress, changes, timeStampNs, category, callSign,
+                position, altitude, velocity, trackOrHeading, replacedLast, appended);
+        changes = 0;
+        replacedLast = null;
+        appended.clear();
+        return delta;
+    }
+
+    @Override
+    public void setLastMessageTimeStampNs(long timeStampNs) {
+        this.timeStampNs = timeStampNs;
+        changes |= AircraftStateDelta.TIME_STAMP;
+    }
+
+    @Override
+    public void setCategory(int category) {
+        this.category = category;
+        changes |= AircraftStateDelta.CATEGORY;
+    }
+
+    @Override
+    public void setCallSign(CallSign callSign) {
+        this.callSign = callSign;
+        changes |= AircraftStateDelta.CALL_SIGN;
+    }
+
+    @Override
+    public void setPosition(GeoPos position) {
+        if (Objects.isNull(position)) return;
+        this.position = position;
+        changes |= AircraftStateDelta.POSITION;
+        trajectoryRule.position(position, timeStampNs, trajectory);
+    }
+
+    @Override
+    public void setAltitude(double altitude) {
+        this.altitude = altitude;
+        changes |= AircraftStateDelta.ALTITUDE;
+        trajectoryRule.altitude(altitude, timeStampNs, trajectory);
+    }
+
+    @Override
+    public void setVelocity(double velocity) {
+        this.velocity = velocity;
+        changes |= AircraftStateDelta.VELOCITY;
+    }
+
+    @Override
+    public void setTrackOrHeading(double trackOrHeading) {
+        this.trackOrHeading = trackOrHeading;
+        changes |= AircraftStateDelta.TRACK_OR_HEADING;
+    }
+}
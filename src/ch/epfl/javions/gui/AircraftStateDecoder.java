@@ -0,0 +1,180 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.ExpiryQueue;
+import ch.epfl.javions.adsb.AircraftStateAccumulator;
+import ch.epfl.javions.adsb.Message;
+import ch.epfl.javions.adsb.MessageParser;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageRingBuffer;
+import ch.epfl.javions.aircraft.IcaoIntMap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The AircraftStateDecoder
+ * It parses the raw messages and updates the state of the aircraft on its own thread, instead of the JavaFX thread.
+ * The changes of the aircraft are buffered, then published as AircraftStateDelta once per frame, and only if the
+ * JavaFX thread has applied all the previously published ones : when the interface falls behind, the changes of the
+ * following frames are merged instead of piling up.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class AircraftStateDecoder implements AutoCloseable {
+
+    /**
+     * The minimal time between two publications of the changes, about one frame
+     */
+    public static final long FRAME_NS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    /**
+     * The time between two removals of the aircraft that are not heard anymore
+     */
+    private static final long PURGE_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The time that is required before the suppression of a plane from the set of observable aircraft.
+     */
+    private static final long MAXIMAL_TIME_BEFORE_SUPPRESSION = 60_000_000_000L;
+
+    /**
+     * The maximal number of messages taken from the buffer at once
+     */
+    private static final int MAX_BATCH = 1024;
+
+    private final RawMessageRingBuffer input;
+    private final IcaoIntMap<ExpiryQueue.Entry<AircraftStateAccumulator<AircraftStateChanges>>> accumulators =
+            new IcaoIntMap<>();
+    private final ExpiryQueue<AircraftStateAccumulator<AircraftStateChanges>> expiryQueue = new ExpiryQueue<>();
+    private final List<AircraftStateChanges> changedStates = new ArrayList<>();
+    private final Queue<AircraftStateDelta> deltas = new ConcurrentLinkedQueue<>();
+    private final AtomicLong messageCount = new AtomicLong();
+    private final Thread thread;
+    private long mostRecentMessageTimeStampNs = -1;
+
+    /**
+     * The constructor of the decoder. Its thread must then be started with start.
+     *
+     * @param input (RawMessageRingBuffer) : the buffer from which the raw messages are taken, the decoder being its
+     *              only consumer
+     * @throws NullPointerException if the buffer is null
+     */
+    public AircraftStateDecoder(RawMessageRingBuffer input) {
+        this.input = Objects.requireNonNull(input);
+        this.thread = new Thread(this::run, "aircraft-state-decoder");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * This function starts the thread of the decoder.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * This function stops the thread of the decoder.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+
+    /**
+     * This function returns the oldest published delta that has not been applied yet. It can be called from any
+     * thread, the deltas being meant to be applied by the JavaFX thread in the order in which they are returned.
+     *
+     * @return (AircraftStateDelta) : the oldest delta, or null if there is none
+     */
+    public AircraftStateDelta pollDelta() {
+        return deltas.poll();
+    }
+
+    /**
+     * getter of the number of valid messages decoded since the start
+     * @return (long) : the number of messages
+     */
+    public long messageCount() {
+        return messageCount.get();
+    }
+
+    /**
+     * This function is the loop of the thread of the decoder. It returns once the thread is interrupted, or once the
+     * input is closed and all its messages are decoded, after publishing their changes.
+     */
+    void run() {
+        long nextFrame = System.nanoTime() + FRAME_NS;
+        long nextPurge = System.nanoTime() + PURGE_INTERVAL_NS;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (input.await(Math.max(0, nextFrame - System.nanoTime()))) {
+                    input.drain(MAX_BATCH, view -> process(view.toRawMessage()));
+                } else if (input.isClosed() && input.isEmpty()) {
+                    // No message will come anymore, and a closed buffer does not wait for one
+                    publish();
+                    return;
+                }
+
+                long now = System.nanoTime();
+                if (now >= nextFrame) {
+                    // The changes are kept for the next frame if the JavaFX thread has not caught up yet
+                    if (deltas.isEmpty()) {
+                        publish();
+                        if (now >= nextPurge) {
+                            purge();
+                            nextPurge = now + PURGE_INTERVAL_NS;
+                        }
+                    }
+                    nextFrame = now + FRAME_NS;
+                }
+            }
+        } catch (InterruptedException e) {
+            // The decoder is closed
+        }
+    }
+
+    /**
+     * This function parses the given raw message and updates the state of its aircraft.
+     *
+     * @param rawMessage (RawMessage) : the raw message
+     */
+    void process(RawMessage rawMessage) {
+        Message message = MessageParser.parse(rawMessage);
+        if (message == null) return;
+
+        ExpiryQueue.Entry<AircraftStateAccumulator<AircraftStateChanges>> entry = accumulators.computeIfAbsent(
+                message.icaoAddress().value(), k -> expiryQueue.add(
+                        new AircraftStateAccumulator<>(new AircraftStateChanges(message.icaoAddress())),
+                        message.timeStampNs()));
+        expiryQueue.touch(entry, message.timeStampNs());
+        AircraftStateAccumulator<AircraftStateChanges> accumulator = entry.value();
+        if (!accumulator.stateSetter().hasChanges()) changedStates.add(accumulator.stateSetter());
+        accumulator.update(message);
+
+        mostRecentMessageTimeStampNs = message.timeStampNs();
+        messageCount.incrementAndGet();
+    }
+
+    /**
+     * This function publishes the changes of all the aircraft that changed since the last publication.
+     */
+    void publish() {
+        for (AircraftStateChanges changes : changedStates) deltas.add(changes.take());
+        changedStates.clear();
+    }
+
+    /**
+     * This function removes the aircraft from which no message was received for more than one minute, and publishes
+     * their removal. It must be called just after publish, so that no changes of the removed aircraft are lost.
+     */
+    void purge() {
+        expiryQueue.expire(mostRecentMessageTimeStampNs - MAXIMAL_TIME_BEFORE_SUPPRESSION, accumulator -> {
+            AircraftStateChanges changes = accumulator.stateSetter();
+            accumulators.remove(changes.icaoAddress().value());
+            deltas.add(AircraftStateDelta.removal(changes.icaoAddress()));
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.adsb.CallSign;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.List;
+
+import static ch.epfl.javions.gui.ObservableAircraftState.AirbornePos;
+
+/**
+ * The AircraftStateDelta
+ * The changes of the state of an aircraft since the last time they were given to the JavaFX thread : the last value
+ * of every property that changed, and the new points of its trajectory.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ *
+ * @param icaoAddress    (IcaoAddress) : the ICAO address of the aircraft
+ * @param changes        (int) : the set of the changed properties, a combination of the constants of this record
+ * @param timeStampNs    (long) : the time stamp of the last message of the aircraft
+ * @param category       (int) : the category of the aircraft
+ * @param callSign       (CallSign) : the call sign of the aircraft
+ * @param position       (GeoPos) : the position of the aircraft
+ * @param altitude       (double) : the altitude of the aircraft
+ * @param velocity       (double) : the velocity of the aircraft
+ * @param trackOrHeading (double) : the direction of the aircraft
+ * @param replacedLast   (AirbornePos) : the point replacing the last point of the trajectory, or null
+ * @param appended       (List<AirbornePos>) : the points added at the end of the trajectory
+ */
+public record AircraftStateDelta(IcaoAddress icaoAddress, int changes, long timeStampNs, int category,
+                                 CallSign callSign, GeoPos position, double altitude, double velocity,
+                                 double trackOrHeading, AirbornePos replacedLast, List<AirbornePos> appended) {
+
+    public static final int TIME_STAMP = 1;
+    public static final int CATEGORY = 1 << 1;
+    public static final int CALL_SIGN = 1 << 2;
+    public static final int POSITION = 1 << 3;
+    public static final int ALTITUDE = 1 << 4;
+    public static final int VELOCITY = 1 << 5;
+    public static final int TRACK_OR_HEADING = 1 << 6;
+    public static final int TRAJECTORY = 1 << 7;
+
+    /**
+     * The aircraft has been removed, because no message was received from it for too long
+     */
+    public static final int REMOVED = 1 << 8;
+
+    /**
+     * The compact constructor copies the list of the appended points.
+     */
+    public AircraftStateDelta {
+        appended = List.copyOf(appended);
+    }
+
+    /**
+     * This function returns the delta removing the given aircraft.
+     *
+     * @param icaoAddress (IcaoAddress) : the ICAO address of the aircraft
+     * @return (AircraftStateDelta) : the delta removing the aircraft
+     */
+    public static AircraftStateDelta removal(IcaoAddress icaoAddress) {
+        return new AircraftStateDelta(icaoAddress, REMOVED, 0, 0, null, null, Double.NaN, Double.NaN, Double.NaN,
+                null, List.of());
+    }
+
+    /**
+     * This function states if the given property changed.
+     *
+     * @param change (int) : one of the constants of this record
+     * @return (boolean) : true if the property changed
+     */
+    public boolean has(int change) {
+        return (changes & change) != 0;
+    }
+}
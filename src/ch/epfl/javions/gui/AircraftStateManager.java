@@ -1,15 +1,20 @@
 package ch.epfl.javions.gui;
 
+import ch.epfl.javions.ExpiryQueue;
 import ch.epfl.javions.adsb.AircraftStateAccumulator;
 import ch.epfl.javions.adsb.Message;
-import ch.epfl.javions.aircraft.AircraftData;
-import ch.epfl.javions.aircraft.AircraftDatabase;
+import ch.epfl.javions.aircraft.AircraftDataSource;
+import ch.epfl.javions.aircraft.AsyncAircraftDataLoader;
 import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.javions.aircraft.IcaoIntMap;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 
-import java.io.IOException;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * The AircraftStateManager
@@ -29,19 +34,37 @@ public final class AircraftStateManager {
             FXCollections.observableSet();
     private final ObservableSet<ObservableAircraftState> unmodifiableObservableStatesSet =
             FXCollections.unmodifiableObservableSet(setOfAircraftState);
-    private final Map<IcaoAddress, AircraftStateAccumulator<ObservableAircraftState>> aircraftStateAccumulatorHashMap
-            = new HashMap<>();
-    private final AircraftDatabase mictronicsDatabase;
+    // The airplanes are indexed by the 24 bits of their ICAO address, a message only needing one probe of the map, and
+    // ordered by the time stamp of their last message in the expiry queue, so that purge only looks at expired ones
+    private final IcaoIntMap<ExpiryQueue.Entry<AircraftStateAccumulator<ObservableAircraftState>>>
+            aircraftStateAccumulatorMap = new IcaoIntMap<>();
+    private final ExpiryQueue<AircraftStateAccumulator<ObservableAircraftState>> expiryQueue = new ExpiryQueue<>();
+    private final IcaoIntMap<ObservableAircraftState> statesFromDeltas = new IcaoIntMap<>();
+    private final AsyncAircraftDataLoader aircraftDataLoader;
+    // In batching mode, the states that received messages since the last flush, so that flush only looks at them
+    private final List<ObservableAircraftState> changedStates = new ArrayList<>();
+    private boolean batching;
 
 
     /**
-     * This is the constructor of AircraftStateManager.
+     * This is the constructor of AircraftStateManager. The characteristics of the airplanes are searched in the
+     * database in the background and given to their states on the JavaFX thread.
      *
-     * @param mictronicsDatabase (AircraftDatabase) : the database containing all the characteristics of the classified
-     *                           airplanes
+     * @param mictronicsDatabase (AircraftDataSource) : the database containing all the characteristics of the
+     *                           classified airplanes
      */
-    public AircraftStateManager(AircraftDatabase mictronicsDatabase) {
-        this.mictronicsDatabase = mictronicsDatabase;
+    public AircraftStateManager(AircraftDataSource mictronicsDatabase) {
+        this(new AsyncAircraftDataLoader(mictronicsDatabase, Platform::runLater));
+    }
+
+    /**
+     * This is the constructor of AircraftStateManager using the given loader to search the characteristics of the
+     * airplanes. Its results must be delivered on the thread using the manager.
+     *
+     * @param aircraftDataLoader (AsyncAircraftDataLoader) : the loader of the characteristics of the airplanes
+     */
+    public AircraftStateManager(AsyncAircraftDataLoader aircraftDataLoader) {
+        this.aircraftDataLoader = Objects.requireNonNull(aircraftDataLoader);
     }
 
     /**
@@ -55,56 +78,134 @@ public final class AircraftStateManager {
 
     /**
      * This method updates the state of the airplane whenever a message is received.
-     * At first, we search its characteristics in the database and associate it with the airplane.
-     * If the characteristics are not null, we link our airplane to its state. If the airplane has been saved
-     * in the map linking ICAO to aircraft state, we update the component of the plane according to the message
+     * When the airplane is new, its state is created without characteristics, and they are searched in the database
+     * in the background : the state receives them later, without blocking the other updates. If the airplane has been
+     * saved in the map linking ICAO to aircraft state, we update the component of the plane according to the message
      * received. If the position of the saved plane is not null, we add it to our set of plane position.
      *
      * @param message (Message) : the message just received.
-     * @throws IOException : if there is a problem during the reading of the data in the database.
      */
 
-    public void updateWithMessage(Message message) throws IOException {
+    public void updateWithMessage(Message message) {
         IcaoAddress messageIcaoAddress = message.icaoAddress();
-        AircraftData data = mictronicsDatabase.get(messageIcaoAddress);
 
-        aircraftStateAccumulatorHashMap.computeIfAbsent(messageIcaoAddress, k -> new AircraftStateAccumulator<>(
-                new ObservableAircraftState(message.icaoAddress(), data)
-        )).update(message);
-        updateGeneralStateOfAircraft(message, messageIcaoAddress);
+        ExpiryQueue.Entry<AircraftStateAccumulator<ObservableAircraftState>> entry =
+                aircraftStateAccumulatorMap.computeIfAbsent(messageIcaoAddress.value(), k -> {
+                    ObservableAircraftState state = new ObservableAircraftState(messageIcaoAddress, null);
+                    state.setBatching(batching);
+                    aircraftDataLoader.load(messageIcaoAddress, state::setAircraftData);
+                    return expiryQueue.add(new AircraftStateAccumulator<>(state), message.timeStampNs());
+                });
+        expiryQueue.touch(entry, message.timeStampNs());
+        AircraftStateAccumulator<ObservableAircraftState> accumulator = entry.value();
+        ObservableAircraftState state = accumulator.stateSetter();
+        if (batching && !state.hasPendingChanges()) changedStates.add(state);
+        accumulator.update(message);
+        updateGeneralStateOfAircraft(message, state);
     }
 
     /**
-     * This function updates the general state of the aircraft. The state of the aircraft sees its trajectory
-     * updated according to the ICAO address of the airplane. If the position stocked in the state is not null,
+     * This function updates the general state of the aircraft. If the position stocked in the state is not null,
      * the airplane is stocked in the state of the observable airplanes.
      * Each time we receive a new message, we update the most recent time stamp by associating it to the
      * time stamp of the last plane seen.
      *
-     * @param message            (Message) : the message just received.
-     * @param messageIcaoAddress (IcaoAddress) : the ICAO address of the airplane that just sent the message
+     * @param message         (Message) : the message just received.
+     * @param observableState (ObservableAircraftState) : the state of the airplane that just sent the message
      */
-    private void updateGeneralStateOfAircraft(Message message, IcaoAddress messageIcaoAddress) {
-        ObservableAircraftState observableState = aircraftStateAccumulatorHashMap.get(messageIcaoAddress).stateSetter();
+    private void updateGeneralStateOfAircraft(Message message, ObservableAircraftState observableState) {
         if (observableState.getPosition() != null) {
             setOfAircraftState.add(observableState);
         }
         mostRecentMessageTimeStampNs = message.timeStampNs();
     }
 
+    /**
+     * This method enables or disables the batching mode of the states updated with messages : in this mode, the
+     * properties of the states only change when flush is called, at most once per property. Disabling it flushes the
+     * pending changes.
+     *
+     * @param batching (boolean) : true to enable the batching mode, false to disable it
+     * @see ObservableAircraftState#setBatching(boolean)
+     */
+    public void setBatching(boolean batching) {
+        if (batching == this.batching) return;
+        if (!batching) flush();
+        this.batching = batching;
+        aircraftStateAccumulatorMap.forEach((k, entry) -> entry.value().stateSetter().setBatching(batching));
+    }
+
+    /**
+     * This method applies the changes of the states made since the last flush, in batching mode, and adds to the
+     * set of the observable airplanes the ones whose position became known. Only the states that received messages
+     * since the last flush are looked at. It is meant to be called once per frame.
+     */
+    public void flush() {
+        for (ObservableAircraftState state : changedStates) {
+            // A state forgotten by purge since its last message must not be added back to the set
+            ExpiryQueue.Entry<AircraftStateAccumulator<ObservableAircraftState>> entry =
+                    aircraftStateAccumulatorMap.get(state.getIcaoAddress().value());
+            if (entry == null || entry.value().stateSetter() != state) continue;
+
+            state.flush();
+            if (state.getPosition() != null) setOfAircraftState.add(state);
+        }
+        changedStates.clear();
+    }
+
+    /**
+     * This method applies the changes of an airplane computed by an AircraftStateDecoder. When the airplane is new, its
+     * state is created, and its characteristics are searched in the background. The airplane is added to the set of
+     * the observable airplanes once its position is known, and removed from it with its removal delta.
+     * The states of a manager must either be updated with messages or with deltas, not both.
+     *
+     * @param delta (AircraftStateDelta) : the changes of the airplane
+     */
+    public void applyDelta(AircraftStateDelta delta) {
+        IcaoAddress icaoAddress = delta.icaoAddress();
+        if (delta.has(AircraftStateDelta.REMOVED)) {
+            ObservableAircraftState removedState = statesFromDeltas.remove(icaoAddress.value());
+            if (removedState != null) setOfAircraftState.remove(removedState);
+            return;
+        }
+
+        ObservableAircraftState state = statesFromDeltas.computeIfAbsent(icaoAddress.value(), k -> {
+            ObservableAircraftState newState = new ObservableAircraftState(icaoAddress, null);
+            aircraftDataLoader.load(icaoAddress, newState::setAircraftData);
+            return newState;
+        });
+        state.apply(delta);
+        if (state.getPosition() != null) setOfAircraftState.add(state);
+    }
+
+    /**
+     * This method applies the deltas published by the given decoder, in order, until there is none left or the given
+     * time is elapsed. The remaining deltas are applied by the next call.
+     *
+     * @param decoder  (AircraftStateDecoder) : the decoder publishing the deltas
+     * @param budgetNs (long) : the time after which no more delta is applied, in nanoseconds
+     * @return (int) : the number of applied deltas
+     */
+    public int applyDeltas(AircraftStateDecoder decoder, long budgetNs) {
+        long start = System.nanoTime();
+        int applied = 0;
+        AircraftStateDelta delta;
+        while (System.nanoTime() - start < budgetNs && (delta = decoder.pollDelta()) != null) {
+            applyDelta(delta);
+            ++applied;
+        }
+        return applied;
+    }
+
     /**
      * This method deletes a plane from the observable set, if we did not receive any message from it
-     * for more than one minute.
+     * for more than one minute. Only the expired planes are looked at.
      */
     public void purge() {
-        Iterator<IcaoAddress> it = aircraftStateAccumulatorHashMap.keySet().iterator();
-        while (it.hasNext()) {
-            IcaoAddress icaoAddress = it.next();
-            ObservableAircraftState currentState = aircraftStateAccumulatorHashMap.get(icaoAddress).stateSetter();
-            if (mostRecentMessageTimeStampNs - currentState.getTimeStampNs() > MAXIMAL_TIME_BEFORE_SUPPRESSION) {
-                setOfAircraftState.remove(currentState);
-                it.remove();
-            }
-        }
+        expiryQueue.expire(mostRecentMessageTimeStampNs - MAXIMAL_TIME_BEFORE_SUPPRESSION, accumulator -> {
+            ObservableAircraftState currentState = accumulator.stateSetter();
+            aircraftStateAccumulatorMap.remove(currentState.getIcaoAddress().value());
+            setOfAircraftState.remove(currentState);
+        });
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import ch.epfl.javions.GeoPos;
 import ch.epfl.javions.Units;
 import ch.epfl.javions.adsb.*;
 import ch.epfl.javions.aircraft.AircraftDatabase;
+import ch.epfl.javions.aircraft.AsyncAircraftDataLoader;
 
 import java.io.*;
 import java.util.*;
@@ -24,7 +25,8 @@ public class AircraftStateManagerTest {
     public static void main(String[] args) throws IOException, InterruptedException {
         String mictronicsDatabase = "resources/aircraft.zip";
         AircraftDatabase database = new AircraftDatabase(mictronicsDatabase);
-        AircraftStateManager manager = new AircraftStateManager(database);
+        // The characteristics are delivered on the loader's threads, as there is no JavaFX thread here
+        AircraftStateManager manager = new AircraftStateManager(new AsyncAircraftDataLoader(database, Runnable::run));
         Set<ObservableAircraftState> states;
 
         try (DataInputStream s = new DataInputStream(
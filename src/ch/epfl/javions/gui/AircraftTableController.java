@@ -78,13 +78,13 @@ public class AircraftTableController {
         TableColumn<ObservableAircraftState, String> callSignColumn = setUpTextColumn("Indicatif",
                 v -> v.callSignProperty().map(CallSign::string), 70);
         TableColumn<ObservableAircraftState, String> aircraftRegistrationColumn = setUpTextColumn("Immatriculation",
-                v -> new ReadOnlyObjectWrapper<>(v.getAircraftData()).map(val -> val.registration().string()), 90);
+                v -> v.aircraftDataProperty().map(val -> val.registration().string()), 90);
         TableColumn<ObservableAircraftState, String> modelColumn = setUpTextColumn("Modèle", v ->
-                        new ReadOnlyObjectWrapper<>(v.getAircraftData()).map(AircraftData::model) , 230);
+                        v.aircraftDataProperty().map(AircraftData::model) , 230);
         TableColumn<ObservableAircraftState, String> typeColumn = setUpTextColumn("Type", v ->
-                new ReadOnlyObjectWrapper<>(v.getAircraftData()).map(val -> val.typeDesignator().string()), 50);
+                v.aircraftDataProperty().map(val -> val.typeDesignator().string()), 50);
         TableColumn<ObservableAircraftState, String> aircraftDescriptionColumn = setUpTextColumn("Description",
-                v -> new ReadOnlyObjectWrapper<>(v.getAircraftData()).map(val -> val.description().string()), 70);
+                v -> v.aircraftDataProperty().map(val -> val.description().string()), 70);
 
         tableView.getColumns().add(icaoAdressColumn);
         tableView.getColumns().add(callSignColumn);
@@ -53,6 +53,7 @@ public class AircraftTableControllerTest extends Application {
         var db = new AircraftDatabase(f);
 
         AircraftStateManager asm = new AircraftStateManager(db);
+        asm.setBatching(true);
         ObjectProperty<ObservableAircraftState> sap =
                 new SimpleObjectProperty<>();
         AircraftTableController aircraftTableController =
@@ -68,18 +69,14 @@ public class AircraftTableControllerTest extends Application {
         new AnimationTimer() {
             @Override
             public void handle(long now) {
-                try {
-                    for (int i = 0; i < 10; i += 1) {
-                        if(mi.hasNext()) {
-                            Message m = MessageParser.parse(mi.next());
-                            if (m != null) asm.updateWithMessage(m);
-                        }
+                for (int i = 0; i < 10; i += 1) {
+                    if(mi.hasNext()) {
+                        Message m = MessageParser.parse(mi.next());
+                        if (m != null) asm.updateWithMessage(m);
                     }
-                    asm.purge();
-
-                } catch (IOException e) {
-                    System.out.println("Amogus WTF");
                 }
+                asm.flush();
+                asm.purge();
             }
         }.start();
 
@@ -1,10 +1,13 @@
 package ch.epfl.javions.gui;
 
-import ch.epfl.javions.adsb.Message;
-import ch.epfl.javions.adsb.MessageParser;
+import ch.epfl.javions.adsb.MessageReplay;
 import ch.epfl.javions.adsb.RawMessage;
-import ch.epfl.javions.aircraft.AircraftDatabase;
+import ch.epfl.javions.adsb.RawMessageRingBuffer;
+import ch.epfl.javions.aircraft.AircraftDataSource;
+import ch.epfl.javions.aircraft.IndexedAircraftDatabase;
+import ch.epfl.javions.aircraft.MappedAircraftDatabase;
 import ch.epfl.javions.demodulation.AdsbDemodulator;
+import ch.epfl.javions.demodulation.LiveSampleInput;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.beans.binding.Bindings;
@@ -22,14 +25,20 @@ import java.io.*;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
 public final class Main extends Application {
     private final ObjectProperty<ObservableAircraftState> sap = new SimpleObjectProperty<>();
-    private final long second = TimeUnit.SECONDS.toNanos(1);
-    private long nextSecond = 0;
+    /**
+     * The maximal time spent by the JavaFX thread applying the changes of the aircraft at each pulse
+     */
+    private static final long DELTAS_BUDGET_NS = TimeUnit.MILLISECONDS.toNanos(8);
+
+    /**
+     * The number of raw messages that can wait between the demodulator and the decoder
+     */
+    private static final int MESSAGE_BUFFER_CAPACITY = 1 << 14;
 
     public static void main(String[] args) {
         launch(args);
@@ -52,17 +61,26 @@ public final class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
-        long start = System.nanoTime();
-
         Path tileCache = Path.of("tile-cache");
         TileManager tm = new TileManager(tileCache, "tile.openstreetmap.org");
         MapParameters mp = new MapParameters(8, 33530, 23070);
         BaseMapController bmc = new BaseMapController(tm, mp);
 
-        URL dbUrl = getClass().getResource("/aircraft.zip");
-        assert dbUrl != null;
-        String f = Path.of(dbUrl.toURI()).toString();
-        AircraftDatabase db = new AircraftDatabase(f);
+        // The binary database written by ConvertAircraftDatabase is mapped if it exists, the zip is loaded otherwise
+        AircraftDataSource db;
+        URL binaryDbUrl = getClass().getResource("/aircraft.bin");
+        if (binaryDbUrl != null) {
+            db = MappedAircraftDatabase.open(Path.of(binaryDbUrl.toURI()));
+        } else {
+            URL dbUrl = getClass().getResource("/aircraft.zip");
+            assert dbUrl != null;
+            String f = Path.of(dbUrl.toURI()).toString();
+            IndexedAircraftDatabase indexedDb = IndexedAircraftDatabase.load(f);
+            System.err.printf(Locale.ROOT, "Aircraft database: %d entries loaded in %d ms, about %d MB%n",
+                    indexedDb.size(), TimeUnit.NANOSECONDS.toMillis(indexedDb.loadTimeNs()),
+                    indexedDb.footprintBytes() >> 20);
+            db = indexedDb;
+        }
 
         AircraftStateManager asm = new AircraftStateManager(db);
         ObjectProperty<ObservableAircraftState> sap = new SimpleObjectProperty<>();
@@ -92,36 +110,41 @@ public final class Main extends Application {
         primaryStage.setScene(new Scene(splitPane));
         primaryStage.show();
 
-        ConcurrentLinkedQueue<RawMessage> messageConcurrentLinkedQueue = new ConcurrentLinkedQueue<>();
         List<String> parameters = getParameters().getRaw();
+        // A file can be replayed at the pace of the consumer, whereas the radio does not wait : old messages are dropped
+        RawMessageRingBuffer messageBuffer = new RawMessageRingBuffer(MESSAGE_BUFFER_CAPACITY, parameters.isEmpty()
+                ? RawMessageRingBuffer.OverflowPolicy.DROP_OLDEST
+                : RawMessageRingBuffer.OverflowPolicy.BLOCK);
 
         Thread gettingMessage = new Thread(() -> {
             if(parameters.isEmpty()){
-                try {
-                    AdsbDemodulator demodulator = new AdsbDemodulator(System.in);
+                try (LiveSampleInput input = LiveSampleInput.standardInput()) {
+                    AdsbDemodulator demodulator = new AdsbDemodulator(input, AdsbDemodulator.ScanMode.BATCH);
                     RawMessage rawMessage;
-                    if((rawMessage = demodulator.nextMessage()) != null) messageConcurrentLinkedQueue.add(rawMessage);
-                }  catch (IOException e) {
+                    long droppedSamples = 0;
+                    while ((rawMessage = demodulator.nextMessage()) != null) {
+                        messageBuffer.offer(rawMessage);
+                        LiveSampleInput.Statistics statistics = input.statistics();
+                        if (statistics.droppedSamples() > droppedSamples) {
+                            droppedSamples = statistics.droppedSamples();
+                            System.err.printf(Locale.ROOT, "Radio outruns the demodulator : %d samples dropped, "
+                                    + "%.0f samples/s, buffers %.0f%% full%n", droppedSamples,
+                                    statistics.samplesPerSecond(), 100 * statistics.fill());
+                        }
+                    }
+                }  catch (IOException | InterruptedException e) {
                     throw new RuntimeException(e);
                 }
             } else {
-                try (DataInputStream s = new DataInputStream(
-                        new BufferedInputStream(
-                                new FileInputStream(parameters.get(0))))) {
-                    byte[] bytes = new byte[RawMessage.LENGTH];
-                    while (true) {
-                        long timeStampNs = s.readLong();
-                        int bytesRead = s.readNBytes(bytes, 0, bytes.length);
-                        assert bytesRead == RawMessage.LENGTH;
-                        RawMessage rawMessage = RawMessage.of(timeStampNs, bytes);
-                        if(rawMessage != null) {
-                            long timeElapsed = System.nanoTime() - start;
-                            if(timeStampNs > timeElapsed) {
-                                Thread.sleep((timeStampNs - timeElapsed)/1_000_000);
-                            }
-                            messageConcurrentLinkedQueue.add(rawMessage);
-                        }
+                try (MessageReplay replay = MessageReplay.open(Path.of(parameters.get(0)))) {
+                    // The optional second parameter is the speed factor of the replay, or "max"
+                    if (parameters.size() > 1) {
+                        replay.setSpeed(parameters.get(1).equals("max")
+                                ? MessageReplay.AS_FAST_AS_POSSIBLE
+                                : Double.parseDouble(parameters.get(1)));
                     }
+                    RawMessage rawMessage;
+                    while ((rawMessage = replay.next()) != null) messageBuffer.offer(rawMessage);
                 }catch (IOException | InterruptedException ignored) {
 
                 }
@@ -131,27 +154,15 @@ public final class Main extends Application {
         gettingMessage.start();
 
 
+        // The messages are parsed and the states updated by the decoder, the JavaFX thread only applies their changes
+        AircraftStateDecoder decoder = new AircraftStateDecoder(messageBuffer);
+        decoder.start();
+
         new AnimationTimer() {
             @Override
             public void handle(long now) {
-                    try {
-                        if (messageConcurrentLinkedQueue.isEmpty()) return;
-                        while(!messageConcurrentLinkedQueue.isEmpty()) {
-                            Message message = MessageParser.parse(messageConcurrentLinkedQueue.remove());
-
-                            if (Objects.nonNull(message)) {
-                                asm.updateWithMessage(message);
-                                statusLineController.messageCountProperty()
-                                        .set(statusLineController.messageCountProperty().get() + 1);
-                            }
-                        }
-                        if(now >= nextSecond) {
-                            nextSecond = now + second;
-                            asm.purge();
-                        }
-                    } catch (Exception ignored) {
-                        /*nothing to do*/
-                    }
+                asm.applyDeltas(decoder, DELTAS_BUDGET_NS);
+                statusLineController.messageCountProperty().set(decoder.messageCount());
             }
         }.start();
     }
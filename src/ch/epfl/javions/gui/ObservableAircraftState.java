@@ -19,7 +19,7 @@ import java.util.Objects;
  */
 public final class ObservableAircraftState implements AircraftStateSetter {
     private final IcaoAddress icaoAddress;
-    private final AircraftData data;
+    private final ObjectProperty<AircraftData> aircraftDataProperty = new SimpleObjectProperty<>();
 
     private final ObservableList<AirbornePos> trajectoryObservable = FXCollections.observableArrayList();
     private final ObservableList<AirbornePos> trajectoryUnmodifiableList
@@ -33,22 +33,31 @@ public final class ObservableAircraftState implements AircraftStateSetter {
     private final DoubleProperty velocityProperty = new SimpleDoubleProperty();
     private final DoubleProperty trackOrHeadingProperty = new SimpleDoubleProperty();
 
-    private long previousTimeStampThatUpdatedTrajectory;
-    private GeoPos lastReceivedPosition;
-    private double lastReceivedAltitude;
+    private final TrajectoryRule trajectoryRule = new TrajectoryRule();
+    private AircraftStateChanges pendingChanges;
+    private final TrajectoryRule.Trajectory trajectory = new TrajectoryRule.Trajectory() {
+        @Override
+        public void add(AirbornePos point) {
+            trajectoryObservable.add(point);
+        }
+
+        @Override
+        public void replaceLast(AirbornePos point) {
+            trajectoryObservable.set(trajectoryObservable.size() - 1, point);
+        }
+    };
 
     /**
      * The constructor of ObservableAircraftState. It sets the velocity and the altitude to Nan.
      *
      * @param icaoAddress (IcaoAddress) : the ICAO address of the given airplane
-     * @param data        (AircraftData) : the characteristics of the given airplane
+     * @param data        (AircraftData) : the characteristics of the given airplane, null if they are not known (yet)
      */
     public ObservableAircraftState(IcaoAddress icaoAddress, AircraftData data) {
         this.icaoAddress = icaoAddress;
-        this.data = data;
+        this.aircraftDataProperty.set(data);
         setVelocity(Double.NaN);
         setAltitude(Double.NaN);
-        previousTimeStampThatUpdatedTrajectory = -1;
     }
 
     /**
@@ -60,13 +69,35 @@ public final class ObservableAircraftState implements AircraftStateSetter {
         return icaoAddress;
     }
 
+    //AircraftData
+
+    /**
+     * the getter of the aircraft data property. Its value is null as long as the characteristics of the airplane are
+     * not known, and changes when they are found in the database.
+     *
+     * @return (ReadOnlyObjectProperty<AircraftData>) : returns the aircraft data property
+     */
+    public ReadOnlyObjectProperty<AircraftData> aircraftDataProperty() {
+        return aircraftDataProperty;
+    }
+
     /**
      * The getter of the data of the airplane
      *
      * @return (AircraftData) : returns the characteristics of the airplane
      */
     public AircraftData getAircraftData() {
-        return data;
+        return aircraftDataProperty.get();
+    }
+
+    /**
+     * The setter of the data of the airplane, called once they have been found in the database. It must be called on
+     * the JavaFX thread.
+     *
+     * @param data (AircraftData) : the characteristics of the airplane
+     */
+    public void setAircraftData(AircraftData data) {
+        aircraftDataProperty.set(data);
     }
 
     //TimeStamp
@@ -91,6 +122,10 @@ public final class ObservableAircraftState implements AircraftStateSetter {
 
     @Override
     public void setLastMessageTimeStampNs(long timeStampNs) {
+        if (pendingChanges != null) {
+            pendingChanges.setLastMessageTimeStampNs(timeStampNs);
+            return;
+        }
         this.lastMessageTimeStampsNsProperty.set(timeStampNs);
     }
 
@@ -117,6 +152,10 @@ public final class ObservableAircraftState implements AircraftStateSetter {
 
     @Override
     public void setCategory(int category) {
+        if (pendingChanges != null) {
+            pendingChanges.setCategory(category);
+            return;
+        }
         this.categoryProperty.set(category);
     }
 
@@ -142,6 +181,10 @@ public final class ObservableAircraftState implements AircraftStateSetter {
 
     @Override
     public void setCallSign(CallSign callSign) {
+        if (pendingChanges != null) {
+            pendingChanges.setCallSign(callSign);
+            return;
+        }
         this.callSignObjectProperty.set(callSign);
     }
 
@@ -174,16 +217,13 @@ public final class ObservableAircraftState implements AircraftStateSetter {
      */
     @Override
     public void setPosition(GeoPos position) {
+        if (pendingChanges != null) {
+            pendingChanges.setPosition(position);
+            return;
+        }
         if (!Objects.isNull(position)) {
             positionProperty.set(position);
-            if (!Double.isNaN(lastReceivedAltitude)) {
-                trajectoryObservable.add(new AirbornePos(position, lastReceivedAltitude));
-                previousTimeStampThatUpdatedTrajectory = getTimeStampNs();
-                lastReceivedPosition = null;
-                lastReceivedAltitude = Double.NaN;
-            } else {
-                lastReceivedPosition = position;
-            }
+            trajectoryRule.position(position, getTimeStampNs(), trajectory);
         }
     }
 
@@ -229,23 +269,12 @@ public final class ObservableAircraftState implements AircraftStateSetter {
      */
     @Override
     public void setAltitude(double altitude) {
-        altitudeProperty.set(altitude);
-        if (Objects.nonNull(lastReceivedPosition)) {
-            if(trajectoryObservable.isEmpty()) {
-                trajectoryObservable.add(new AirbornePos(lastReceivedPosition, altitude));
-                previousTimeStampThatUpdatedTrajectory = getTimeStampNs();
-                lastReceivedAltitude = Double.NaN;
-                lastReceivedPosition = null;
-            }else if (previousTimeStampThatUpdatedTrajectory == getTimeStampNs()) {
-                trajectoryObservable.set(trajectoryObservable.size() - 1,
-                        new AirbornePos(lastReceivedPosition, altitude));
-                previousTimeStampThatUpdatedTrajectory = getTimeStampNs();
-                lastReceivedAltitude = Double.NaN;
-                lastReceivedPosition = null;
-            }
-        } else {
-            lastReceivedAltitude = altitude;
+        if (pendingChanges != null) {
+            pendingChanges.setAltitude(altitude);
+            return;
         }
+        altitudeProperty.set(altitude);
+        trajectoryRule.altitude(altitude, getTimeStampNs(), trajectory);
     }
 
     //Velocity
@@ -270,6 +299,10 @@ public final class ObservableAircraftState implements AircraftStateSetter {
 
     @Override
     public void setVelocity(double velocity) {
+        if (pendingChanges != null) {
+            pendingChanges.setVelocity(velocity);
+            return;
+        }
         this.velocityProperty.set(velocity);
     }
 
@@ -295,9 +328,82 @@ public final class ObservableAircraftState implements AircraftStateSetter {
 
     @Override
     public void setTrackOrHeading(double trackOrHeading) {
+        if (pendingChanges != null) {
+            pendingChanges.setTrackOrHeading(trackOrHeading);
+            return;
+        }
         trackOrHeadingProperty.set(trackOrHeading);
     }
 
+    //Batching
+
+    /**
+     * This function enables or disables the batching mode. In this mode, the setters do not change the properties
+     * immediately : they only keep the last value of each property, and the new points of the trajectory, until
+     * flush is called, for example once per frame. The listeners thus see at most one change per property between two
+     * calls to flush, however many messages the airplane sent. Meanwhile, the getters return the flushed values.
+     * Disabling the batching mode flushes the pending changes.
+     *
+     * @param batching (boolean) : true to enable the batching mode, false to disable it
+     */
+    public void setBatching(boolean batching) {
+        if (batching == isBatching()) return;
+        if (batching) {
+            pendingChanges = new AircraftStateChanges(icaoAddress, trajectoryRule, getTimeStampNs());
+        } else {
+            flush();
+            pendingChanges = null;
+        }
+    }
+
+    /**
+     * This function states if the state is in batching mode.
+     *
+     * @return (boolean) : true if the setters are batched
+     */
+    public boolean isBatching() {
+        return pendingChanges != null;
+    }
+
+    /**
+     * This function states if changes were made since the last flush, in batching mode.
+     *
+     * @return (boolean) : true if flush has changes to apply
+     */
+    public boolean hasPendingChanges() {
+        return pendingChanges != null && pendingChanges.hasChanges();
+    }
+
+    /**
+     * This function applies to the properties the changes made since the last flush, in batching mode.
+     *
+     * @return (boolean) : true if there were changes to apply
+     */
+    public boolean flush() {
+        if (pendingChanges == null || !pendingChanges.hasChanges()) return false;
+        apply(pendingChanges.take());
+        return true;
+    }
+
+    /**
+     * This function applies the changes computed by the AircraftStateDecoder for this airplane, property by property,
+     * each changed property being set once. The trajectory points they contain have already been computed by the
+     * decoder, so a state updated this way must not also be updated with its setters.
+     *
+     * @param delta (AircraftStateDelta) : the changes of the airplane
+     */
+    void apply(AircraftStateDelta delta) {
+        if (delta.has(AircraftStateDelta.TIME_STAMP)) lastMessageTimeStampsNsProperty.set(delta.timeStampNs());
+        if (delta.has(AircraftStateDelta.CATEGORY)) categoryProperty.set(delta.category());
+        if (delta.has(AircraftStateDelta.CALL_SIGN)) callSignObjectProperty.set(delta.callSign());
+        if (delta.has(AircraftStateDelta.POSITION)) positionProperty.set(delta.position());
+        if (delta.has(AircraftStateDelta.ALTITUDE)) altitudeProperty.set(delta.altitude());
+        if (delta.has(AircraftStateDelta.VELOCITY)) velocityProperty.set(delta.velocity());
+        if (delta.has(AircraftStateDelta.TRACK_OR_HEADING)) trackOrHeadingProperty.set(delta.trackOrHeading());
+        if (delta.replacedLast() != null) trajectory.replaceLast(delta.replacedLast());
+        if (!delta.appended().isEmpty()) trajectoryObservable.addAll(delta.appended());
+    }
+
     /**
      * Private record AirbornePos
      *
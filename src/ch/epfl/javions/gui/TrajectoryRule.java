@@ -0,0 +1,96 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.GeoPos;
+
+import java.util.Objects;
+
+import static ch.epfl.javions.gui.ObservableAircraftState.AirbornePos;
+
+/**
+ * The TrajectoryRule
+ * It decides how the trajectory of an aircraft changes when it receives a position or an altitude : a position and an
+ * altitude are paired once both are known, and an altitude received with the same time stamp as the last point of the
+ * trajectory replaces its altitude. It only keeps the values waiting to be paired, the trajectory itself being kept
+ * by its user, which is either the observable state or the changes buffered for it.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+final class TrajectoryRule {
+
+    /**
+     * The trajectory to which the rule adds points.
+     */
+    interface Trajectory {
+
+        /**
+         * This function adds a point at the end of the trajectory.
+         * @param point (AirbornePos) : the new point
+         */
+        void add(AirbornePos point);
+
+        /**
+         * This function replaces the last point of the trajectory.
+         * @param point (AirbornePos) : the new last point
+         */
+        void replaceLast(AirbornePos point);
+    }
+
+    private boolean trajectoryIsEmpty = true;
+    private long previousTimeStampThatUpdatedTrajectory = -1;
+    private GeoPos lastReceivedPosition;
+    private double lastReceivedAltitude = Double.NaN;
+
+    /**
+     * This function is called when a position is received. If the altitude is known, the pair (position, altitude)
+     * is added to the trajectory, otherwise the position waits for an altitude.
+     *
+     * @param position    (GeoPos) : the received position, ignored if null
+     * @param timeStampNs (long) : the time stamp of the message containing the position
+     * @param trajectory  (Trajectory) : the trajectory of the aircraft
+     */
+    void position(GeoPos position, long timeStampNs, Trajectory trajectory) {
+        if (Objects.isNull(position)) return;
+        if (!Double.isNaN(lastReceivedAltitude)) {
+            add(new AirbornePos(position, lastReceivedAltitude), timeStampNs, trajectory);
+        } else {
+            lastReceivedPosition = position;
+        }
+    }
+
+    /**
+     * This function is called when an altitude is received. If a position is waiting :
+     * -> if the trajectory is empty, then the pair (position, altitude) is added to it
+     * -> if the time stamp of the message and the time stamp of the last point of the trajectory are the same, then
+     * the pair replaces that last point.
+     * Otherwise, the altitude waits for a position.
+     *
+     * @param altitude    (double) : the received altitude
+     * @param timeStampNs (long) : the time stamp of the message containing the altitude
+     * @param trajectory  (Trajectory) : the trajectory of the aircraft
+     */
+    void altitude(double altitude, long timeStampNs, Trajectory trajectory) {
+        if (Objects.nonNull(lastReceivedPosition)) {
+            if (trajectoryIsEmpty) {
+                add(new AirbornePos(lastReceivedPosition, altitude), timeStampNs, trajectory);
+            } else if (previousTimeStampThatUpdatedTrajectory == timeStampNs) {
+                trajectory.replaceLast(new AirbornePos(lastReceivedPosition, altitude));
+                reset(timeStampNs);
+            }
+        } else {
+            lastReceivedAltitude = altitude;
+        }
+    }
+
+    private void add(AirbornePos point, long timeStampNs, Trajectory trajectory) {
+        trajectory.add(point);
+        trajectoryIsEmpty = false;
+        reset(timeStampNs);
+    }
+
+    private void reset(long timeStampNs) {
+        previousTimeStampThatUpdatedTrajectory = timeStampNs;
+        lastReceivedPosition = null;
+        lastReceivedAltitude = Double.NaN;
+    }
+}
@@ -0,0 +1,38 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.adsb.CallSign;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+/**
+ * The AircraftSnapshot
+ * The state of a tracked aircraft at a given moment, which can be read by any thread.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ *
+ * @param icaoAddress    (IcaoAddress) : the ICAO address of the aircraft
+ * @param timeStampNs    (long) : the time stamp of the last message of the aircraft
+ * @param category       (int) : the category of the aircraft, 0 if it is unknown
+ * @param callSign       (CallSign) : the call sign of the aircraft, or null if it is unknown
+ * @param position       (GeoPos) : the position of the aircraft, or null if it is unknown
+ * @param altitude       (double) : the altitude of the aircraft, or NaN if it is unknown
+ * @param velocity       (double) : the velocity of the aircraft, or NaN if it is unknown
+ * @param trackOrHeading (double) : the direction of the aircraft, or NaN if it is unknown
+ * @param messageCount   (long) : the number of messages received from the aircraft
+ */
+public record AircraftSnapshot(IcaoAddress icaoAddress, long timeStampNs, int category, CallSign callSign,
+                               GeoPos position, double altitude, double velocity, double trackOrHeading,
+                               long messageCount) {
+
+    /**
+     * This function returns the snapshot of the given state.
+     *
+     * @param state (TrackedAircraftState) : the state of the aircraft
+     * @return (AircraftSnapshot) : the snapshot of the state
+     */
+    public static AircraftSnapshot of(TrackedAircraftState state) {
+        return new AircraftSnapshot(state.icaoAddress(), state.timeStampNs(), state.category(), state.callSign(),
+                state.position(), state.altitude(), state.velocity(), state.trackOrHeading(), state.messageCount());
+    }
+}
@@ -0,0 +1,126 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.ExpiryQueue;
+import ch.epfl.javions.adsb.AircraftStateAccumulator;
+import ch.epfl.javions.adsb.Message;
+import ch.epfl.javions.adsb.MessageParser;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.javions.aircraft.IcaoIntMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The AircraftTracker
+ * It keeps the state of the aircraft heard, without JavaFX : the raw messages are parsed and accumulated into
+ * TrackedAircraftState, kept in a map indexed by the 24 bits of the ICAO addresses. Like the AircraftStateManager, it
+ * forgets the aircraft from which no message was received for one minute, the aircraft being ordered by the time stamp
+ * of their last message in an expiry queue so that purge only looks at the expired ones.
+ * It must be updated by a single thread, but its counters can be read from any thread.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class AircraftTracker {
+
+    /**
+     * The time after which an aircraft that is not heard anymore is forgotten
+     */
+    public static final long MAXIMAL_TIME_BEFORE_SUPPRESSION = TimeUnit.MINUTES.toNanos(1);
+
+    private final IcaoIntMap<ExpiryQueue.Entry<AircraftStateAccumulator<TrackedAircraftState>>> accumulators =
+            new IcaoIntMap<>();
+    private final ExpiryQueue<AircraftStateAccumulator<TrackedAircraftState>> expiryQueue = new ExpiryQueue<>();
+    private final AtomicLong rawMessageCount = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+    private volatile int aircraftCount = 0;
+    private long mostRecentMessageTimeStampNs = -1;
+
+    /**
+     * This function parses the given raw message and updates the state of its aircraft.
+     *
+     * @param rawMessage (RawMessage) : the raw message
+     * @return (boolean) : true if the message was parsed and used
+     */
+    public boolean update(RawMessage rawMessage) {
+        rawMessageCount.incrementAndGet();
+        Message message = MessageParser.parse(rawMessage);
+        if (message == null) return false;
+
+        IcaoAddress icaoAddress = message.icaoAddress();
+        ExpiryQueue.Entry<AircraftStateAccumulator<TrackedAircraftState>> entry = accumulators.computeIfAbsent(
+                icaoAddress.value(), k -> expiryQueue.add(
+                        new AircraftStateAccumulator<>(new TrackedAircraftState(icaoAddress)), message.timeStampNs()));
+        expiryQueue.touch(entry, message.timeStampNs());
+        entry.value().update(message);
+        aircraftCount = accumulators.size();
+        mostRecentMessageTimeStampNs = message.timeStampNs();
+        messageCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * This function forgets the aircraft from which no message was received for one minute before the last message.
+     * Only the expired aircraft are looked at.
+     *
+     * @return (int) : the number of forgotten aircraft
+     */
+    public int purge() {
+        int removed = expiryQueue.expire(mostRecentMessageTimeStampNs - MAXIMAL_TIME_BEFORE_SUPPRESSION,
+                accumulator -> accumulators.remove(accumulator.stateSetter().icaoAddress().value()));
+        aircraftCount = accumulators.size();
+        return removed;
+    }
+
+    /**
+     * This function returns the state of the given aircraft.
+     *
+     * @param icaoAddress (IcaoAddress) : the ICAO address of the aircraft
+     * @return (TrackedAircraftState) : the state of the aircraft, or null if it is not tracked
+     */
+    public TrackedAircraftState state(IcaoAddress icaoAddress) {
+        ExpiryQueue.Entry<AircraftStateAccumulator<TrackedAircraftState>> entry = accumulators.get(icaoAddress.value());
+        return entry == null ? null : entry.value().stateSetter();
+    }
+
+    /**
+     * This function returns the states of the tracked aircraft, sorted by ICAO address. It must be called by the
+     * thread updating the tracker.
+     *
+     * @return (List<TrackedAircraftState>) : the states of the aircraft
+     */
+    public List<TrackedAircraftState> states() {
+        List<TrackedAircraftState> states = new ArrayList<>(accumulators.size());
+        accumulators.forEach((k, entry) -> states.add(entry.value().stateSetter()));
+        states.sort(Comparator.comparingInt(s -> s.icaoAddress().value()));
+        return states;
+    }
+
+    /**
+     * getter of the number of tracked aircraft
+     * @return (int) : the number of aircraft
+     */
+    public int aircraftCount() {
+        return aircraftCount;
+    }
+
+    /**
+     * getter of the number of raw messages given to the tracker
+     * @return (long) : the number of raw messages
+     */
+    public long rawMessageCount() {
+        return rawMessageCount.get();
+    }
+
+    /**
+     * getter of the number of messages that were parsed and used
+     * @return (long) : the number of messages
+     */
+    public long messageCount() {
+        return messageCount.get();
+    }
+}
@@ -0,0 +1,108 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.Units;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.demodulation.AdsbDemodulator;
+import ch.epfl.javions.demodulation.LiveSampleInput;
+import ch.epfl.javions.demodulation.SampleFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HeadlessTracker
+ * It demodulates the samples of the radio, parses the messages and tracks the aircraft as fast as possible, without
+ * any interface, and prints every second either the rate of the messages or a snapshot of the tracked aircraft.
+ * Usage : HeadlessTracker [rate|snapshots] [samples], the samples being read from the standard input if no file is
+ * given.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class HeadlessTracker {
+
+    /**
+     * The time between two reports
+     */
+    private static final long REPORT_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1);
+
+    private HeadlessTracker() {}
+
+    public static void main(String[] args) throws IOException {
+        boolean snapshots = args.length > 0 && args[0].equals("snapshots");
+        if (args.length > 0 && !snapshots && !args[0].equals("rate")) {
+            System.err.println("Usage : HeadlessTracker [rate|snapshots] [samples]");
+            System.exit(1);
+        }
+
+        if (args.length > 1) {
+            // The file is mapped in memory, its channel being already closed
+            track(new AdsbDemodulator(SampleFile.open(Path.of(args[1])), AdsbDemodulator.ScanMode.BATCH), null,
+                    snapshots);
+        } else {
+            try (LiveSampleInput input = LiveSampleInput.standardInput()) {
+                track(new AdsbDemodulator(input, AdsbDemodulator.ScanMode.BATCH), input, snapshots);
+            }
+        }
+    }
+
+    private static void track(AdsbDemodulator demodulator, LiveSampleInput input, boolean snapshots)
+            throws IOException {
+        AircraftTracker tracker = new AircraftTracker();
+
+        long start = System.nanoTime();
+        long lastReport = start;
+        long lastMessageCount = 0;
+        RawMessage rawMessage;
+        while ((rawMessage = demodulator.nextMessage()) != null) {
+            tracker.update(rawMessage);
+
+            long now = System.nanoTime();
+            if (now - lastReport >= REPORT_INTERVAL_NS) {
+                tracker.purge();
+                report(tracker, snapshots, input, now - start, tracker.messageCount() - lastMessageCount,
+                        now - lastReport);
+                lastReport = now;
+                lastMessageCount = tracker.messageCount();
+            }
+        }
+
+        long now = System.nanoTime();
+        report(tracker, snapshots, input, now - start, tracker.messageCount() - lastMessageCount, now - lastReport);
+        System.out.printf(Locale.ROOT, "%d raw messages, %d messages used, in %.3f s%n",
+                tracker.rawMessageCount(), tracker.messageCount(), (now - start) / 1e9);
+    }
+
+    private static void report(AircraftTracker tracker, boolean snapshots, LiveSampleInput input, long elapsedNs,
+                               long messages, long intervalNs) {
+        System.out.printf(Locale.ROOT, "[%8.3f s] %8.1f messages/s, %d aircraft", elapsedNs / 1e9,
+                intervalNs == 0 ? 0 : messages * 1e9 / intervalNs, tracker.aircraftCount());
+        if (input != null) {
+            LiveSampleInput.Statistics statistics = input.statistics();
+            System.out.printf(Locale.ROOT, ", %.0f samples/s, buffers %.0f%% full, %d samples dropped",
+                    statistics.samplesPerSecond(), 100 * statistics.fill(), statistics.droppedSamples());
+        }
+        System.out.println();
+        if (!snapshots) return;
+
+        for (TrackedAircraftState state : tracker.states()) {
+            GeoPos position = state.position();
+            System.out.printf(Locale.ROOT, "  %s %-8s %10s %10s %7.0f m %6.0f km/h %5.0f° %d%n",
+                    state.icaoAddress().string(),
+                    state.callSign() == null ? "" : state.callSign().string(),
+                    position == null ? "" : degrees(position.latitude()),
+                    position == null ? "" : degrees(position.longitude()),
+                    state.altitude(),
+                    Units.convertTo(state.velocity(), Units.Speed.KILOMETER_PER_HOUR),
+                    Units.convertTo(state.trackOrHeading(), Units.Angle.DEGREE),
+                    state.messageCount());
+        }
+    }
+
+    private static String degrees(double angle) {
+        return String.format(Locale.ROOT, "%.4f", Units.convertTo(angle, Units.Angle.DEGREE));
+    }
+}
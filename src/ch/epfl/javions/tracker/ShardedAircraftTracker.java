@@ -0,0 +1,258 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageRingBuffer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ShardedAircraftTracker
+ * A tracker spreading the aircraft over several shards according to the hash of their ICAO address, each shard
+ * running on its own thread with its own AircraftTracker, so that the accumulators of an aircraft are only used by one
+ * thread and need no lock. The messages, merged from several receivers by a single router thread, are sent to their
+ * shard through a ring buffer per shard.
+ * A snapshot is consistent : it contains exactly the messages submitted before it was requested. The messages
+ * submitted to each shard until then are counted, and each shard copies its states once it processed exactly that
+ * number of messages, before processing the following ones.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class ShardedAircraftTracker implements AutoCloseable {
+
+    /**
+     * The default number of messages each shard can have waiting
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 14;
+
+    /**
+     * The maximal number of messages taken from the buffer of a shard at once
+     */
+    private static final int MAX_BATCH = 1024;
+
+    /**
+     * The longest time a shard waits for messages before checking if a snapshot is requested
+     */
+    private static final long MAX_WAIT_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The time between two removals of the aircraft that are not heard anymore
+     */
+    private static final long PURGE_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * A consistent snapshot of all the tracked aircraft.
+     *
+     * @param aircraft     (List<AircraftSnapshot>) : the states of the aircraft, sorted by ICAO address
+     * @param messageCount (long) : the number of raw messages submitted before the snapshot, all of them being taken
+     *                     into account in the states
+     */
+    public record Snapshot(List<AircraftSnapshot> aircraft, long messageCount) {
+
+        /**
+         * The compact constructor copies the list of the aircraft.
+         */
+        public Snapshot {
+            aircraft = List.copyOf(aircraft);
+        }
+    }
+
+    /**
+     * A request of snapshot, for a shard.
+     *
+     * @param messageCount (long) : the number of messages submitted to the shard before the request
+     * @param result       (CompletableFuture<List<AircraftSnapshot>>) : the states of the shard at that moment
+     */
+    private record SnapshotRequest(long messageCount, CompletableFuture<List<AircraftSnapshot>> result) {
+    }
+
+    private final Shard[] shards;
+    private final Object submitLock = new Object();
+    private final Object snapshotLock = new Object();
+    // Only used under the submit lock
+    private boolean closed = false;
+
+    /**
+     * The constructor of the tracker, which starts the threads of its shards.
+     *
+     * @param shardCount    (int) : the number of shards
+     * @param queueCapacity (int) : the number of messages each shard can have waiting
+     * @throws IllegalArgumentException if the number of shards is not strictly positive, or if the capacity is invalid
+     */
+    public ShardedAircraftTracker(int shardCount, int queueCapacity) {
+        Preconditions.checkArgument(shardCount > 0);
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; ++i) shards[i] = new Shard(i, queueCapacity);
+        for (Shard shard : shards) shard.thread.start();
+    }
+
+    /**
+     * The constructor of the tracker with one shard per available processor.
+     */
+    public ShardedAircraftTracker() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * getter of the number of shards
+     * @return (int) : the number of shards
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * This function returns the shard of the given aircraft.
+     *
+     * @param icaoAddress (int) : the 24 bits of the ICAO address of the aircraft
+     * @return (int) : the index of the shard
+     */
+    public int shardOf(int icaoAddress) {
+        int hash = icaoAddress * 0x9E3779B9;
+        return Integer.remainderUnsigned(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * This function sends the given message to the shard of its aircraft, waiting if the buffer of the shard is full.
+     * It must always be called by the same thread, the router merging the messages of the receivers.
+     *
+     * @param rawMessage (RawMessage) : the message
+     * @throws InterruptedException  if the thread is interrupted while it waits for the shard
+     * @throws IllegalStateException if the tracker is closed
+     */
+    public void submit(RawMessage rawMessage) throws InterruptedException {
+        Shard shard = shards[shardOf(rawMessage.icaoAddress().value())];
+        // A snapshot must not count a message before the shard can see it, nor the other way around
+        synchronized (submitLock) {
+            // The buffers only refuse a message once they are closed
+            if (closed || !shard.queue.offer(rawMessage)) throw new IllegalStateException("The tracker is closed");
+            ++shard.submitted;
+        }
+    }
+
+    /**
+     * This function returns a consistent snapshot of the tracked aircraft, waiting for the shards to process the
+     * messages submitted before the call. It can be called from any thread.
+     *
+     * @return (Snapshot) : the snapshot of the aircraft
+     * @throws InterruptedException  if the thread is interrupted while it waits for the shards
+     * @throws IllegalStateException if the tracker is closed, before or during the call
+     */
+    public Snapshot snapshot() throws InterruptedException {
+        synchronized (snapshotLock) {
+            List<CompletableFuture<List<AircraftSnapshot>>> results = new ArrayList<>();
+            long messageCount = 0;
+            synchronized (submitLock) {
+                if (closed) throw new IllegalStateException("The tracker is closed");
+                for (Shard shard : shards) {
+                    SnapshotRequest request = new SnapshotRequest(shard.submitted, new CompletableFuture<>());
+                    messageCount += request.messageCount();
+                    results.add(request.result());
+                    shard.request = request;
+                }
+            }
+            // A shard that stopped before seeing its request does not complete it : the shards mark themselves as
+            // stopped before they look at their request a last time, so one of the two always sees the other
+            for (int i = 0; i < shards.length; ++i) {
+                if (shards[i].stopped) results.get(i).completeExceptionally(new IllegalStateException("Shard stopped"));
+            }
+
+            List<AircraftSnapshot> aircraft = new ArrayList<>();
+            try {
+                for (CompletableFuture<List<AircraftSnapshot>> result : results) aircraft.addAll(result.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            aircraft.sort(Comparator.comparingInt(a -> a.icaoAddress().value()));
+            return new Snapshot(aircraft, messageCount);
+        }
+    }
+
+    /**
+     * This function returns the number of messages that were parsed and used by the shards.
+     * @return (long) : the number of messages
+     */
+    public long messageCount() {
+        long count = 0;
+        for (Shard shard : shards) count += shard.tracker.messageCount();
+        return count;
+    }
+
+    /**
+     * This function stops the threads of the shards. The snapshots requested meanwhile fail, and the following calls to
+     * submit or snapshot throw an IllegalStateException.
+     */
+    @Override
+    public void close() {
+        // Closing the buffers first releases the router if it waits for a full one, holding the submit lock
+        for (Shard shard : shards) shard.queue.close();
+        synchronized (submitLock) {
+            closed = true;
+        }
+        for (Shard shard : shards) shard.thread.interrupt();
+    }
+
+    /**
+     * A shard, whose tracker is only used by its thread.
+     */
+    private static final class Shard {
+        private final RawMessageRingBuffer queue;
+        private final AircraftTracker tracker = new AircraftTracker();
+        private final Thread thread;
+        // Only written by the router, under the submit lock
+        private long submitted = 0;
+        private long processed = 0;
+        private volatile SnapshotRequest request;
+        private volatile boolean stopped = false;
+
+        private Shard(int index, int queueCapacity) {
+            queue = new RawMessageRingBuffer(queueCapacity, RawMessageRingBuffer.OverflowPolicy.BLOCK);
+            thread = new Thread(this::run, "aircraft-tracker-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        private void run() {
+            long nextPurge = System.nanoTime() + PURGE_INTERVAL_NS;
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    serveRequest();
+                    if (queue.await(MAX_WAIT_NS)) {
+                        queue.drain(MAX_BATCH, view -> {
+                            // The snapshot must be taken before the first message submitted after its request
+                            serveRequest();
+                            tracker.update(view.toRawMessage());
+                            ++processed;
+                        });
+                    }
+
+                    long now = System.nanoTime();
+                    if (now >= nextPurge) {
+                        tracker.purge();
+                        nextPurge = now + PURGE_INTERVAL_NS;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // The tracker is closed
+            } finally {
+                stopped = true;
+                SnapshotRequest pending = request;
+                if (pending != null) pending.result().completeExceptionally(new InterruptedException());
+            }
+        }
+
+        private void serveRequest() {
+            SnapshotRequest pending = request;
+            if (pending == null || processed < pending.messageCount()) return;
+            request = null;
+            List<AircraftSnapshot> states = new ArrayList<>(tracker.aircraftCount());
+            for (TrackedAircraftState state : tracker.states()) states.add(AircraftSnapshot.of(state));
+            pending.result().complete(states);
+        }
+    }
+}
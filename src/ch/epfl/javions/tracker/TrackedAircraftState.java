@@ -0,0 +1,146 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.adsb.AircraftStateSetter;
+import ch.epfl.javions.adsb.CallSign;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.Objects;
+
+/**
+ * The TrackedAircraftState
+ * The state of an aircraft kept in plain fields, without any JavaFX property nor trajectory, for the headless tracker.
+ * It is not thread safe.
+ *
+ * @author Yassine El graoui (361984)
+ * @author Alexandre Raybaut (355794)
+ */
+public final class TrackedAircraftState implements AircraftStateSetter {
+    private final IcaoAddress icaoAddress;
+    private long timeStampNs;
+    private int category;
+    private CallSign callSign;
+    private GeoPos position;
+    private double altitude = Double.NaN;
+    private double velocity = Double.NaN;
+    private double trackOrHeading = Double.NaN;
+    private long messageCount;
+
+    /**
+     * The constructor of the state of an aircraft, of which nothing is known yet.
+     *
+     * @param icaoAddress (IcaoAddress) : the ICAO address of the aircraft
+     * @throws NullPointerException if the address is null
+     */
+    public TrackedAircraftState(IcaoAddress icaoAddress) {
+        this.icaoAddress = Objects.requireNonNull(icaoAddress);
+    }
+
+    /**
+     * getter of the ICAO address of the aircraft
+     * @return (IcaoAddress) : the ICAO address
+     */
+    public IcaoAddress icaoAddress() {
+        return icaoAddress;
+    }
+
+    /**
+     * getter of the time stamp of the last message of the aircraft
+     * @return (long) : the time stamp, in nanoseconds
+     */
+    public long timeStampNs() {
+        return timeStampNs;
+    }
+
+    /**
+     * getter of the category of the aircraft
+     * @return (int) : the category, 0 if it is unknown
+     */
+    public int category() {
+        return category;
+    }
+
+    /**
+     * getter of the call sign of the aircraft
+     * @return (CallSign) : the call sign, or null if it is unknown
+     */
+    public CallSign callSign() {
+        return callSign;
+    }
+
+    /**
+     * getter of the position of the aircraft
+     * @return (GeoPos) : the position, or null if it is unknown
+     */
+    public GeoPos position() {
+        return position;
+    }
+
+    /**
+     * getter of the altitude of the aircraft
+     * @return (double) : the altitude in meters, or NaN if it is unknown
+     */
+    public double altitude() {
+        return altitude;
+    }
+
+    /**
+     * getter of the velocity of the aircraft
+     * @return (double) : the velocity in meters per second, or NaN if it is unknown
+     */
+    public double velocity() {
+        return velocity;
+    }
+
+    /**
+     * getter of the direction of the aircraft
+     * @return (double) : the track or heading in radians, or NaN if it is unknown
+     */
+    public double trackOrHeading() {
+        return trackOrHeading;
+    }
+
+    /**
+     * getter of the number of messages received from the aircraft
+     * @return (long) : the number of messages
+     */
+    public long messageCount() {
+        return messageCount;
+    }
+
+    @Override
+    public void setLastMessageTimeStampNs(long timeStampNs) {
+        this.timeStampNs = timeStampNs;
+        ++messageCount;
+    }
+
+    @Override
+    public void setCategory(int category) {
+        this.category = category;
+    }
+
+    @Override
+    public void setCallSign(CallSign callSign) {
+        this.callSign = callSign;
+    }
+
+    @Override
+    public void setPosition(GeoPos position) {
+        if (Objects.nonNull(position)) this.position = position;
+    }
+
+    @Override
+    public void setAltitude(double altitude) {
+        this.altitude = altitude;
+    }
+
+    @Override
+    public void setVelocity(double velocity) {
+        this.velocity = velocity;
+    }
+
+    @Override
+    public void setTrackOrHeading(double trackOrHeading) {
+        this.trackOrHeading = trackOrHeading;
+    }
+}
@@ -0,0 +1,40 @@
+package ch.epfl.javions;
+
+import ch.epfl.test.TestRandomizer;
+
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+
+// Compares the three ways of computing a CRC24 on ADS-B messages (14 bytes). JMH is not available in this project, so
+// each version is warmed up before being timed, and the results are accumulated to keep the JIT from removing them.
+public final class Crc24Benchmark {
+    private static final int MESSAGES = 1 << 12;
+    private static final int ROUNDS = 10;
+
+    private Crc24Benchmark() {}
+
+    public static void main(String[] args) {
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        var rng = TestRandomizer.newRandom();
+        var messages = new byte[MESSAGES][14];
+        for (var m : messages) rng.nextBytes(m);
+
+        benchmark("crc_bitwise", messages, crc24::crc_bitwise, 20);
+        benchmark("crc_bytewise", messages, crc24::crc_bytewise, 500);
+        benchmark("crc (slicing-by-8)", messages, crc24::crc, 500);
+    }
+
+    private static void benchmark(String name, byte[][] messages, ToIntFunction<byte[]> crc, int repetitions) {
+        var sink = 0;
+        var best = Long.MAX_VALUE;
+        for (var round = 0; round < ROUNDS; ++round) {
+            var start = System.nanoTime();
+            for (var r = 0; r < repetitions; ++r) {
+                for (var m : messages) sink += crc.applyAsInt(m);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        var nsPerMessage = (double) best / ((long) repetitions * messages.length);
+        System.out.printf(Locale.ROOT, "%-20s %8.2f ns/message (%d)%n", name, nsPerMessage, sink);
+    }
+}
@@ -1,7 +1,9 @@
 package ch.epfl.javions;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.List;
 
@@ -159,4 +161,40 @@ class Crc24Test {
             assertEquals(0, crc24.crc(m));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void crc24CrcIsSameAsBytewiseAndBitwiseCrc() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+            var crc24 = new Crc24(rng.nextInt(1 << 24));
+            var bytes = new byte[rng.nextInt(40)];
+            rng.nextBytes(bytes);
+            var expected = crc24.crc_bitwise(bytes);
+            assertEquals(expected, crc24.crc_bytewise(bytes));
+            assertEquals(expected, crc24.crc(bytes));
+        }
+    }
+
+    @Test
+    void crc24CrcWorksOnSliceOfArray() {
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+            var bytes = new byte[rng.nextInt(1, 60)];
+            rng.nextBytes(bytes);
+            var offset = rng.nextInt(bytes.length);
+            var length = rng.nextInt(bytes.length - offset + 1);
+            assertEquals(crc24.crc(Arrays.copyOfRange(bytes, offset, offset + length)),
+                    crc24.crc(bytes, offset, length));
+        }
+    }
+
+    @Test
+    void crc24CrcThrowsIfSliceIsOutOfBounds() {
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        var bytes = new byte[14];
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, -1, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, 10, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, 0, -1));
+    }
+}
@@ -0,0 +1,68 @@
+package ch.epfl.javions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryQueueTest {
+
+    @Test
+    void expiryQueueExpireReturnsTheValuesInTheOrderOfTheirLastTouch() {
+        ExpiryQueue<String> queue = new ExpiryQueue<>();
+        var a = queue.add("a", 10);
+        var b = queue.add("b", 20);
+        var c = queue.add("c", 30);
+        queue.touch(a, 40);
+        assertEquals(3, queue.size());
+        assertEquals(40, a.timeStampNs());
+
+        List<String> expired = new ArrayList<>();
+        assertEquals(0, queue.expire(20, expired::add));
+        assertEquals(2, queue.expire(31, expired::add));
+        assertEquals(List.of("b", "c"), expired);
+        assertFalse(b.isQueued());
+        assertTrue(a.isQueued());
+        assertThrows(IllegalArgumentException.class, () -> queue.touch(b, 50));
+
+        queue.remove(a);
+        queue.remove(a);
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.expire(Long.MAX_VALUE, expired::add));
+        assertThrows(NullPointerException.class, () -> queue.add(null, 0));
+    }
+
+    @Test
+    void expiryQueueExpiresLikeAScanOfAllTheValues() {
+        var rng = newRandom();
+        ExpiryQueue<Integer> queue = new ExpiryQueue<>();
+        Map<Integer, ExpiryQueue.Entry<Integer>> entries = new HashMap<>();
+        long now = 0;
+        for (int i = 0; i < 20 * RANDOM_ITERATIONS; ++i) {
+            now += rng.nextInt(100);
+            int key = rng.nextInt(500);
+            ExpiryQueue.Entry<Integer> entry = entries.get(key);
+            if (entry == null) entries.put(key, queue.add(key, now));
+            else queue.touch(entry, now);
+
+            if (i % 50 == 0) {
+                long limit = now - 5_000;
+                List<Integer> expected = new ArrayList<>();
+                entries.forEach((k, e) -> {
+                    if (e.timeStampNs() < limit) expected.add(k);
+                });
+                List<Integer> expired = new ArrayList<>();
+                queue.expire(limit, expired::add);
+                assertEquals(expected.stream().sorted().toList(), expired.stream().sorted().toList());
+                expired.forEach(entries::remove);
+                assertEquals(entries.size(), queue.size());
+            }
+        }
+    }
+}
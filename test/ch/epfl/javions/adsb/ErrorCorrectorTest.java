@@ -0,0 +1,104 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorCorrectorTest {
+    private static final List<String> ADSB_MESSAGES = List.of(
+            "8D392AE499107FB5C00439035DB8",
+            "8D4D2286EA428867291C08EE2EC6",
+            "8D3950C69914B232880436BC63D3",
+            "8D4B17E399893E15C09C219FC014",
+            "8D4B18F4231445F2DB63A0DEEB82",
+            "8D495293F82300020049B8111203");
+
+    private static byte[] flipped(String message, int... bits) {
+        var bytes = HexFormat.of().parseHex(message);
+        for (var bit : bits) bytes[bit / 8] ^= (byte) (0x80 >>> (bit % 8));
+        return bytes;
+    }
+
+    @Test
+    void errorCorrectorConstructorThrowsWithInvalidNumberOfErrors() {
+        assertThrows(IllegalArgumentException.class, () -> new ErrorCorrector(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ErrorCorrector(3));
+    }
+
+    @Test
+    void errorCorrectorAcceptsCorrectMessagesWithoutChangingThem() {
+        var corrector = new ErrorCorrector(2);
+        for (var m : ADSB_MESSAGES) {
+            var bytes = HexFormat.of().parseHex(m);
+            assertTrue(corrector.correct(bytes));
+            assertArrayEquals(HexFormat.of().parseHex(m), bytes);
+        }
+        assertEquals(0, corrector.correctedFrames());
+    }
+
+    @Test
+    void errorCorrectorCorrectsEverySingleBitErrorOutsideOfDf() {
+        var corrector = new ErrorCorrector(1);
+        var corrected = 0;
+        for (var m : ADSB_MESSAGES) {
+            for (var bit = 5; bit < 112; ++bit) {
+                var bytes = flipped(m, bit);
+                assertTrue(corrector.correct(bytes));
+                assertArrayEquals(HexFormat.of().parseHex(m), bytes);
+                ++corrected;
+            }
+        }
+        assertEquals(corrected, corrector.correctedFrames());
+        assertEquals(corrected, corrector.correctedFrames(1));
+        assertEquals(0, corrector.correctedFrames(2));
+    }
+
+    @Test
+    void errorCorrectorDoesNotCorrectDfBits() {
+        var corrector = new ErrorCorrector(2);
+        for (var bit = 0; bit < 5; ++bit) {
+            assertFalse(corrector.correct(flipped(ADSB_MESSAGES.get(0), bit)));
+        }
+    }
+
+    @Test
+    void errorCorrectorCorrectsTwoBitErrorsOnlyWhenAsked() {
+        var rng = TestRandomizer.newRandom();
+        var oneBit = new ErrorCorrector(1);
+        var twoBits = new ErrorCorrector(2);
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+            var m = ADSB_MESSAGES.get(rng.nextInt(ADSB_MESSAGES.size()));
+            var first = rng.nextInt(5, 112);
+            var second = rng.nextInt(5, 111);
+            if (second >= first) ++second;
+
+            assertFalse(oneBit.correct(flipped(m, first, second)));
+            var bytes = flipped(m, first, second);
+            assertTrue(twoBits.correct(bytes));
+            assertArrayEquals(HexFormat.of().parseHex(m), bytes);
+        }
+        assertEquals(TestRandomizer.RANDOM_ITERATIONS, twoBits.correctedFrames(2));
+    }
+
+    @Test
+    void errorCorrectorWithoutErrorsOnlyChecksCrc() {
+        var corrector = new ErrorCorrector(0);
+        assertTrue(corrector.correct(HexFormat.of().parseHex(ADSB_MESSAGES.get(0))));
+        assertFalse(corrector.correct(flipped(ADSB_MESSAGES.get(0), 50)));
+    }
+
+    @Test
+    void rawMessageOfCorrectsMessageWithCorrector() {
+        var corrector = new ErrorCorrector(1);
+        var m = ADSB_MESSAGES.get(1);
+        assertNull(RawMessage.of(100, flipped(m, 60)));
+        var message = RawMessage.of(100, flipped(m, 60), corrector);
+        assertNotNull(message);
+        assertEquals(m, message.bytes().toString());
+        assertEquals(1, corrector.correctedFrames());
+    }
+}
@@ -0,0 +1,129 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageLogTest {
+    private static final int RARE_AIRCRAFT = 0x4B1A2C;
+    private static final int MESSAGE_COUNT = 3 * MessageLogFormat.BLOCK_MESSAGES + 123;
+
+    /**
+     * Messages of 40 aircraft, one message every 0.1 ms, plus some messages of a rare aircraft at the beginning
+     */
+    private static List<RawMessage> messages() {
+        var rng = newRandom();
+        int[] aircraft = new int[40];
+        for (int i = 0; i < aircraft.length; ++i) aircraft[i] = 0x300000 + rng.nextInt(1 << 20);
+
+        List<RawMessage> messages = new ArrayList<>();
+        for (int i = 0; i < MESSAGE_COUNT; ++i) {
+            byte[] bytes = new byte[RawMessage.LENGTH];
+            rng.nextBytes(bytes);
+            int address = i < 1_000 && i % 10 == 0 ? RARE_AIRCRAFT : aircraft[rng.nextInt(aircraft.length)];
+            bytes[0] = (byte) 0x8D;
+            bytes[1] = (byte) (address >> 16);
+            bytes[2] = (byte) (address >> 8);
+            bytes[3] = (byte) address;
+            messages.add(new RawMessage(i * 100_000L, new ByteString(bytes)));
+        }
+        return messages;
+    }
+
+    private static Path write(Path dir, List<RawMessage> messages, boolean compress) throws IOException {
+        Path file = dir.resolve(compress ? "compressed.log" : "raw.log");
+        try (MessageLogWriter writer = MessageLogWriter.create(file, compress)) {
+            for (RawMessage message : messages) writer.write(message);
+            assertEquals(messages.size(), writer.messageCount());
+        }
+        return file;
+    }
+
+    @Test
+    void messageLogWriterThrowsOnInvalidMessage(@TempDir Path dir) throws IOException {
+        try (MessageLogWriter writer = MessageLogWriter.create(dir.resolve("log"), true)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.write(0, new byte[13]));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(-1, new byte[RawMessage.LENGTH]));
+        }
+    }
+
+    @Test
+    void messageLogReaderReturnsAllTheMessagesWritten(@TempDir Path dir) throws IOException {
+        List<RawMessage> messages = messages();
+        for (boolean compress : new boolean[]{false, true}) {
+            try (MessageLogReader reader = MessageLogReader.open(write(dir, messages, compress))) {
+                assertEquals(messages.size(), reader.messageCount());
+                assertEquals(4, reader.blockCount());
+                assertEquals(messages, reader.messages().toList());
+            }
+        }
+        assertTrue(Files.size(dir.resolve("compressed.log")) < Files.size(dir.resolve("raw.log")));
+    }
+
+    @Test
+    void messageLogReaderOnlyReadsTheBlocksOfThePeriod(@TempDir Path dir) throws IOException {
+        List<RawMessage> messages = messages();
+        try (MessageLogReader reader = MessageLogReader.open(write(dir, messages, true))) {
+            long from = 5_000 * 100_000L + 1;
+            long to = 6_000 * 100_000L;
+            List<RawMessage> expected = messages.stream()
+                    .filter(m -> from <= m.timeStampNs() && m.timeStampNs() < to)
+                    .toList();
+            assertEquals(expected, reader.messages(from, to).toList());
+            assertEquals(1, reader.blocksRead());
+
+            assertEquals(List.of(), reader.messages(to * 1_000, Long.MAX_VALUE).toList());
+            assertEquals(1, reader.blocksRead());
+        }
+    }
+
+    @Test
+    void messageLogReaderOnlyReadsTheBlocksThatMayContainTheAircraft(@TempDir Path dir) throws IOException {
+        List<RawMessage> messages = messages();
+        try (MessageLogReader reader = MessageLogReader.open(write(dir, messages, true))) {
+            IcaoAddress rare = IcaoAddress.of(RARE_AIRCRAFT);
+            List<RawMessage> expected = messages.stream().filter(m -> m.icaoAddress().equals(rare)).toList();
+            assertEquals(100, expected.size());
+            assertEquals(expected, reader.messages(rare).toList());
+            assertTrue(reader.blocksRead() < reader.blockCount());
+
+            IcaoAddress common = messages.get(messages.size() - 1).icaoAddress();
+            assertEquals(messages.stream().filter(m -> m.icaoAddress().equals(common)).toList(),
+                    reader.messages(common).toList());
+        }
+    }
+
+    @Test
+    void messageLogReaderIgnoresAnIncompleteLastBlock(@TempDir Path dir) throws IOException {
+        List<RawMessage> messages = messages();
+        Path file = write(dir, messages, true);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+        try (MessageLogReader reader = MessageLogReader.open(file)) {
+            assertEquals(3, reader.blockCount());
+            assertEquals(messages.subList(0, 3 * MessageLogFormat.BLOCK_MESSAGES), reader.messages().toList());
+        }
+    }
+
+    @Test
+    void messageLogReaderThrowsOnOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("other");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IOException.class, () -> MessageLogReader.open(file));
+        Files.write(file, new byte[]{1});
+        assertThrows(IOException.class, () -> MessageLogReader.open(file));
+    }
+}
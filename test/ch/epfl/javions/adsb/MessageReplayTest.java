@@ -0,0 +1,113 @@
+package ch.epfl.javions.adsb;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageReplayTest {
+    private static final byte[] VALID = HexFormat.of().parseHex("8D3991E10B0464B1CD43206F07E8");
+    private static final byte[] INVALID = HexFormat.of().parseHex("8D3991E10B0464B1CD43206F07E9");
+
+    private static Path writeFile(Path dir, long[] timeStamps, int trailingBytes) throws IOException {
+        Path file = dir.resolve("messages.bin");
+        try (DataOutputStream s = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+            for (int i = 0; i < timeStamps.length; ++i) {
+                s.writeLong(timeStamps[i]);
+                s.write(i % 7 == 3 ? INVALID : VALID);
+            }
+            s.write(new byte[trailingBytes]);
+        }
+        return file;
+    }
+
+    private static List<Long> replayAll(MessageReplay replay) throws IOException, InterruptedException {
+        List<Long> timeStamps = new ArrayList<>();
+        RawMessage message;
+        while ((message = replay.next()) != null) timeStamps.add(message.timeStampNs());
+        return timeStamps;
+    }
+
+    private static List<Long> expectedFrom(long[] timeStamps, long from) {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < timeStamps.length; ++i) {
+            if (i % 7 != 3 && timeStamps[i] >= from) expected.add(timeStamps[i]);
+        }
+        return expected;
+    }
+
+    @Test
+    void messageReplaySetSpeedThrowsOnInvalidSpeed(@TempDir Path dir) throws IOException {
+        try (MessageReplay replay = MessageReplay.open(writeFile(dir, new long[0], 0))) {
+            for (double speed : new double[]{0, 0.4, 100.5, Double.NaN, -1, Double.NEGATIVE_INFINITY}) {
+                assertThrows(IllegalArgumentException.class, () -> replay.setSpeed(speed));
+            }
+            replay.setSpeed(MessageReplay.MIN_SPEED);
+            replay.setSpeed(MessageReplay.MAX_SPEED);
+            replay.setSpeed(MessageReplay.AS_FAST_AS_POSSIBLE);
+            assertEquals(MessageReplay.AS_FAST_AS_POSSIBLE, replay.speed());
+        }
+    }
+
+    @Test
+    void messageReplayNextReturnsTheValidMessagesInOrder(@TempDir Path dir) throws Exception {
+        long[] timeStamps = new long[5_000];
+        for (int i = 0; i < timeStamps.length; ++i) timeStamps[i] = i * 1_000L;
+        try (MessageReplay replay = MessageReplay.open(writeFile(dir, timeStamps, 10))) {
+            replay.setSpeed(MessageReplay.AS_FAST_AS_POSSIBLE);
+            assertEquals(timeStamps.length, replay.recordCount());
+            assertEquals(expectedFrom(timeStamps, 0), replayAll(replay));
+            assertEquals(timeStamps.length, replay.position());
+            assertNull(replay.next());
+        }
+    }
+
+    @Test
+    void messageReplaySeekFindsTheFirstMessageAtOrAfterTheTimeStamp(@TempDir Path dir) throws Exception {
+        // Several records share each time stamp, some of them around the entries of the index
+        long[] timeStamps = new long[3 * MessageReplay.INDEX_INTERVAL + 17];
+        for (int i = 0; i < timeStamps.length; ++i) timeStamps[i] = 100 + (i / 5) * 10L;
+        try (MessageReplay replay = MessageReplay.open(writeFile(dir, timeStamps, 0))) {
+            replay.setSpeed(MessageReplay.AS_FAST_AS_POSSIBLE);
+            for (long seek : new long[]{0, 100, 105, 2_140, 2_150, 2_145, 10_340, 10_345, timeStamps[timeStamps.length - 1],
+                    timeStamps[timeStamps.length - 1] + 1, 5_000}) {
+                replay.seek(seek);
+                assertEquals(expectedFrom(timeStamps, seek), replayAll(replay), "seek " + seek);
+            }
+            replay.seek(2_150);
+            assertEquals(5 * (2_150 - 100) / 10, replay.position());
+        }
+    }
+
+    @Test
+    void messageReplayFollowsTheTimeStampsWithoutDrift(@TempDir Path dir) throws Exception {
+        long interval = TimeUnit.MILLISECONDS.toNanos(2);
+        long[] timeStamps = new long[50];
+        for (int i = 0; i < timeStamps.length; ++i) timeStamps[i] = (i + 1) * interval;
+        try (MessageReplay replay = MessageReplay.open(writeFile(dir, timeStamps, 0))) {
+            long start = System.nanoTime();
+            RawMessage message;
+            while ((message = replay.next()) != null) {
+                assertTrue(System.nanoTime() - start >= message.timeStampNs());
+            }
+            long elapsed = System.nanoTime() - start;
+            assertTrue(elapsed >= timeStamps[timeStamps.length - 1]);
+            assertTrue(elapsed < timeStamps[timeStamps.length - 1] + TimeUnit.MILLISECONDS.toNanos(80), "" + elapsed);
+
+            replay.seek(0);
+            replay.setSpeed(MessageReplay.MAX_SPEED);
+            start = System.nanoTime();
+            replayAll(replay);
+            elapsed = System.nanoTime() - start;
+            assertTrue(elapsed >= timeStamps[timeStamps.length - 1] / 100);
+            assertTrue(elapsed < timeStamps[timeStamps.length - 1] / 2);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawMessageRingBufferTest {
+
+    private static byte[] messageBytes(int i) {
+        byte[] bytes = new byte[RawMessage.LENGTH];
+        bytes[0] = (byte) 0x8D;
+        bytes[1] = (byte) (i >> 16);
+        bytes[2] = (byte) (i >> 8);
+        bytes[3] = (byte) i;
+        return bytes;
+    }
+
+    // Every byte depends on i, so that a copy mixing two messages of the same slot is detected
+    private static byte[] stressBytes(long i) {
+        byte[] bytes = new byte[RawMessage.LENGTH];
+        for (int k = 0; k < bytes.length; ++k) bytes[k] = (byte) ((i >>> (8 * (k % 4))) + k);
+        return bytes;
+    }
+
+    private static List<Long> drainTimeStamps(RawMessageRingBuffer buffer) {
+        List<Long> timeStamps = new ArrayList<>();
+        buffer.drain(Integer.MAX_VALUE, view -> {
+            assertEquals(view.timeStampNs(), view.toRawMessage().bytes().bytesInRange(1, 4));
+            timeStamps.add(view.timeStampNs());
+        });
+        return timeStamps;
+    }
+
+    @Test
+    void rawMessageRingBufferConstructorThrowsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RawMessageRingBuffer(0, RawMessageRingBuffer.OverflowPolicy.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RawMessageRingBuffer((1 << 24) + 1, RawMessageRingBuffer.OverflowPolicy.BLOCK));
+        assertThrows(NullPointerException.class, () -> new RawMessageRingBuffer(8, null));
+        assertEquals(16, new RawMessageRingBuffer(9, RawMessageRingBuffer.OverflowPolicy.BLOCK).capacity());
+        assertEquals(8, new RawMessageRingBuffer(8, RawMessageRingBuffer.OverflowPolicy.BLOCK).capacity());
+    }
+
+    @Test
+    void rawMessageRingBufferKeepsMessagesInOrder() throws InterruptedException {
+        RawMessageRingBuffer buffer = new RawMessageRingBuffer(8, RawMessageRingBuffer.OverflowPolicy.BLOCK);
+        assertThrows(IllegalArgumentException.class, () -> buffer.offer(0, new byte[3]));
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+        for (int round = 0; round < 5; ++round) {
+            for (int i = 0; i < 6; ++i) assertTrue(buffer.offer(round * 6 + i, messageBytes(round * 6 + i)));
+            assertEquals(6, buffer.size());
+            assertEquals(round * 6, buffer.poll().timeStampNs());
+            List<Long> expected = new ArrayList<>();
+            for (int i = 1; i < 6; ++i) expected.add((long) round * 6 + i);
+            assertEquals(expected, drainTimeStamps(buffer));
+        }
+        assertEquals(6, buffer.highWaterMark());
+        assertEquals(0, buffer.droppedCount());
+    }
+
+    @Test
+    void rawMessageRingBufferDropsNewestOrOldestWhenFull() throws InterruptedException {
+        RawMessageRingBuffer newest = new RawMessageRingBuffer(4, RawMessageRingBuffer.OverflowPolicy.DROP_NEWEST);
+        RawMessageRingBuffer oldest = new RawMessageRingBuffer(4, RawMessageRingBuffer.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(i < 4, newest.offer(i, messageBytes(i)));
+            assertTrue(oldest.offer(i, messageBytes(i)));
+        }
+        assertEquals(6, newest.droppedCount());
+        assertEquals(6, oldest.droppedCount());
+        assertEquals(4, newest.highWaterMark());
+        assertEquals(4, oldest.highWaterMark());
+        assertEquals(List.of(0L, 1L, 2L, 3L), drainTimeStamps(newest));
+        assertEquals(List.of(6L, 7L, 8L, 9L), drainTimeStamps(oldest));
+    }
+
+    @Test
+    void rawMessageRingBufferDropsOldestWithoutCorruptingMessagesWithTwoThreads() throws InterruptedException {
+        int count = 2_000_000;
+        RawMessageRingBuffer buffer = new RawMessageRingBuffer(4, RawMessageRingBuffer.OverflowPolicy.DROP_OLDEST);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; ++i) buffer.offer(i, stressBytes(i));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            buffer.close();
+        });
+        producer.start();
+
+        // The consumer is slower than the producer, which thus keeps dropping the message being copied
+        long[] last = {-1};
+        long delivered = 0;
+        while (true) {
+            boolean closed = buffer.isClosed();
+            delivered += buffer.drain(16, view -> {
+                long timeStampNs = view.timeStampNs();
+                assertTrue(timeStampNs > last[0]);
+                assertEquals(new ByteString(stressBytes(timeStampNs)), view.toRawMessage().bytes());
+                last[0] = timeStampNs;
+            });
+            if (closed && buffer.isEmpty()) break;
+        }
+        producer.join();
+
+        assertTrue(buffer.droppedCount() > 0);
+        assertTrue(delivered > 0);
+        assertEquals(count, delivered + buffer.droppedCount());
+    }
+
+    @Test
+    void rawMessageRingBufferBlocksProducerUntilConsumerDrains() throws InterruptedException {
+        int count = 100_000;
+        RawMessageRingBuffer buffer = new RawMessageRingBuffer(16, RawMessageRingBuffer.OverflowPolicy.BLOCK);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; ++i) buffer.offer(i, messageBytes(i));
+            } catch (InterruptedException e) {
+                throw new Error(e);
+            }
+            buffer.close();
+        });
+        producer.start();
+
+        long[] expected = {0};
+        while (buffer.await(TimeUnit.SECONDS.toNanos(5)) || !buffer.isEmpty()) {
+            buffer.drain(7, view -> {
+                assertEquals(expected[0], view.timeStampNs());
+                assertEquals(expected[0]++, view.toRawMessage().bytes().bytesInRange(1, 4));
+            });
+        }
+        producer.join();
+        assertEquals(count, expected[0]);
+        assertEquals(0, buffer.droppedCount());
+        assertTrue(buffer.highWaterMark() <= 16);
+    }
+
+    @Test
+    void rawMessageRingBufferRefusesMessagesOnceClosed() throws InterruptedException {
+        RawMessageRingBuffer buffer = new RawMessageRingBuffer(4, RawMessageRingBuffer.OverflowPolicy.BLOCK);
+        assertFalse(buffer.await(TimeUnit.MILLISECONDS.toNanos(1)));
+        assertTrue(buffer.offer(1, messageBytes(1)));
+        buffer.close();
+        assertTrue(buffer.isClosed());
+        assertFalse(buffer.offer(2, messageBytes(2)));
+        assertTrue(buffer.await(0));
+        assertEquals(List.of(1L), drainTimeStamps(buffer));
+        assertFalse(buffer.await(TimeUnit.SECONDS.toNanos(10)));
+    }
+
+    @Test
+    void rawMessageRingBufferCloseReleasesBlockedProducer() throws InterruptedException {
+        RawMessageRingBuffer buffer = new RawMessageRingBuffer(1, RawMessageRingBuffer.OverflowPolicy.BLOCK);
+        assertTrue(buffer.offer(1, messageBytes(1)));
+        boolean[] accepted = {true};
+        Thread producer = new Thread(() -> {
+            try {
+                accepted[0] = buffer.offer(2, messageBytes(2));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+        producer.start();
+        // Wait for the producer to be parked on the full buffer
+        while (producer.getState() != Thread.State.TIMED_WAITING) Thread.onSpinWait();
+
+        buffer.close();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(producer.isAlive());
+        assertFalse(accepted[0]);
+        assertEquals(List.of(1L), drainTimeStamps(buffer));
+    }
+}
@@ -0,0 +1,124 @@
+package ch.epfl.javions.adsb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawMessageViewTest {
+    // Messages of the other tests of this package, of all the types.
+    private static final List<String> MESSAGES = List.of(
+            "8D06004025341575C31D203EBA81", "8D34610D99090134B00403B4C733", "8D3944EF2004649EDD84607FE1EE",
+            "8D3944EF200464B275846031B6E0", "8D3944EF200464B2DD8440F1ADDC", "8D3944EF200464B2DD847D0F30E7",
+            "8D3944EF200464B2DD8B20A9A38C", "8D3944EF200464B2DE5460835099", "8D3944EF200467F2DD84600A4B89",
+            "8D3944EF200614B2DD84607692E1", "8D3944EF208864B2DD84601C3BFD", "8D3950C69914B232880436BC63D3",
+            "8D3991E10B0464B1CD43206F07E8", "8D3991E1230464B1CD4320FCD23B", "8D3C0CA323515271D37820FC5632",
+            "8D3C4DC89A8CA882E0A409AB0E49", "8D3C4DC89F8CA882E0A409F97770", "8D40627999906D93785409E85EF6",
+            "8D406666500D1652395CBEE9BEAB", "8D40666658880652395CBE7570E9", "8D406666680D1652395CBE42785B",
+            "8D406666800D1652395CBE0E8C15", "8D406666A00D1652395CBE7EAA53", "8D406CA3230570F1DF1820BADDB9",
+            "8D40773999147D8F78400A8A3C7B", "8D4400902314A579D504609ABEB8", "8D4402F299096A19908C0BA0600B",
+            "8D461981211931B5CB3660E09D00", "8D48502031440994083817F7908D", "8D485020994409940838175B284F",
+            "8D485020C94409940838178377E0", "8D485020E144099408381710A233", "8D485020F9440994083817CB4285",
+            "8D4B17E399893E15C09C219FC014", "8D4B1A23586B8307F5B26CB39D00", "8D4B1BB5592422D2BB55FD991FA4",
+            "8D4B1BB5598406514D4E5FEC1AC3", "8D4B1BB559A40653594F35F9A08F", "8D4CA24558ADE68009DEF6E531E5",
+            "8D4D00C622307338CB5D201112C1", "8D503E6A230C3373D41520E93419", "8DA05F219B06B6AF189400CBC33F",
+            "8DADA2FD593682D9D99C2643E7DA");
+
+    private static List<RawMessage> rawMessages() {
+        return MESSAGES.stream()
+                .map(m -> RawMessage.of(1234, HexFormat.of().parseHex(m)))
+                .filter(m -> m != null)
+                .toList();
+    }
+
+    private static RawMessageView view(RawMessage message) {
+        var view = new RawMessageView();
+        view.wrap(message.timeStampNs(), HexFormat.of().parseHex(message.bytes().toString()));
+        return view;
+    }
+
+    @Test
+    void rawMessageViewHasSameFieldsAsRawMessage() {
+        var messages = rawMessages();
+        assertTrue(messages.size() > 30);
+        for (var message : messages) {
+            var view = view(message);
+            assertEquals(message.timeStampNs(), view.timeStampNs());
+            assertEquals(message.downLinkFormat(), view.downLinkFormat());
+            assertEquals(Integer.parseInt(message.icaoAddress().string(), 16), view.icaoAddress());
+            assertEquals(message.payload(), view.payload());
+            assertEquals(message.typeCode(), view.typeCode());
+            assertEquals(message, view.toRawMessage());
+        }
+    }
+
+    @Test
+    void rawMessageViewDoesNotCopyBytes() {
+        var bytes = HexFormat.of().parseHex(MESSAGES.get(0));
+        var view = new RawMessageView();
+        view.wrap(0, bytes);
+        var icao = view.icaoAddress();
+        bytes[3] ^= 1;
+        assertEquals(icao ^ 1, view.icaoAddress());
+    }
+
+    @Test
+    void rawMessageViewWrapThrowsWithInvalidArguments() {
+        var view = new RawMessageView();
+        assertThrows(IllegalArgumentException.class, () -> view.wrap(-1, new byte[14]));
+        assertThrows(IllegalArgumentException.class, () -> view.wrap(0, new byte[13]));
+    }
+
+    @Test
+    void messageParserDecodesSameFieldsIntoHoldersAsMessages() {
+        var identification = new MessageParser.IdentificationFields();
+        var position = new MessageParser.PositionFields();
+        var velocity = new MessageParser.VelocityFields();
+        var decoded = 0;
+        for (var rawMessage : rawMessages()) {
+            var view = view(rawMessage);
+            var message = MessageParser.parse(rawMessage);
+
+            assertEquals(message instanceof AircraftIdentificationMessage,
+                    MessageParser.parseIdentification(view, identification));
+            assertEquals(message instanceof AirbornePositionMessage, MessageParser.parsePosition(view, position));
+            assertEquals(message instanceof AirborneVelocityMessage, MessageParser.parseVelocity(view, velocity));
+
+            if (message instanceof AircraftIdentificationMessage m) {
+                assertEquals(m.category(), identification.category());
+                assertEquals(m.callSign().string(), identification.callSign());
+                assertEquals(m.callSign().string().length(), identification.callSignLength());
+                ++decoded;
+            } else if (message instanceof AirbornePositionMessage m) {
+                assertEquals(m.altitude(), position.altitude());
+                assertEquals(m.parity(), position.parity());
+                assertEquals(m.x(), position.x());
+                assertEquals(m.y(), position.y());
+                ++decoded;
+            } else if (message instanceof AirborneVelocityMessage m) {
+                assertEquals(m.speed(), velocity.speed());
+                assertEquals(m.trackOrHeading(), velocity.trackOrHeading());
+                ++decoded;
+            }
+        }
+        assertTrue(decoded > 20);
+    }
+
+    @Test
+    void aircraftIdentificationDecodeLeavesHolderUnchangedWithInvalidCharacter() {
+        var rawMessage = RawMessage.of(0, HexFormat.of().parseHex("8D3991E10B0464B1CD43206F07E8"));
+        var fields = new MessageParser.IdentificationFields();
+        assertTrue(AircraftIdentificationMessage.decode(rawMessage.typeCode(), rawMessage.payload(), fields));
+        var callSign = fields.callSign();
+        var category = fields.category();
+
+        // Seven A followed by the invalid character 0
+        var invalidPayload = 0L;
+        for (int i = 0; i < 7; ++i) invalidPayload |= 1L << (42 - 6 * i);
+        assertFalse(AircraftIdentificationMessage.decode(rawMessage.typeCode() + 1, invalidPayload, fields));
+        assertEquals(callSign, fields.callSign());
+        assertEquals(category, fields.category());
+    }
+}
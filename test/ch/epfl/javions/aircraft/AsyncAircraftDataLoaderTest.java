@@ -0,0 +1,127 @@
+package ch.epfl.javions.aircraft;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAircraftDataLoaderTest {
+    private static final AircraftData DATA = new AircraftData(new AircraftRegistration("HB-JDC"),
+            new AircraftTypeDesignator("A20N"), "AIRBUS A-320NEO", new AircraftDescription("L2J"),
+            WakeTurbulenceCategory.MEDIUM);
+
+    @Test
+    void asyncAircraftDataLoaderConstructorThrowsWithInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new AsyncAircraftDataLoader(null, Runnable::run));
+        assertThrows(NullPointerException.class, () -> new AsyncAircraftDataLoader(a -> DATA, null));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncAircraftDataLoader(a -> DATA, Runnable::run, 0));
+    }
+
+    @Test
+    void asyncAircraftDataLoaderDoesNotBlockAndCoalescesRequests() throws Exception {
+        var release = new CountDownLatch(1);
+        var requests = new AtomicInteger();
+        AircraftDataSource slowSource = address -> {
+            requests.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return DATA;
+        };
+
+        var published = new LinkedBlockingQueue<AircraftData>();
+        var publisherThreads = new ArrayList<String>();
+        var publisher = Executors.newSingleThreadExecutor(r -> new Thread(r, "publisher"));
+        try (var loader = new AsyncAircraftDataLoader(slowSource, command -> publisher.execute(() -> {
+            synchronized (publisherThreads) {
+                publisherThreads.add(Thread.currentThread().getName());
+            }
+            command.run();
+        }))) {
+            for (int i = 0; i < 3; ++i) loader.load(IcaoAddress.of(0x4B1814), published::add);
+            assertEquals(1, loader.pendingCount());
+            assertTrue(published.isEmpty());
+
+            release.countDown();
+            for (int i = 0; i < 3; ++i) assertEquals(DATA, published.poll(10, TimeUnit.SECONDS));
+            assertEquals(1, requests.get());
+            synchronized (publisherThreads) {
+                assertEquals(List.of("publisher", "publisher", "publisher"), publisherThreads);
+            }
+        } finally {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    void asyncAircraftDataLoaderStartsNewSearchOnceTheFirstIsDone() throws Exception {
+        var requests = new AtomicInteger();
+        try (var loader = new AsyncAircraftDataLoader(a -> {
+            requests.incrementAndGet();
+            return null;
+        }, Runnable::run)) {
+            assertNull(loader.lookup(IcaoAddress.of(1)).get(10, TimeUnit.SECONDS));
+            assertNull(loader.lookup(IcaoAddress.of(1)).get(10, TimeUnit.SECONDS));
+            assertEquals(2, requests.get());
+            assertEquals(0, loader.pendingCount());
+        }
+    }
+
+    @Test
+    void asyncAircraftDataLoaderGivesNullWhenSourceFails() throws Exception {
+        try (var loader = new AsyncAircraftDataLoader(a -> { throw new IOException(); }, Runnable::run)) {
+            var future = new CompletableFuture<AircraftData>();
+            loader.load(IcaoAddress.of(1), future::complete);
+            assertNull(future.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void asyncAircraftDataLoaderGivesNullOnceClosed() throws Exception {
+        var loader = new AsyncAircraftDataLoader(a -> DATA, Runnable::run);
+        loader.close();
+        assertNull(loader.lookup(IcaoAddress.of(1)).get(10, TimeUnit.SECONDS));
+        assertEquals(0, loader.pendingCount());
+    }
+
+    @Test
+    void asyncAircraftDataLoaderCloseCompletesTheSearchesNotDone() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        AircraftDataSource stuckSource = address -> {
+            started.countDown();
+            // The search ignores the interruption, like a source blocked in an uninterruptible read
+            while (true) {
+                try {
+                    release.await();
+                    return DATA;
+                } catch (InterruptedException e) {
+                    // Keep waiting
+                }
+            }
+        };
+
+        var loader = new AsyncAircraftDataLoader(stuckSource, Runnable::run, 1);
+        try {
+            var running = loader.lookup(IcaoAddress.of(1));
+            started.await();
+            var queued = loader.lookup(IcaoAddress.of(2));
+            assertEquals(2, loader.pendingCount());
+
+            loader.close();
+            assertNull(running.get(10, TimeUnit.SECONDS));
+            assertNull(queued.get(10, TimeUnit.SECONDS));
+            assertEquals(0, loader.pendingCount());
+            assertNotSame(queued, loader.lookup(IcaoAddress.of(2)));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ch.epfl.javions.aircraft;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingAircraftDatabaseTest {
+    private static final AircraftData DATA = new AircraftData(new AircraftRegistration("HB-JDC"),
+            new AircraftTypeDesignator("A20N"), "AIRBUS A-320NEO", new AircraftDescription("L2J"),
+            WakeTurbulenceCategory.MEDIUM);
+
+    // Knows the even addresses only, and counts the requests it receives.
+    private static final class CountingSource implements AircraftDataSource {
+        int requests = 0;
+
+        @Override
+        public synchronized AircraftData get(IcaoAddress address) {
+            requests += 1;
+            return address.value() % 2 == 0 ? DATA : null;
+        }
+    }
+
+    @Test
+    void cachingAircraftDatabaseConstructorThrowsWithInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new CachingAircraftDatabase(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CachingAircraftDatabase(new CountingSource(), 0));
+    }
+
+    @Test
+    void cachingAircraftDatabaseCachesKnownAndUnknownAddresses() throws IOException {
+        var source = new CountingSource();
+        var cache = new CachingAircraftDatabase(source, 10);
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(DATA, cache.get(IcaoAddress.of(2)));
+            assertNull(cache.get(IcaoAddress.of(3)));
+        }
+        assertEquals(2, source.requests);
+        assertEquals(2, cache.misses());
+        assertEquals(4, cache.hits());
+        assertEquals(0, cache.evictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void cachingAircraftDatabaseEvictsLeastRecentlyUsedAddress() throws IOException {
+        var source = new CountingSource();
+        var cache = new CachingAircraftDatabase(source, 2);
+        cache.get(IcaoAddress.of(1));
+        cache.get(IcaoAddress.of(2));
+        cache.get(IcaoAddress.of(1));
+        cache.get(IcaoAddress.of(3));
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+
+        cache.get(IcaoAddress.of(1));
+        assertEquals(3, source.requests);
+        cache.get(IcaoAddress.of(2));
+        assertEquals(4, source.requests);
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test
+    void cachingAircraftDatabaseDoesNotCacheFailures() {
+        var cache = new CachingAircraftDatabase(address -> { throw new IOException(); }, 2);
+        assertThrows(IOException.class, () -> cache.get(IcaoAddress.of(1)));
+        assertThrows(IOException.class, () -> cache.get(IcaoAddress.of(1)));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void cachingAircraftDatabaseWorksFromSeveralThreads() throws Exception {
+        var cache = new CachingAircraftDatabase(new CountingSource(), 64);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; ++i) {
+                        int value = i % 100;
+                        assertEquals(value % 2 == 0 ? DATA : null, cache.get(IcaoAddress.of(value)));
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(40_000, cache.hits() + cache.misses());
+        assertEquals(64, cache.size());
+    }
+}
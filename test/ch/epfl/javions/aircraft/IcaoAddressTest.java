@@ -2,8 +2,7 @@ package ch.epfl.javions.aircraft;
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 class IcaoAddressTest {
     @Test
@@ -26,4 +25,39 @@ class IcaoAddressTest {
             new IcaoAddress("ABCDEF");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void icaoAddressConstructorThrowsWithNonHexadecimalDigits() {
+        assertThrows(IllegalArgumentException.class, () -> new IcaoAddress("ABCDEG"));
+        assertThrows(IllegalArgumentException.class, () -> new IcaoAddress("ABCDE\u0663"));
+        assertThrows(IllegalArgumentException.class, () -> new IcaoAddress("ABCDEF0"));
+    }
+
+    @Test
+    void icaoAddressOfThrowsWithValueOutsideOf24Bits() {
+        assertThrows(IllegalArgumentException.class, () -> IcaoAddress.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> IcaoAddress.of(1 << 24));
+    }
+
+    @Test
+    void icaoAddressOfReturnsInternedAddresses() {
+        for (int value : new int[]{0, 0xABCDEF, 0x4B1814, 0xFFFFFF}) {
+            assertSame(IcaoAddress.of(value), IcaoAddress.of(value));
+        }
+        assertNotSame(IcaoAddress.of(0x4B1814), IcaoAddress.of(0x4B1815));
+    }
+
+    @Test
+    void icaoAddressOfAndConstructorAgree() {
+        for (String s : new String[]{"000000", "00000A", "4B1814", "ABCDEF", "FFFFFF"}) {
+            var parsed = new IcaoAddress(s);
+            var interned = IcaoAddress.of(Integer.parseInt(s, 16));
+            assertEquals(parsed, interned);
+            assertEquals(parsed.hashCode(), interned.hashCode());
+            assertEquals(s, interned.string());
+            assertEquals(Integer.parseInt(s, 16), parsed.value());
+            assertEquals(parsed.toString(), interned.toString());
+        }
+        assertNotEquals(new IcaoAddress("4B1814"), new IcaoAddress("4B1815"));
+    }
+}
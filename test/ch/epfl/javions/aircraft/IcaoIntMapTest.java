@@ -0,0 +1,91 @@
+package ch.epfl.javions.aircraft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcaoIntMapTest {
+
+    private static void assertSameContent(Map<Integer, String> expected, IcaoIntMap<String> map) {
+        assertEquals(expected.size(), map.size());
+        Map<Integer, String> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        for (var e : expected.entrySet()) assertEquals(e.getValue(), map.get(e.getKey()));
+    }
+
+    @Test
+    void icaoIntMapThrowsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new IcaoIntMap<String>(-1));
+        IcaoIntMap<String> map = new IcaoIntMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1 << 24, "a"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, "a"));
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+        assertThrows(NullPointerException.class, () -> map.computeIfAbsent(1, k -> null));
+        assertNull(map.get(-1));
+        assertNull(map.get(1 << 24));
+        assertNull(map.remove(-1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void icaoIntMapBehavesLikeHashMap() {
+        var rng = newRandom();
+        IcaoIntMap<String> map = new IcaoIntMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 50 * RANDOM_ITERATIONS; ++i) {
+            // Few distinct keys, so that the clusters are long and the removals shift entries
+            int key = rng.nextInt(2_000) * 4_099 & 0xFFFFFF;
+            switch (rng.nextInt(4)) {
+                case 0 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                case 2 -> assertEquals(expected.computeIfAbsent(key, k -> "c" + k),
+                        map.computeIfAbsent(key, k -> "c" + k));
+                default -> {
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                }
+            }
+        }
+        assertSameContent(expected, map);
+    }
+
+    @Test
+    void icaoIntMapRemoveIfRemovesExactlyTheMatchingEntries() {
+        var rng = newRandom();
+        IcaoIntMap<String> map = new IcaoIntMap<>(10);
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            int key = rng.nextInt(1 << 24);
+            String value = rng.nextBoolean() ? "keep" + key : "drop" + key;
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        int before = expected.size();
+        expected.values().removeIf(v -> v.startsWith("drop"));
+        assertEquals(before - expected.size(), map.removeIf(v -> v.startsWith("drop")));
+        assertSameContent(expected, map);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+
+    @Test
+    void icaoIntMapHandlesThousandsOfAircraft() {
+        IcaoIntMap<Integer> map = new IcaoIntMap<>();
+        int count = 10_000;
+        // Consecutive addresses, as allocated to the aircraft of a country
+        for (int i = 0; i < count; ++i) assertNull(map.put(0x3C0000 + i, i));
+        assertEquals(count, map.size());
+        assertEquals(count / 2, map.removeIf(v -> v % 2 == 0));
+        for (int i = 0; i < count; ++i) assertEquals(i % 2 == 0 ? null : i, map.get(0x3C0000 + i));
+        for (int i = 1; i < count; i += 2) assertEquals(i, map.remove(0x3C0000 + i));
+        assertTrue(map.isEmpty());
+    }
+}
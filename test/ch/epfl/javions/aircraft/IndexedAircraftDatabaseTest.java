@@ -0,0 +1,87 @@
+package ch.epfl.javions.aircraft;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedAircraftDatabaseTest {
+    static final Map<String, List<String>> FILES = Map.of(
+            "14.csv", List.of(
+                    "0A0014,7T-VJA,B752,BOEING 757-200,L2J,M",
+                    "4B1814,HB-JDC,A20N,AIRBUS A-320NEO,L2J,M",
+                    "4B1914,HB-JCB,BCS3,AIRBUS A220-300,L2J,M"),
+            "9B.csv", List.of(
+                    "39D29B,F-HBAB,A359,AIRBUS A-350-900,L2J,H",
+                    "4B189B,HB-JDA,A20N,AIRBUS A-320NEO,L2J,M",
+                    "FFFF9B,N123,C172,CESSNA 172 Skyhawk,L1P,L"),
+            "AA.csv", List.of(
+                    "3C4DAA,D-EABC,,,,",
+                    "4B17AA,HB-ABC,ZZZZ,ZZZZ,,"));
+
+    static String writeDatabase(Path directory) throws IOException {
+        Path file = directory.resolve("aircraft.zip");
+        try (var zip = new ZipOutputStream(new FileOutputStream(file.toFile()))) {
+            for (var entry : FILES.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(String.join("\n", entry.getValue()).concat("\n").getBytes(UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file.toString();
+    }
+
+    @Test
+    void indexedAircraftDatabaseReturnsSameDataAsAircraftDatabase(@TempDir Path directory) throws IOException {
+        var fileName = writeDatabase(directory);
+        var indexed = IndexedAircraftDatabase.load(fileName);
+        var database = new AircraftDatabase(fileName);
+
+        assertEquals(8, indexed.size());
+        for (var lines : FILES.values()) {
+            for (var line : lines) {
+                var address = new IcaoAddress(line.substring(0, 6));
+                var data = indexed.get(address);
+                assertNotNull(data);
+                assertEquals(database.get(address), data);
+            }
+        }
+        var data = indexed.get(new IcaoAddress("39D29B"));
+        assertEquals("F-HBAB", data.registration().string());
+        assertEquals("A359", data.typeDesignator().string());
+        assertEquals("AIRBUS A-350-900", data.model());
+        assertEquals("L2J", data.description().string());
+        assertEquals(WakeTurbulenceCategory.HEAVY, data.wakeTurbulenceCategory());
+    }
+
+    @Test
+    void indexedAircraftDatabaseReturnsNullForUnknownAddresses(@TempDir Path directory) throws IOException {
+        var indexed = IndexedAircraftDatabase.load(writeDatabase(directory));
+        for (var s : List.of("000000", "0A0013", "4B1815", "4B1900", "FFFFFF", "123456")) {
+            assertNull(indexed.get(new IcaoAddress(s)));
+        }
+    }
+
+    @Test
+    void indexedAircraftDatabaseReportsLoadTimeAndFootprint(@TempDir Path directory) throws IOException {
+        var indexed = IndexedAircraftDatabase.load(writeDatabase(directory));
+        assertTrue(indexed.loadTimeNs() > 0);
+        assertTrue(indexed.footprintBytes() > 8 * 5 * Integer.BYTES);
+    }
+
+    @Test
+    void indexedAircraftDatabaseLoadThrowsWithMissingFile(@TempDir Path directory) {
+        assertThrows(NullPointerException.class, () -> IndexedAircraftDatabase.load(null));
+        assertThrows(IOException.class,
+                () -> IndexedAircraftDatabase.load(directory.resolve("missing.zip").toString()));
+    }
+}
@@ -0,0 +1,87 @@
+package ch.epfl.javions.aircraft;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedAircraftDatabaseTest {
+    private static Path convertedDatabase(Path directory) throws IOException {
+        var file = directory.resolve("aircraft.bin");
+        MappedAircraftDatabase.convert(IndexedAircraftDatabaseTest.writeDatabase(directory), file);
+        return file;
+    }
+
+    @Test
+    void mappedAircraftDatabaseReturnsSameDataAsAircraftDatabase(@TempDir Path directory) throws IOException {
+        var database = new AircraftDatabase(IndexedAircraftDatabaseTest.writeDatabase(directory));
+        var mapped = MappedAircraftDatabase.open(convertedDatabase(directory));
+
+        assertEquals(8, mapped.size());
+        for (var lines : IndexedAircraftDatabaseTest.FILES.values()) {
+            for (var line : lines) {
+                var address = new IcaoAddress(line.substring(0, 6));
+                var data = mapped.get(address);
+                assertNotNull(data);
+                assertEquals(database.get(address), data);
+            }
+        }
+    }
+
+    @Test
+    void mappedAircraftDatabaseReturnsNullForUnknownAddresses(@TempDir Path directory) throws IOException {
+        var mapped = MappedAircraftDatabase.open(convertedDatabase(directory));
+        for (var s : List.of("000000", "0A0013", "4B1815", "4B1900", "FFFFFF", "123456")) {
+            assertNull(mapped.get(new IcaoAddress(s)));
+        }
+    }
+
+    @Test
+    void mappedAircraftDatabaseStoresSharedStringsOnce(@TempDir Path directory) throws IOException {
+        var file = convertedDatabase(directory);
+        var content = new String(Files.readAllBytes(file), UTF_8);
+        assertEquals(content.indexOf("AIRBUS A-320NEO"), content.lastIndexOf("AIRBUS A-320NEO"));
+        assertTrue(content.contains("CESSNA 172 Skyhawk"));
+    }
+
+    @Test
+    void mappedAircraftDatabaseOpenThrowsWithInvalidFile(@TempDir Path directory) throws IOException {
+        var file = convertedDatabase(directory);
+        var bytes = Files.readAllBytes(file);
+
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> MappedAircraftDatabase.open(file));
+
+        bytes[0] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedAircraftDatabase.open(file));
+
+        bytes[0] ^= 1;
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedAircraftDatabase.open(file));
+
+        // The category of the last entry, just before the heap, becomes an invalid ordinal
+        var count = 8;
+        var categoryOffset = 4 * Integer.BYTES + count * 5 * Integer.BYTES + count - 1;
+        var category = bytes[categoryOffset];
+        bytes[categoryOffset] = (byte) WakeTurbulenceCategory.values().length;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedAircraftDatabase.open(file));
+        bytes[categoryOffset] = -1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedAircraftDatabase.open(file));
+
+        bytes[categoryOffset] = category;
+        Files.write(file, bytes);
+        assertEquals(count, MappedAircraftDatabase.open(file).size());
+
+        assertThrows(IOException.class, () -> MappedAircraftDatabase.open(directory.resolve("missing.bin")));
+    }
+}
@@ -1,20 +1,26 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageView;
 import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class AdsbDemodulatorTest {
     //<editor-fold desc="Expected messages">
-    private record RawMessageData(long timeStampNs, String bytes) {}
+    record RawMessageData(long timeStampNs, String bytes) {}
 
-    private static final List<RawMessageData> EXPECTED_RAW_MESSAGE_DATA = List.of(
+    static final List<RawMessageData> EXPECTED_RAW_MESSAGE_DATA = List.of(
             new RawMessageData(8096200L, "8D4B17E5F8210002004BB8B1F1AC"),
             new RawMessageData(75898000L, "8D49529958B302E6E15FA352306B"),
             new RawMessageData(100775400L, "8D39D300990CE72C70089058AD77"),
@@ -402,7 +408,7 @@ class AdsbDemodulatorTest {
     //</editor-fold>
 
     //<editor-fold desc="Message samples">
-    private static final String SAMPLES_BASE64 = """
+    static final String SAMPLES_BASE64 = """
             8AfzB/QH+gfqB/MH8wfyB+sH+Qf1B/QH+Qf6B+4H7gf2B/MH8wf9B+0H7wfxB/oH7Qf8B/QH/Af3B+0H
             8Af2B/IH6gf1B/kH9QfvB/EH+wfyB/gH+Qf1B+gH8Qf2B+QH/wf5BwQI8gf3B+kH/QftB/QH+QfwB/EH
             /gf5B/cH+AfuB/UH6QfyB/IH8wfvB+0H8Qf8B+wH8Qf6B/kH8Qf5B+0HAAj6BwAI9gf4B/QH6wf7B+wH
@@ -566,4 +572,76 @@ class AdsbDemodulatorTest {
             assertNull(demodulator.nextMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void adsbDemodulatorBatchModeReturnsNullForEmptyStream() throws IOException {
+        var demodulator = new AdsbDemodulator(InputStream.nullInputStream(), AdsbDemodulator.ScanMode.BATCH);
+        assertNull(demodulator.nextMessage());
+    }
+
+    @Test
+    void adsbDemodulatorBatchModeWorksOnTinySamples() throws IOException {
+        var samples = Base64.getMimeDecoder().decode(SAMPLES_BASE64);
+        try (var s = new ByteArrayInputStream(samples)) {
+            var demodulator = new AdsbDemodulator(s, AdsbDemodulator.ScanMode.BATCH);
+            var message = demodulator.nextMessage();
+            assertNotNull(message);
+            assertEquals(14100, message.timeStampNs());
+            assertEquals("8D44CE6858A3860B09465B3D3696", message.bytes().toString());
+            assertNull(demodulator.nextMessage());
+        }
+    }
+
+    @Test
+    void adsbDemodulatorBatchModeFindsSameMessagesAsWindowMode() throws IOException {
+        var samples = SyntheticSamples.withMessages(3_000_000);
+        var expected = SyntheticSamples.demodulateSequentially(samples);
+        try (var s = new ByteArrayInputStream(samples)) {
+            var demodulator = new AdsbDemodulator(s, AdsbDemodulator.ScanMode.BATCH);
+            for (var message : expected) assertEquals(message, demodulator.nextMessage());
+            assertNull(demodulator.nextMessage());
+        }
+    }
+
+    @Test
+    void adsbDemodulatorBatchModeFindsSameMessagesAsWindowModeOnRealMessages() throws IOException {
+        var capture = SyntheticSamples.withRealMessages();
+        var expected = SyntheticSamples.demodulateSequentially(capture.samples());
+        var found = expected.stream().map(m -> m.bytes().toString()).toList();
+        assertTrue(found.containsAll(capture.cleanMessages()));
+        try (var s = new ByteArrayInputStream(capture.samples())) {
+            var demodulator = new AdsbDemodulator(s, AdsbDemodulator.ScanMode.BATCH);
+            for (var message : expected) assertEquals(message, demodulator.nextMessage());
+            assertNull(demodulator.nextMessage());
+        }
+    }
+
+    @Test
+    void adsbDemodulatorBatchModeFindsSameMessagesAsWindowModeOnRecordedSamples() throws IOException {
+        var file = Path.of("resources/samples_20230304_1442.bin");
+        assumeTrue(Files.exists(file), "the recorded samples are not available");
+        var samples = Files.readAllBytes(file);
+        var expected = SyntheticSamples.demodulateSequentially(samples);
+        assertEquals(EXPECTED_RAW_MESSAGE_DATA.size(), expected.size());
+        try (var s = new ByteArrayInputStream(samples)) {
+            var demodulator = new AdsbDemodulator(s, AdsbDemodulator.ScanMode.BATCH);
+            for (var message : expected) assertEquals(message, demodulator.nextMessage());
+            assertNull(demodulator.nextMessage());
+        }
+    }
+
+    @Test
+    void adsbDemodulatorNextMessageWithViewFindsSameMessages() throws IOException {
+        var samples = SyntheticSamples.withMessages(2_000_000);
+        var expected = SyntheticSamples.demodulateSequentially(samples);
+        for (var mode : AdsbDemodulator.ScanMode.values()) {
+            try (var s = new ByteArrayInputStream(samples)) {
+                var demodulator = new AdsbDemodulator(s, mode);
+                var view = new RawMessageView();
+                var messages = new ArrayList<RawMessage>();
+                while (demodulator.nextMessage(view)) messages.add(view.toRawMessage());
+                assertEquals(expected, messages);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveSampleInputTest {
+
+    private static ReadableByteChannel channelOf(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    void liveSampleInputConstructorThrowsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new LiveSampleInput(channelOf(new byte[0]), 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new LiveSampleInput(channelOf(new byte[0]), 7, 4));
+        assertThrows(IllegalArgumentException.class, () -> new LiveSampleInput(channelOf(new byte[0]), 8, 0));
+        assertThrows(NullPointerException.class, () -> new LiveSampleInput(null, 8, 4));
+    }
+
+    @Test
+    void liveSampleInputReturnsAllTheBytesWhenTheConsumerKeepsUp() throws IOException {
+        var rng = newRandom();
+        byte[] bytes = new byte[100_001];
+        rng.nextBytes(bytes);
+        try (var input = new LiveSampleInput(channelOf(bytes), 1 << 10, 1 << 8)) {
+            byte[] read = input.readAllBytes();
+            assertArrayEquals(bytes, read);
+            assertEquals(-1, input.read());
+
+            var statistics = input.statistics();
+            assertEquals(bytes.length / 2, statistics.samplesRead());
+            assertEquals(0, statistics.droppedSamples());
+            assertEquals(0, statistics.fill());
+        }
+    }
+
+    @Test
+    void liveSampleInputDropsSamplesWhenNoBufferIsFree() throws IOException, InterruptedException {
+        int bufferBytes = 1 << 10;
+        byte[] bytes = new byte[10 * bufferBytes];
+        for (int i = 0; i < bytes.length; ++i) bytes[i] = (byte) (i / bufferBytes);
+        try (var input = new LiveSampleInput(channelOf(bytes), bufferBytes, 2)) {
+            while (input.statistics().samplesRead() < bytes.length / 2) Thread.sleep(1);
+
+            var statistics = input.statistics();
+            assertEquals(8 * bufferBytes / 2, statistics.droppedSamples());
+            assertEquals(1, statistics.fill());
+            assertTrue(statistics.samplesPerSecond() > 0);
+            assertArrayEquals(Arrays.copyOf(bytes, 2 * bufferBytes), input.readAllBytes());
+        }
+    }
+
+    @Test
+    void liveSampleInputGivesTheSameMessagesAsTheStream() throws IOException {
+        byte[] samples = SyntheticSamples.withMessages(1 << 21);
+        List<RawMessage> expected = SyntheticSamples.demodulateSequentially(samples);
+        assertFalse(expected.isEmpty());
+
+        try (var input = new LiveSampleInput(channelOf(samples), 1 << 12, 1 << 10)) {
+            var demodulator = new AdsbDemodulator(input, AdsbDemodulator.ScanMode.BATCH);
+            var messages = new ArrayList<RawMessage>();
+            RawMessage m;
+            while ((m = demodulator.nextMessage()) != null) messages.add(m);
+            assertEquals(expected, messages);
+        }
+    }
+
+    @Test
+    void liveSampleInputThrowsTheErrorOfTheChannelAfterItsBytes() {
+        byte[] bytes = {1, 2, 3, 4};
+        InputStream failing = new InputStream() {
+            private int index = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (index < bytes.length) return bytes[index++];
+                throw new IOException("radio unplugged");
+            }
+        };
+        var input = new LiveSampleInput(Channels.newChannel(failing), 2, 4);
+        assertThrows(IOException.class, () -> {
+            byte[] read = new byte[bytes.length];
+            assertEquals(bytes.length, input.readNBytes(read, 0, read.length));
+            assertArrayEquals(bytes, read);
+            input.read();
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelAdsbDemodulatorTest {
+    private static List<RawMessage> demodulate(SampleFile samples, int threads) throws IOException {
+        var pool = new ForkJoinPool(threads);
+        try (var d = new ParallelAdsbDemodulator(samples, pool)) {
+            var messages = new ArrayList<RawMessage>();
+            RawMessage m;
+            while ((m = d.nextMessage()) != null) messages.add(m);
+            return messages;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelDemodulatorNextMessageReturnsNullForEmptyFile(@TempDir Path dir) throws IOException {
+        assertEquals(List.of(), demodulate(SyntheticSamples.sampleFile(dir, new byte[0]), 2));
+        assertEquals(List.of(), demodulate(SyntheticSamples.sampleFile(dir, new byte[2 * 1000]), 2));
+    }
+
+    @Test
+    void parallelDemodulatorNextMessageWorksOnTinySamples(@TempDir Path dir) throws IOException {
+        var samples = SyntheticSamples.sampleFile(dir, Base64.getMimeDecoder().decode(AdsbDemodulatorTest.SAMPLES_BASE64));
+        var messages = demodulate(samples, 2);
+        assertEquals(1, messages.size());
+        assertEquals(14100, messages.get(0).timeStampNs());
+        assertEquals("8D44CE6858A3860B09465B3D3696", messages.get(0).bytes().toString());
+    }
+
+    @Test
+    void parallelDemodulatorProducesSameMessagesAsSequentialOne(@TempDir Path dir) throws IOException {
+        var bytes = SyntheticSamples.withMessages(10_000_000);
+        var samples = SyntheticSamples.sampleFile(dir, bytes);
+        var expected = SyntheticSamples.demodulateSequentially(bytes);
+        assertTrue(expected.size() > 300);
+        for (var threads = 1; threads <= 3; ++threads)
+            assertEquals(expected, demodulate(samples, threads));
+    }
+
+    @Test
+    void parallelDemodulatorProducesSameMessagesAsSequentialOneOnRange(@TempDir Path dir) throws IOException {
+        var bytes = SyntheticSamples.withMessages(10_000_000);
+        var samples = SyntheticSamples.sampleFile(dir, bytes);
+        var range = samples.range(1_234_566, 4_400_000);
+        var expected = new ArrayList<RawMessage>();
+        var sequential = new AdsbDemodulator(range, AdsbDemodulator.ScanMode.WINDOW);
+        RawMessage m;
+        while ((m = sequential.nextMessage()) != null) expected.add(m);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, demodulate(range, 2));
+    }
+
+    @Test
+    void parallelDemodulatorCanBeClosedBeforeTheEnd(@TempDir Path dir) throws IOException {
+        var bytes = SyntheticSamples.withMessages(10_000_000);
+        var expected = SyntheticSamples.demodulateSequentially(bytes);
+        var d = new ParallelAdsbDemodulator(SyntheticSamples.sampleFile(dir, bytes));
+        var messages = new ArrayList<RawMessage>();
+        try {
+            messages.add(d.nextMessage());
+        } finally {
+            d.close();
+        }
+        RawMessage m;
+        while ((m = d.nextMessage()) != null) messages.add(m);
+
+        assertTrue(messages.size() < expected.size());
+        assertEquals(expected.subList(0, messages.size()), messages);
+    }
+}
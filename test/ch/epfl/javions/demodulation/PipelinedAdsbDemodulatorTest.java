@@ -0,0 +1,65 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedAdsbDemodulatorTest {
+    private static List<RawMessage> demodulate(byte[] samples, int threads) throws IOException {
+        try (var d = new PipelinedAdsbDemodulator(new ByteArrayInputStream(samples), threads)) {
+            var messages = new ArrayList<RawMessage>();
+            RawMessage m;
+            while ((m = d.nextMessage()) != null) messages.add(m);
+            return messages;
+        }
+    }
+
+    @Test
+    void pipelinedDemodulatorConstructorThrowsWithInvalidThreadCount() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PipelinedAdsbDemodulator(InputStream.nullInputStream(), 0));
+    }
+
+    @Test
+    void pipelinedDemodulatorNextMessageReturnsNullForEmptyStream() throws IOException {
+        assertEquals(List.of(), demodulate(new byte[0], 1));
+    }
+
+    @Test
+    void pipelinedDemodulatorNextMessageWorksOnTinySamples() throws IOException {
+        var samples = Base64.getMimeDecoder().decode(AdsbDemodulatorTest.SAMPLES_BASE64);
+        var messages = demodulate(samples, 2);
+        assertEquals(1, messages.size());
+        assertEquals(14100, messages.get(0).timeStampNs());
+        assertEquals("8D44CE6858A3860B09465B3D3696", messages.get(0).bytes().toString());
+    }
+
+    @Test
+    void pipelinedDemodulatorProducesSameMessagesAsSequentialOne() throws IOException {
+        var samples = SyntheticSamples.withMessages(3_000_000);
+        var expected = SyntheticSamples.demodulateSequentially(samples);
+        assertTrue(expected.size() > 100);
+        for (var threads = 1; threads <= 4; ++threads)
+            assertEquals(expected, demodulate(samples, threads));
+    }
+
+    @Test
+    void pipelinedDemodulatorReportsThroughputOfEveryStage() throws IOException {
+        var samples = SyntheticSamples.withMessages(1_000_000);
+        try (var d = new PipelinedAdsbDemodulator(new ByteArrayInputStream(samples), 2)) {
+            while (d.nextMessage() != null) ;
+            var throughput = d.throughput();
+            assertEquals(PipelinedAdsbDemodulator.Stage.values().length, throughput.size());
+            assertEquals(samples.length / 4, throughput.get(0).samples());
+            for (var stage : throughput) assertTrue(stage.samples() > 0);
+        }
+    }
+}
@@ -271,4 +271,24 @@ class PowerComputerTest {
             }
         }
     }
+
+    @Test
+    void powerComputerSkipBatchKeepsHistoryForNextBatch() throws IOException {
+        var samples = SyntheticSamples.withMessages(3 * 64 * 4);
+        try (var s1 = new ByteArrayInputStream(samples); var s2 = new ByteArrayInputStream(samples)) {
+            var skipping = new PowerComputer(s1, 64);
+            var reading = new PowerComputer(s2, 64);
+            var expected = new int[64];
+            var actual = new int[64];
+
+            assertEquals(64, skipping.skipBatch());
+            reading.readBatch(expected);
+            assertEquals(64, skipping.readBatch(actual));
+            assertEquals(64, reading.readBatch(expected));
+            assertArrayEquals(expected, actual);
+
+            assertEquals(64, skipping.skipBatch());
+            assertEquals(0, skipping.skipBatch());
+        }
+    }
 }
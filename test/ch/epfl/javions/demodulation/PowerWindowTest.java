@@ -1,5 +1,6 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
@@ -148,4 +149,52 @@ class PowerWindowTest {
         }
         return bytes;
     }
-}
\ No newline at end of file
+
+    @Test
+    void powerWindowAdvanceByGivesSameWindowsAsAdvance() throws IOException {
+        var samples = SyntheticSamples.withMessages(bytesForPowerSamples(5 * BATCH_SIZE + 321));
+        var rng = TestRandomizer.newRandom();
+        try (var s1 = new ByteArrayInputStream(samples); var s2 = new ByteArrayInputStream(samples)) {
+            var jumping = new PowerWindow(s1, STANDARD_WINDOW_SIZE);
+            var stepping = new PowerWindow(s2, STANDARD_WINDOW_SIZE);
+            while (stepping.isFull()) {
+                var offset = rng.nextInt(4) == 0 ? rng.nextInt(BATCH_SIZE + 1) : rng.nextInt(2 * STANDARD_WINDOW_SIZE);
+                jumping.advanceBy(offset);
+                for (var i = 0; i < offset; ++i) stepping.advance();
+
+                assertEquals(stepping.position(), jumping.position());
+                assertEquals(stepping.isFull(), jumping.isFull());
+                if (stepping.isFull()) {
+                    for (var i = 0; i < STANDARD_WINDOW_SIZE; ++i) assertEquals(stepping.get(i), jumping.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void powerWindowSkipBatchesGivesSameWindowAsAdvanceBy() throws IOException {
+        var samples = SyntheticSamples.withMessages(bytesForPowerSamples(4 * BATCH_SIZE));
+        try (var s1 = new ByteArrayInputStream(samples); var s2 = new ByteArrayInputStream(samples)) {
+            var skipping = new PowerWindow(s1, STANDARD_WINDOW_SIZE);
+            var advancing = new PowerWindow(s2, STANDARD_WINDOW_SIZE);
+            skipping.advanceBy(100);
+            advancing.advanceBy(100);
+
+            skipping.skipBatches(2);
+            advancing.advanceBy(2 * BATCH_SIZE);
+            assertEquals(advancing.position(), skipping.position());
+            for (var i = 0; i < STANDARD_WINDOW_SIZE; ++i) assertEquals(advancing.get(i), skipping.get(i));
+
+            skipping.skipBatches(5);
+            assertFalse(skipping.isFull());
+        }
+    }
+
+    @Test
+    void powerWindowSkipBatchesThrowsWithNegativeCount() throws IOException {
+        try (var s = InputStream.nullInputStream()) {
+            var w = new PowerWindow(s, STANDARD_WINDOW_SIZE);
+            assertThrows(IllegalArgumentException.class, () -> w.skipBatches(-1));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleFileTest {
+    private static List<RawMessage> demodulate(SampleFile samples, AdsbDemodulator.ScanMode mode) throws IOException {
+        var demodulator = new AdsbDemodulator(samples, mode);
+        var messages = new ArrayList<RawMessage>();
+        RawMessage m;
+        while ((m = demodulator.nextMessage()) != null) messages.add(m);
+        return messages;
+    }
+
+    @Test
+    void sampleFileOpenMapsWholeFile(@TempDir Path dir) throws IOException {
+        var samples = SyntheticSamples.sampleFile(dir, new byte[2 * 1001]);
+        assertEquals(1000, samples.sampleCount());
+        assertEquals(0, samples.firstPosition());
+    }
+
+    @Test
+    void sampleFileRangeRoundsBoundsDownToEvenSamples(@TempDir Path dir) throws IOException {
+        var samples = SyntheticSamples.sampleFile(dir, new byte[2 * 1000]);
+        var range = samples.range(101, 503);
+        assertEquals(402, range.sampleCount());
+        assertEquals(50, range.firstPosition());
+        assertEquals(100, samples.timeRange(100 * 50, 200 * 50).sampleCount());
+        assertEquals(1000, samples.timeRange(0, Long.MAX_VALUE).sampleCount());
+    }
+
+    @Test
+    void sampleFileRangeThrowsIfBoundsAreInvalid(@TempDir Path dir) throws IOException {
+        var samples = SyntheticSamples.sampleFile(dir, new byte[2 * 1000]);
+        assertThrows(IllegalArgumentException.class, () -> samples.range(-2, 10));
+        assertThrows(IllegalArgumentException.class, () -> samples.range(10, 8));
+        assertThrows(IllegalArgumentException.class, () -> samples.range(0, 1002));
+        assertThrows(IllegalArgumentException.class, () -> samples.timeRange(100, 50));
+    }
+
+    @Test
+    void powerComputerComputesSamePowersFromSampleFileAsFromStream(@TempDir Path dir) throws IOException {
+        var bytes = SyntheticSamples.withMessages(1 << 20);
+        var samples = SyntheticSamples.sampleFile(dir, bytes);
+        var batchSize = 1 << 12;
+
+        var expected = new int[bytes.length / 4];
+        var streamComputer = new PowerComputer(new ByteArrayInputStream(bytes), batchSize);
+        var batch = new int[batchSize];
+        for (var i = 0; i < expected.length; i += batchSize) {
+            var read = streamComputer.readBatch(batch);
+            System.arraycopy(batch, 0, expected, i, read);
+        }
+
+        for (var from : new long[]{0, 2, 6, 10, 4 * batchSize - 2, 123_456}) {
+            var fileComputer = new PowerComputer(samples.range(from, samples.sampleCount()), batchSize);
+            var i = (int) (from / 2);
+            int read;
+            do {
+                read = fileComputer.readBatch(batch);
+                for (var j = 0; j < read; ++j) assertEquals(expected[i + j], batch[j]);
+                i += read;
+            } while (read == batchSize);
+            assertEquals(expected.length, i);
+        }
+    }
+
+    @Test
+    void adsbDemodulatorFindsSameMessagesInSampleFileAsInStream(@TempDir Path dir) throws IOException {
+        var bytes = SyntheticSamples.withMessages(1 << 21);
+        var samples = SyntheticSamples.sampleFile(dir, bytes);
+        var expected = SyntheticSamples.demodulateSequentially(bytes);
+        assertFalse(expected.isEmpty());
+
+        for (var mode : AdsbDemodulator.ScanMode.values()) {
+            assertEquals(expected, demodulate(samples, mode));
+        }
+    }
+
+    @Test
+    void adsbDemodulatorKeepsAbsoluteTimeStampsInSampleFileRange(@TempDir Path dir) throws IOException {
+        var bytes = SyntheticSamples.withMessages(1 << 21);
+        var samples = SyntheticSamples.sampleFile(dir, bytes);
+        var expected = SyntheticSamples.demodulateSequentially(bytes);
+        var first = expected.size() / 2;
+        var position = expected.get(first).timeStampNs() / 100;
+
+        for (var mode : AdsbDemodulator.ScanMode.values()) {
+            var tail = samples.range(2 * (position - 1), samples.sampleCount());
+            assertEquals(expected.subList(first, expected.size()), demodulate(tail, mode));
+
+            var justEnough = samples.range(2 * (position - 1), 2 * (position + 1200));
+            assertEquals(List.of(expected.get(first)), demodulate(justEnough, mode));
+
+            var tooShort = samples.range(2 * (position - 1), 2 * (position + 1199));
+            assertEquals(List.of(), demodulate(tooShort, mode));
+        }
+    }
+}
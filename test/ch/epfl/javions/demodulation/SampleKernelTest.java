@@ -0,0 +1,166 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SampleKernelTest {
+    private static SampleKernel vectorKernel() {
+        var vector = SampleKernel.vector();
+        assumeTrue(vector.isPresent(), "the Vector API is not available");
+        return vector.get();
+    }
+
+    private static byte[] randomSampleBytes(int count) {
+        var rng = TestRandomizer.newRandom();
+        var bytes = new byte[2 * count];
+        for (var i = 0; i < count; ++i) {
+            var sample = rng.nextInt(1 << 12);
+            bytes[2 * i] = (byte) sample;
+            bytes[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return bytes;
+    }
+
+    @Test
+    void sampleKernelSelectedIsVectorOneWhenAvailable() {
+        assertEquals(SampleKernel.vector().orElse(SampleKernel.SCALAR), SampleKernel.selected());
+    }
+
+    @Test
+    void vectorKernelDecodesLikeScalarKernelOnRandomInputs() {
+        var vector = vectorKernel();
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; ++i) {
+            var count = rng.nextInt(1, 2_000);
+            var bytes = randomSampleBytes(count);
+            var expected = new short[count];
+            var actual = new short[count];
+            SampleKernel.SCALAR.decode(bytes, expected, count);
+            vector.decode(bytes, actual, count);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    private static ByteBuffer littleEndian(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static short[] randomHistory() {
+        var rng = TestRandomizer.newRandom();
+        var history = new short[SampleKernel.HISTORY_SIZE];
+        for (var j = 0; j < history.length; ++j) history[j] = (short) rng.nextInt(-2048, 2048);
+        return history;
+    }
+
+    private static int[] referencePowers(short[] history, byte[] bytes, int powerCount) {
+        var samples = new short[history.length + bytes.length / 2];
+        System.arraycopy(history, 0, samples, 0, history.length);
+        for (var i = 0; i < bytes.length / 2; ++i) {
+            samples[history.length + i] = (short) ((((bytes[2 * i + 1] & 0xFF) << 8) | (bytes[2 * i] & 0xFF)) - 2048);
+        }
+        var powers = new int[powerCount];
+        for (var n = 0; n < powerCount; ++n) {
+            var k = 2 * n + history.length;
+            var b = samples[k - 6] - samples[k - 4] + samples[k - 2] - samples[k];
+            var a = samples[k - 5] - samples[k - 3] + samples[k - 1] - samples[k + 1];
+            powers[n] = a * a + b * b;
+        }
+        return powers;
+    }
+
+    @Test
+    void scalarKernelComputesPowersFromRawBytesLikeDecodedSamples() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; ++i) {
+            var powerCount = rng.nextInt(1, 2_000);
+            var bytes = randomSampleBytes(2 * powerCount);
+            var history = randomHistory();
+
+            var expected = referencePowers(history, bytes, powerCount);
+            var actual = new int[powerCount];
+            SampleKernel.SCALAR.computePowers(history, littleEndian(bytes), powerCount, actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void scalarKernelKeepsLastSamplesAsHistory() {
+        var bytes = new byte[2 * 4];
+        for (var i = 0; i < 4; ++i) {
+            bytes[2 * i] = (byte) (2048 + i + 1);
+            bytes[2 * i + 1] = (byte) ((2048 + i + 1) >> 8);
+        }
+        var history = new short[]{-6, -5, -4, -3, -2, -1};
+        SampleKernel.SCALAR.computePowers(history, littleEndian(bytes), 1, new int[1]);
+        assertArrayEquals(new short[]{-4, -3, -2, -1, 1, 2}, history);
+        SampleKernel.SCALAR.computePowers(history, littleEndian(bytes), 2, new int[2]);
+        assertArrayEquals(new short[]{1, 2, 1, 2, 3, 4}, history);
+    }
+
+    @Test
+    void vectorKernelComputesPowersLikeScalarKernelOnRandomInputs() {
+        var vector = vectorKernel();
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; ++i) {
+            var powerCount = rng.nextInt(1, 2_000);
+            var bytes = randomSampleBytes(2 * powerCount);
+            var expectedHistory = randomHistory();
+            var actualHistory = expectedHistory.clone();
+
+            var expected = new int[powerCount];
+            var actual = new int[powerCount];
+            SampleKernel.SCALAR.computePowers(expectedHistory, littleEndian(bytes), powerCount, expected);
+            vector.computePowers(actualHistory, littleEndian(bytes), powerCount, actual);
+            assertArrayEquals(expected, actual);
+            assertArrayEquals(expectedHistory, actualHistory);
+        }
+    }
+
+    @Test
+    void vectorKernelComputesPowersOfExtremeSamples() {
+        var vector = vectorKernel();
+        var bytes = new byte[2 * 256];
+        for (var j = 0; j < 256; ++j) {
+            var sample = (j & 2) == 0 ? 0 : 4095;
+            bytes[2 * j] = (byte) sample;
+            bytes[2 * j + 1] = (byte) (sample >> 8);
+        }
+        var expected = new int[128];
+        var actual = new int[128];
+        SampleKernel.SCALAR.computePowers(new short[SampleKernel.HISTORY_SIZE], littleEndian(bytes), 128, expected);
+        vector.computePowers(new short[SampleKernel.HISTORY_SIZE], littleEndian(bytes), 128, actual);
+        assertArrayEquals(expected, actual);
+        assertEquals(2 * 8190 * 8190, expected[127]);
+    }
+
+    @Test
+    void vectorKernelComputesSamePowersAsScalarKernelOnSamplesFile() throws IOException {
+        var vector = vectorKernel();
+        byte[] bytes;
+        try (var s = new FileInputStream("resources/samples.bin")) {
+            bytes = s.readAllBytes();
+        }
+        var batchSize = 1 << 10;
+        try (var s1 = new ByteArrayInputStream(bytes); var s2 = new ByteArrayInputStream(bytes)) {
+            var scalarComputer = new PowerComputer(s1, batchSize, SampleKernel.SCALAR);
+            var vectorComputer = new PowerComputer(s2, batchSize, vector);
+            var expected = new int[batchSize];
+            var actual = new int[batchSize];
+            int read;
+            do {
+                read = scalarComputer.readBatch(expected);
+                assertEquals(read, vectorComputer.readBatch(actual));
+                assertArrayEquals(expected, actual);
+            } while (read == batchSize);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.test.TestRandomizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+final class SyntheticSamples {
+    private SyntheticSamples() {}
+
+    // Writes the given samples in a file of the given directory, and maps it.
+    static SampleFile sampleFile(Path dir, byte[] bytes) throws IOException {
+        var path = dir.resolve("samples.bin");
+        Files.write(path, bytes);
+        return SampleFile.open(path);
+    }
+
+    // Builds a stream made of low noise in which the samples of AdsbDemodulatorTest (which contain one message) are
+    // copied many times, sometimes truncated, so that messages fall on batch and segment boundaries.
+    static byte[] withMessages(int byteCount) {
+        var message = Base64.getMimeDecoder().decode(AdsbDemodulatorTest.SAMPLES_BASE64);
+        var rng = TestRandomizer.newRandom();
+        var samples = new byte[byteCount];
+        var i = 0;
+        while (i < byteCount) {
+            var gap = 2 * rng.nextInt(8_000);
+            for (var j = 0; j < gap && i < byteCount; j += 2, i += 2) {
+                var sample = 2048 + rng.nextInt(-12, 13);
+                samples[i] = (byte) sample;
+                samples[i + 1] = (byte) (sample >> 8);
+            }
+            var from = rng.nextInt(4) == 0 ? 2 * rng.nextInt(1_500) : 0;
+            var length = Math.min(message.length - from, byteCount - i);
+            System.arraycopy(message, from, samples, i, length);
+            i += length;
+        }
+        return samples;
+    }
+
+    record Capture(byte[] samples, List<String> cleanMessages) {}
+
+    // Builds a capture of about 12 MB in which the 384 real messages of AdsbDemodulatorTest are modulated, in order,
+    // as the AirSpy would sample them (a 5 MHz carrier with a random phase and amplitude, sampled at 20 MHz, plus
+    // noise). One message out of eight is garbled by another one starting during it, and Mode S short replies (DF 11)
+    // are scattered between them. The messages that are not garbled are returned with the samples.
+    static Capture withRealMessages() {
+        var rng = TestRandomizer.newRandom();
+        var messages = AdsbDemodulatorTest.EXPECTED_RAW_MESSAGE_DATA;
+        var amplitudes = new int[messages.size() * 15_000];
+        var phases = new int[amplitudes.length];
+        var clean = new ArrayList<String>();
+        var position = 2_000;
+        for (var data : messages) {
+            var bits = HexFormat.of().parseHex(data.bytes());
+            var amplitude = rng.nextInt(80, 800);
+            modulate(amplitudes, phases, position, bits, amplitude, rng.nextInt(4));
+            if (rng.nextInt(8) == 0) {
+                var other = HexFormat.of().parseHex(messages.get(rng.nextInt(messages.size())).bytes());
+                modulate(amplitudes, phases, position + rng.nextInt(300, 900), other,
+                        rng.nextInt(amplitude / 2, 2 * amplitude), rng.nextInt(4));
+            } else {
+                clean.add(data.bytes());
+            }
+            position += 1_200 + rng.nextInt(1_500, 8_000);
+
+            if (rng.nextInt(3) == 0) {
+                var shortReply = new byte[7];
+                rng.nextBytes(shortReply);
+                shortReply[0] = (byte) (11 << 3 | shortReply[0] & 0b111);
+                modulate(amplitudes, phases, position, shortReply, rng.nextInt(80, 800), rng.nextInt(4));
+                position += 600 + rng.nextInt(1_000, 2_000);
+            }
+        }
+
+        var sampleCount = 2 * position;
+        var samples = new byte[2 * sampleCount];
+        for (var k = 0; k < sampleCount; ++k) {
+            // The carrier is at a quarter of the sampling frequency, so its samples are 1, 0, -1, 0 times A
+            var carrier = switch ((k + phases[k / 2]) & 0b11) {
+                case 0 -> 1;
+                case 2 -> -1;
+                default -> 0;
+            };
+            var sample = Math.max(0, Math.min(4095,
+                    2048 + carrier * amplitudes[k / 2] + rng.nextInt(-12, 13)));
+            samples[2 * k] = (byte) sample;
+            samples[2 * k + 1] = (byte) (sample >> 8);
+        }
+        return new Capture(samples, clean);
+    }
+
+    // Adds the pulses of the given message, starting at the given power sample : the four pulses of the preamble,
+    // then each bit as a pulse in the first (1) or second (0) half of its microsecond.
+    private static void modulate(int[] amplitudes, int[] phases, int position, byte[] bytes, int amplitude,
+                                 int phase) {
+        for (var pulse : new int[]{0, 10, 35, 45}) pulse(amplitudes, phases, position + pulse, amplitude, phase);
+        for (var i = 0; i < 8 * bytes.length; ++i) {
+            var bit = (bytes[i / 8] >> (7 - i % 8)) & 1;
+            pulse(amplitudes, phases, position + 80 + 10 * i + (bit == 1 ? 0 : 5), amplitude, phase);
+        }
+    }
+
+    private static void pulse(int[] amplitudes, int[] phases, int position, int amplitude, int phase) {
+        for (var i = position; i < position + 5; ++i) {
+            // The strongest signal wins where two messages overlap
+            if (amplitude > amplitudes[i]) {
+                amplitudes[i] = amplitude;
+                phases[i] = phase;
+            }
+        }
+    }
+
+    static List<RawMessage> demodulateSequentially(byte[] samples) {
+        try (InputStream s = new ByteArrayInputStream(samples)) {
+            var demodulator = new AdsbDemodulator(s);
+            var messages = new ArrayList<RawMessage>();
+            RawMessage m;
+            while ((m = demodulator.nextMessage()) != null) messages.add(m);
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
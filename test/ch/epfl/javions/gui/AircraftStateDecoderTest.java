@@ -0,0 +1,174 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.adsb.*;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import static ch.epfl.test.TestMessages.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AircraftStateDecoderTest {
+    private static final List<IcaoAddress> ADDRESSES = List.of(
+            IcaoAddress.of(0x4B1814), IcaoAddress.of(0x39D300), IcaoAddress.of(0xABCDEF));
+
+    // Messages of random kinds, some of them sharing their time stamp, as the pairs of positions and altitudes that
+    // replace the last point of the trajectory.
+    private static List<Message> randomMessages(RandomGenerator rng, int count) {
+        var messages = new ArrayList<Message>();
+        var timeStampNs = 0L;
+        var x = new double[ADDRESSES.size()];
+        var y = new double[ADDRESSES.size()];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = rng.nextDouble(0.2, 0.8);
+            y[i] = rng.nextDouble(0.2, 0.8);
+        }
+        for (int i = 0; i < count; ++i) {
+            if (rng.nextInt(4) != 0) timeStampNs += rng.nextLong(1, 2_000_000_000L);
+            int a = rng.nextInt(ADDRESSES.size());
+            var address = ADDRESSES.get(a);
+            switch (rng.nextInt(4)) {
+                case 0 -> messages.add(new AircraftIdentificationMessage(timeStampNs, address, 0xA0 | rng.nextInt(8),
+                        new CallSign("ABC" + rng.nextInt(1000))));
+                case 1 -> messages.add(new AirborneVelocityMessage(timeStampNs, address,
+                        rng.nextDouble(0, 300), rng.nextDouble(0, 2 * Math.PI)));
+                default -> {
+                    x[a] += rng.nextDouble(-1e-4, 1e-4);
+                    y[a] += rng.nextDouble(-1e-4, 1e-4);
+                    messages.add(new AirbornePositionMessage(timeStampNs, address,
+                            rng.nextInt(5) == 0 ? Double.NaN : rng.nextDouble(0, 12_000), rng.nextInt(2), x[a], y[a]));
+                }
+            }
+        }
+        return messages;
+    }
+
+    private static void assertSameState(ObservableAircraftState expected, ObservableAircraftState actual) {
+        assertEquals(expected.getIcaoAddress(), actual.getIcaoAddress());
+        assertEquals(expected.getTimeStampNs(), actual.getTimeStampNs());
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.getCallSign(), actual.getCallSign());
+        assertEquals(expected.getPosition(), actual.getPosition());
+        assertEquals(expected.getAltitude(), actual.getAltitude());
+        assertEquals(expected.getVelocity(), actual.getVelocity());
+        assertEquals(expected.getTrackOrHeading(), actual.getTrackOrHeading());
+        assertEquals(expected.getTrajectoryUnmodifiable(), actual.getTrajectoryUnmodifiable());
+    }
+
+    @Test
+    void aircraftStateChangesAppliedAsDeltasGiveSameStateAsSetters() {
+        var rng = TestRandomizer.newRandom();
+        for (int iteration = 0; iteration < 20; ++iteration) {
+            var expected = new ArrayList<AircraftStateAccumulator<ObservableAircraftState>>();
+            var changes = new ArrayList<AircraftStateAccumulator<AircraftStateChanges>>();
+            var actual = new ArrayList<ObservableAircraftState>();
+            for (var address : ADDRESSES) {
+                expected.add(new AircraftStateAccumulator<>(new ObservableAircraftState(address, null)));
+                changes.add(new AircraftStateAccumulator<>(new AircraftStateChanges(address)));
+                actual.add(new ObservableAircraftState(address, null));
+            }
+
+            var trajectoryPoints = 0;
+            for (var message : randomMessages(rng, 500)) {
+                int a = ADDRESSES.indexOf(message.icaoAddress());
+                expected.get(a).update(message);
+                changes.get(a).update(message);
+                // The changes are taken at random times, so that several updates are merged into a single delta
+                if (rng.nextInt(5) == 0) {
+                    for (int i = 0; i < ADDRESSES.size(); ++i) {
+                        var setter = changes.get(i).stateSetter();
+                        if (setter.hasChanges()) actual.get(i).apply(setter.take());
+                        assertFalse(setter.hasChanges());
+                    }
+                }
+            }
+            for (int i = 0; i < ADDRESSES.size(); ++i) {
+                actual.get(i).apply(changes.get(i).stateSetter().take());
+                assertSameState(expected.get(i).stateSetter(), actual.get(i));
+                trajectoryPoints += actual.get(i).getTrajectoryUnmodifiable().size();
+            }
+            assertTrue(trajectoryPoints > 0);
+        }
+    }
+
+    @Test
+    void aircraftStateChangesSetsOnlyChangedProperties() {
+        var changes = new AircraftStateChanges(ADDRESSES.get(0));
+        assertFalse(changes.hasChanges());
+        changes.setLastMessageTimeStampNs(100);
+        changes.setVelocity(12);
+        changes.setVelocity(13);
+        var delta = changes.take();
+        assertEquals(AircraftStateDelta.TIME_STAMP | AircraftStateDelta.VELOCITY, delta.changes());
+        assertEquals(13, delta.velocity());
+        assertFalse(changes.hasChanges());
+        assertEquals(100, changes.timeStampNs());
+    }
+
+    @Test
+    void aircraftStateDecoderPublishesOneDeltaPerChangedAircraft() {
+        var decoder = new AircraftStateDecoder(new RawMessageRingBuffer(16, RawMessageRingBuffer.OverflowPolicy.BLOCK));
+        assertNull(decoder.pollDelta());
+        for (int i = 0; i < 5; ++i) {
+            decoder.process(rawMessage(1000L * i, IDENTIFICATION));
+            decoder.process(rawMessage(1000L * i + 1, VELOCITY));
+        }
+        assertEquals(10, decoder.messageCount());
+        assertNull(decoder.pollDelta());
+
+        decoder.publish();
+        var first = decoder.pollDelta();
+        var second = decoder.pollDelta();
+        assertNull(decoder.pollDelta());
+        assertEquals(IcaoAddress.of(0x3991E1), first.icaoAddress());
+        assertTrue(first.has(AircraftStateDelta.CALL_SIGN));
+        assertEquals(4000, first.timeStampNs());
+        assertEquals(IcaoAddress.of(0x485020), second.icaoAddress());
+        assertTrue(second.has(AircraftStateDelta.VELOCITY));
+        assertFalse(second.has(AircraftStateDelta.CALL_SIGN));
+
+        decoder.publish();
+        assertNull(decoder.pollDelta());
+    }
+
+    @Test
+    void aircraftStateDecoderPurgePublishesRemovals() {
+        var decoder = new AircraftStateDecoder(new RawMessageRingBuffer(16, RawMessageRingBuffer.OverflowPolicy.BLOCK));
+        decoder.process(rawMessage(0, IDENTIFICATION));
+        decoder.process(rawMessage(60_000_000_000L, VELOCITY));
+        decoder.publish();
+        decoder.purge();
+        assertFalse(decoder.pollDelta().has(AircraftStateDelta.REMOVED));
+        assertFalse(decoder.pollDelta().has(AircraftStateDelta.REMOVED));
+        assertNull(decoder.pollDelta());
+
+        decoder.process(rawMessage(60_000_000_001L, VELOCITY));
+        decoder.publish();
+        decoder.purge();
+        assertEquals(IcaoAddress.of(0x485020), decoder.pollDelta().icaoAddress());
+        var removal = decoder.pollDelta();
+        assertTrue(removal.has(AircraftStateDelta.REMOVED));
+        assertEquals(IcaoAddress.of(0x3991E1), removal.icaoAddress());
+        assertNull(decoder.pollDelta());
+    }
+
+    @Test
+    void aircraftStateDecoderStopsOnceItsInputIsClosedAndEmpty() throws InterruptedException {
+        var input = new RawMessageRingBuffer(16, RawMessageRingBuffer.OverflowPolicy.BLOCK);
+        var decoder = new AircraftStateDecoder(input);
+        assertTrue(input.offer(rawMessage(0, IDENTIFICATION)));
+        assertTrue(input.offer(rawMessage(1, VELOCITY)));
+        input.close();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), decoder::run);
+        assertEquals(2, decoder.messageCount());
+        assertEquals(IcaoAddress.of(0x3991E1), decoder.pollDelta().icaoAddress());
+        assertEquals(IcaoAddress.of(0x485020), decoder.pollDelta().icaoAddress());
+        assertNull(decoder.pollDelta());
+    }
+}
@@ -0,0 +1,142 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.adsb.AircraftStateAccumulator;
+import ch.epfl.javions.adsb.AirbornePositionMessage;
+import ch.epfl.javions.adsb.AirborneVelocityMessage;
+import ch.epfl.javions.adsb.Message;
+import ch.epfl.javions.aircraft.AsyncAircraftDataLoader;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.test.TestRandomizer;
+import javafx.beans.Observable;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObservableAircraftStateTest {
+    private static final IcaoAddress ADDRESS = IcaoAddress.of(0x4B1814);
+
+    private static List<Message> messages(int count) {
+        return messages(count, ADDRESS);
+    }
+
+    private static List<Message> messages(int count, IcaoAddress address) {
+        var rng = TestRandomizer.newRandom();
+        var messages = new ArrayList<Message>();
+        long timeStampNs = 0;
+        double x = 0.5, y = 0.5;
+        for (int i = 0; i < count; ++i) {
+            if (rng.nextInt(4) != 0) timeStampNs += rng.nextLong(1, 2_000_000_000L);
+            if (rng.nextInt(3) == 0) {
+                messages.add(new AirborneVelocityMessage(timeStampNs, address, rng.nextDouble(0, 300),
+                        rng.nextDouble(0, 2 * Math.PI)));
+            } else {
+                x += rng.nextDouble(-1e-4, 1e-4);
+                y += rng.nextDouble(-1e-4, 1e-4);
+                messages.add(new AirbornePositionMessage(timeStampNs, address,
+                        rng.nextInt(5) == 0 ? Double.NaN : rng.nextDouble(0, 12_000), rng.nextInt(2), x, y));
+            }
+        }
+        return messages;
+    }
+
+    @Test
+    void observableAircraftStateBatchingGivesSameStateAfterFlush() {
+        var expected = new AircraftStateAccumulator<>(new ObservableAircraftState(ADDRESS, null));
+        var batched = new AircraftStateAccumulator<>(new ObservableAircraftState(ADDRESS, null));
+        var state = batched.stateSetter();
+        state.setBatching(true);
+        assertTrue(state.isBatching());
+
+        int i = 0;
+        for (var message : messages(1000)) {
+            expected.update(message);
+            batched.update(message);
+            if (++i % 7 == 0) state.flush();
+        }
+        state.setBatching(false);
+        assertFalse(state.isBatching());
+
+        var e = expected.stateSetter();
+        assertEquals(e.getTimeStampNs(), state.getTimeStampNs());
+        assertEquals(e.getPosition(), state.getPosition());
+        assertEquals(e.getAltitude(), state.getAltitude());
+        assertEquals(e.getVelocity(), state.getVelocity());
+        assertEquals(e.getTrackOrHeading(), state.getTrackOrHeading());
+        assertFalse(e.getTrajectoryUnmodifiable().isEmpty());
+        assertEquals(e.getTrajectoryUnmodifiable(), state.getTrajectoryUnmodifiable());
+    }
+
+    @Test
+    void observableAircraftStateBatchingNotifiesOncePerFlush() {
+        var state = new ObservableAircraftState(ADDRESS, null);
+        var accumulator = new AircraftStateAccumulator<>(state);
+        var notifications = new int[3];
+        state.lastMessageTimeStampsNsProperty().addListener((Observable o) -> ++notifications[0]);
+        state.geoPosProperty().addListener((Observable o) -> ++notifications[1]);
+        state.getTrajectoryUnmodifiable().addListener((ListChangeListener<ObservableAircraftState.AirbornePos>)
+                c -> ++notifications[2]);
+        state.setBatching(true);
+
+        for (var message : messages(200)) accumulator.update(message);
+        assertArrayEquals(new int[]{0, 0, 0}, notifications);
+        assertEquals(0, state.getTimeStampNs());
+
+        assertTrue(state.flush());
+        assertArrayEquals(new int[]{1, 1, 1}, notifications);
+        assertFalse(state.flush());
+        assertArrayEquals(new int[]{1, 1, 1}, notifications);
+    }
+
+    @Test
+    void observableAircraftStateBatchingCanBeEnabledAfterUpdates() {
+        var expected = new ObservableAircraftState(ADDRESS, null);
+        var state = new ObservableAircraftState(ADDRESS, null);
+        var position = new GeoPos(100, 200);
+        for (var s : List.of(expected, state)) {
+            s.setLastMessageTimeStampNs(10);
+            s.setPosition(position);
+        }
+        state.setBatching(true);
+        for (var s : List.of(expected, state)) s.setAltitude(1000);
+        state.flush();
+        assertEquals(expected.getTrajectoryUnmodifiable(), state.getTrajectoryUnmodifiable());
+        assertEquals(1, state.getTrajectoryUnmodifiable().size());
+    }
+
+    @Test
+    void aircraftStateManagerBatchingOnlyFlushesTheChangedStates() {
+        var manager = new AircraftStateManager(new AsyncAircraftDataLoader(a -> null, Runnable::run));
+        manager.setBatching(true);
+        for (var message : messages(50, IcaoAddress.of(0x3C6481))) manager.updateWithMessage(message);
+        assertTrue(manager.states().isEmpty());
+        manager.flush();
+        assertEquals(1, manager.states().size());
+
+        var other = manager.states().iterator().next();
+        var notifications = new int[1];
+        other.lastMessageTimeStampsNsProperty().addListener((Observable o) -> ++notifications[0]);
+        for (var message : messages(50)) manager.updateWithMessage(message);
+        manager.flush();
+        assertEquals(2, manager.states().size());
+        assertEquals(0, notifications[0]);
+
+        manager.setBatching(false);
+        assertFalse(other.isBatching());
+    }
+
+    @Test
+    void aircraftStateManagerFlushIgnoresThePurgedStates() {
+        var manager = new AircraftStateManager(new AsyncAircraftDataLoader(a -> null, Runnable::run));
+        manager.setBatching(true);
+        for (var message : messages(50, IcaoAddress.of(0x3C6481))) manager.updateWithMessage(message);
+        manager.updateWithMessage(new AirborneVelocityMessage(1_000_000_000_000L, ADDRESS, 100, 1));
+        manager.purge();
+        manager.flush();
+        assertTrue(manager.states().isEmpty());
+    }
+}
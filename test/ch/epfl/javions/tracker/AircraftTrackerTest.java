@@ -0,0 +1,70 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.adsb.CallSign;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static ch.epfl.test.TestMessages.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AircraftTrackerTest {
+    @Test
+    void aircraftTrackerUpdateTracksTheAircraft() {
+        AircraftTracker tracker = new AircraftTracker();
+        assertTrue(tracker.update(rawMessage(100, VELOCITY)));
+        assertTrue(tracker.update(rawMessage(200, IDENTIFICATION)));
+        assertTrue(tracker.update(rawMessage(300, VELOCITY)));
+
+        assertEquals(2, tracker.aircraftCount());
+        assertEquals(3, tracker.messageCount());
+        assertEquals(3, tracker.rawMessageCount());
+
+        TrackedAircraftState identified = tracker.state(new IcaoAddress("3991E1"));
+        assertEquals(new CallSign("AFR13TL"), identified.callSign());
+        assertEquals(200, identified.timeStampNs());
+        assertEquals(1, identified.messageCount());
+        assertNull(identified.position());
+        assertTrue(Double.isNaN(identified.velocity()));
+
+        TrackedAircraftState moving = tracker.state(new IcaoAddress("485020"));
+        assertEquals(300, moving.timeStampNs());
+        assertEquals(2, moving.messageCount());
+        assertFalse(Double.isNaN(moving.velocity()));
+        assertFalse(Double.isNaN(moving.trackOrHeading()));
+        assertNull(moving.callSign());
+
+        assertEquals(List.of(identified, moving), tracker.states());
+        assertNull(tracker.state(new IcaoAddress("ABCDEF")));
+    }
+
+    @Test
+    void aircraftTrackerUpdateIgnoresUnknownMessages() {
+        byte[] bytes = HexFormat.of().parseHex("8D4B17E5F8210002004BB8B1F1AC");
+        RawMessage rawMessage = RawMessage.of(0, bytes);
+        AircraftTracker tracker = new AircraftTracker();
+        assertNotNull(rawMessage);
+        assertFalse(tracker.update(rawMessage));
+        assertEquals(1, tracker.rawMessageCount());
+        assertEquals(0, tracker.messageCount());
+        assertEquals(0, tracker.aircraftCount());
+    }
+
+    @Test
+    void aircraftTrackerPurgeForgetsSilentAircraft() {
+        AircraftTracker tracker = new AircraftTracker();
+        tracker.update(rawMessage(0, VELOCITY));
+        tracker.update(rawMessage(AircraftTracker.MAXIMAL_TIME_BEFORE_SUPPRESSION, IDENTIFICATION));
+        assertEquals(0, tracker.purge());
+        assertEquals(2, tracker.aircraftCount());
+
+        tracker.update(rawMessage(AircraftTracker.MAXIMAL_TIME_BEFORE_SUPPRESSION + 1, IDENTIFICATION));
+        assertEquals(1, tracker.purge());
+        assertEquals(1, tracker.aircraftCount());
+        assertNull(tracker.state(new IcaoAddress("485020")));
+        assertNotNull(tracker.state(new IcaoAddress("3991E1")));
+    }
+}
@@ -0,0 +1,127 @@
+package ch.epfl.javions.tracker;
+
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.epfl.test.TestMessages.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedAircraftTrackerTest {
+    private static List<RawMessage> rawMessages(int aircraftCount, int messageCount) {
+        List<RawMessage> rawMessages = new ArrayList<>();
+        for (int i = 0; i < messageCount; ++i) {
+            RawMessage rawMessage = rawMessage(i * 1000L, i % 2 == 0 ? VELOCITY : IDENTIFICATION,
+                    (i * 7919) % aircraftCount + 1);
+            assertNotNull(rawMessage);
+            rawMessages.add(rawMessage);
+        }
+        return rawMessages;
+    }
+
+    @Test
+    void shardedAircraftTrackerConstructorThrowsIfNoShard() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardedAircraftTracker(0, ShardedAircraftTracker.DEFAULT_QUEUE_CAPACITY));
+    }
+
+    @Test
+    void shardedAircraftTrackerShardOfIsInRange() {
+        try (ShardedAircraftTracker tracker = new ShardedAircraftTracker(3, 16)) {
+            int[] counts = new int[tracker.shardCount()];
+            for (int icaoAddress = 0; icaoAddress < 1 << 12; ++icaoAddress) ++counts[tracker.shardOf(icaoAddress)];
+            for (int count : counts) assertTrue(count > 0);
+        }
+    }
+
+    @Test
+    void shardedAircraftTrackerSnapshotIsTheSameAsWithOneTracker() throws InterruptedException {
+        List<RawMessage> rawMessages = rawMessages(500, 20_000);
+        AircraftTracker expectedTracker = new AircraftTracker();
+        List<AircraftSnapshot> expected = new ArrayList<>();
+        for (RawMessage rawMessage : rawMessages) expectedTracker.update(rawMessage);
+        for (TrackedAircraftState state : expectedTracker.states()) expected.add(AircraftSnapshot.of(state));
+
+        // A small capacity makes the router wait for the shards
+        try (ShardedAircraftTracker tracker = new ShardedAircraftTracker(4, 64)) {
+            for (RawMessage rawMessage : rawMessages) tracker.submit(rawMessage);
+            ShardedAircraftTracker.Snapshot snapshot = tracker.snapshot();
+            assertEquals(rawMessages.size(), snapshot.messageCount());
+            assertEquals(expected, snapshot.aircraft());
+            assertEquals(rawMessages.size(), tracker.messageCount());
+        }
+    }
+
+    @Test
+    void shardedAircraftTrackerSnapshotIsConsistentWhileMessagesAreSubmitted() throws Exception {
+        List<RawMessage> rawMessages = rawMessages(100, 20_000);
+        try (ShardedAircraftTracker tracker = new ShardedAircraftTracker(4, 256)) {
+            Thread router = new Thread(() -> {
+                try {
+                    for (RawMessage rawMessage : rawMessages) tracker.submit(rawMessage);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            router.start();
+
+            long previousCount = 0;
+            for (int i = 0; i < 20; ++i) {
+                ShardedAircraftTracker.Snapshot snapshot = tracker.snapshot();
+                long total = 0;
+                for (AircraftSnapshot aircraft : snapshot.aircraft()) total += aircraft.messageCount();
+                assertEquals(snapshot.messageCount(), total);
+                assertTrue(snapshot.messageCount() >= previousCount);
+                previousCount = snapshot.messageCount();
+            }
+            router.join();
+            assertEquals(rawMessages.size(), tracker.snapshot().messageCount());
+        }
+    }
+
+    @Test
+    void shardedAircraftTrackerRefusesSubmitAndSnapshotOnceClosed() {
+        var tracker = new ShardedAircraftTracker(1, 1);
+        tracker.close();
+        var rawMessage = rawMessages(1, 1).get(0);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertThrows(IllegalStateException.class, tracker::snapshot);
+            assertThrows(IllegalStateException.class, () -> tracker.submit(rawMessage));
+        });
+    }
+
+    @Test
+    void shardedAircraftTrackerCloseReleasesBlockedRouterAndSnapshots() throws InterruptedException {
+        var rawMessages = rawMessages(1, 100);
+        for (int round = 0; round < 20; ++round) {
+            var tracker = new ShardedAircraftTracker(2, 1);
+            var router = new Thread(() -> {
+                try {
+                    for (RawMessage rawMessage : rawMessages) tracker.submit(rawMessage);
+                } catch (InterruptedException | IllegalStateException e) {
+                    // The tracker is closed while the router waits for a shard
+                }
+            });
+            var reader = new Thread(() -> {
+                try {
+                    while (true) tracker.snapshot();
+                } catch (InterruptedException | IllegalStateException e) {
+                    // The tracker is closed
+                }
+            });
+            router.start();
+            reader.start();
+            Thread.sleep(round % 3);
+            tracker.close();
+
+            router.join(TimeUnit.SECONDS.toMillis(10));
+            reader.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(router.isAlive());
+            assertFalse(reader.isAlive());
+        }
+    }
+}
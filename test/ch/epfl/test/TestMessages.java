@@ -0,0 +1,31 @@
+package ch.epfl.test;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.util.HexFormat;
+
+public final class TestMessages {
+    private TestMessages() {}
+
+    // Valid messages of the 2023-03-04 recording, with their CRC.
+    public static final String IDENTIFICATION = "8D3991E10B0464B1CD43206F07E8";
+    public static final String VELOCITY = "8D485020994409940838175B284F";
+
+    public static RawMessage rawMessage(long timeStampNs, String hex) {
+        return RawMessage.of(timeStampNs, HexFormat.of().parseHex(hex));
+    }
+
+    // Replaces the ICAO address of the given message, and recomputes its CRC so that it stays valid.
+    public static RawMessage rawMessage(long timeStampNs, String hex, int icaoAddress) {
+        byte[] bytes = HexFormat.of().parseHex(hex);
+        bytes[1] = (byte) (icaoAddress >>> 16);
+        bytes[2] = (byte) (icaoAddress >>> 8);
+        bytes[3] = (byte) icaoAddress;
+        int crc = new Crc24(Crc24.GENERATOR).crc(bytes, 0, RawMessage.LENGTH - 3);
+        bytes[RawMessage.LENGTH - 3] = (byte) (crc >>> 16);
+        bytes[RawMessage.LENGTH - 2] = (byte) (crc >>> 8);
+        bytes[RawMessage.LENGTH - 1] = (byte) crc;
+        return RawMessage.of(timeStampNs, bytes);
+    }
+}